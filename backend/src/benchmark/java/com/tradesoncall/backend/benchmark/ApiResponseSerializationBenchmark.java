@@ -0,0 +1,86 @@
+package com.tradesoncall.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tradesoncall.backend.model.dto.response.ApiResponse;
+import com.tradesoncall.backend.model.dto.response.SearchResultsResponse;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the search endpoint's response body, {@code ApiResponse<SearchResultsResponse>}, with
+ * an ObjectMapper set up like Spring Boot's.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.tradesoncall.backend.benchmark.BenchmarkRunner -Dbenchmark.args=ApiResponseSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"20", "60"})
+    private int results;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<SearchResultsResponse> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<ServiceSearchResponse> places = new ArrayList<>(results);
+        for (int i = 0; i < results; i++) {
+            places.add(ServiceSearchResponse.builder()
+                    .placeId("ChIJ" + i + "abcdefghijklmnop")
+                    .name("Provider " + i)
+                    .address(i + " Main Street, New York, NY 10001, USA")
+                    .phoneNumber("(212) 555-01" + (i % 100))
+                    .rating(4.0 + (i % 10) / 10.0)
+                    .totalReviews(100 + i)
+                    .priceLevel(i % 4)
+                    .distanceMiles(0.1 * i)
+                    .openNow(i % 3 != 0)
+                    .website("https://provider" + i + ".example.com/")
+                    .googleMapsUrl("https://www.google.com/maps/place/?q=place_id:ChIJ" + i)
+                    .serviceTypes(List.of("plumber", "point_of_interest", "establishment"))
+                    .latitude(40.71 + i / 1000.0)
+                    .longitude(-74.0 - i / 1000.0)
+                    .photoUrls(List.of("https://places.googleapis.com/v1/places/ChIJ" + i + "/photos/a/media?maxWidthPx=400"))
+                    .build());
+        }
+        response = ApiResponse.success("Found " + results + " service providers", SearchResultsResponse.builder()
+                .location("New York, NY")
+                .serviceType("Plumber")
+                .totalResults(results)
+                .results(places)
+                .searchCenter(SearchResultsResponse.LocationCoordinates.builder().latitude(40.7128).longitude(-74.006).build())
+                .build());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,47 @@
+package com.tradesoncall.backend.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * JMH launcher for tracking results over time: runs with the allocation profiler and writes JSON
+ * results to target/jmh/&lt;timestamp&gt;.json, unless the arguments choose otherwise. Any other
+ * JMH command line option is passed through.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.tradesoncall.backend.benchmark.BenchmarkRunner -Dbenchmark.args=<benchmark regex>}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            Path results = Path.of("target", "jmh",
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+            Files.createDirectories(results.getParent());
+            options.result(results.toString());
+            if (!commandLine.getResultFormat().hasValue()) {
+                options.resultFormat(ResultFormatType.JSON);
+            }
+        }
+
+        new Runner(options.build()).run();
+    }
+}
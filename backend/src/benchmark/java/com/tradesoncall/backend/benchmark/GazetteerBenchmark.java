@@ -0,0 +1,100 @@
+package com.tradesoncall.backend.benchmark;
+
+import com.tradesoncall.backend.config.GazetteerConfig;
+import com.tradesoncall.backend.service.geo.Gazetteer;
+import com.tradesoncall.backend.service.geo.GazetteerBuilder;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Gazetteer} lookups in a file the size of the US postal code dataset
+ * (about 41,000 zip codes, so about 120,000 keys).
+ * <ul>
+ *     <li>lookup: a normalized zip code key, the mapped index alone</li>
+ *     <li>find: raw "City, ST" input, including {@code LocationNormalizer}</li>
+ *     <li>miss: a street address, which falls through to the Geocoding API</li>
+ * </ul>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.tradesoncall.backend.benchmark.BenchmarkRunner -Dbenchmark.args=GazetteerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GazetteerBenchmark {
+
+    private static final int ZIP_CODES = 41_000;
+    private static final int QUERIES = 1024;
+
+    private Path file;
+    private Gazetteer gazetteer;
+    private final String[] zipCodes = new String[QUERIES];
+    private final String[] places = new String[QUERIES];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        GazetteerBuilder builder = new GazetteerBuilder();
+        for (int zip = 0; zip < ZIP_CODES; zip++) {
+            builder.addPostalCode("US", String.format("%05d", 1000 + zip * 2), "Town " + (zip / 3),
+                    "State " + (zip % 50), "S" + (zip % 50),
+                    25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57);
+        }
+        file = Files.createTempFile("gazetteer", ".bin");
+        builder.write(file);
+
+        GazetteerConfig config = new GazetteerConfig();
+        config.setFile(file.toString());
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", new SimpleMeterRegistry());
+        gazetteer = new Gazetteer(config, beans.getBeanProvider(MeterRegistry.class));
+
+        for (int i = 0; i < QUERIES; i++) {
+            int zip = random.nextInt(ZIP_CODES);
+            zipCodes[i] = String.format("%05d", 1000 + zip * 2);
+            places[i] = "Town " + (zip / 3) + ", S" + (zip % 50);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public GeoPoint lookup() {
+        return gazetteer.lookup(zipCodes[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public GeoPoint find() {
+        return gazetteer.find(places[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public GeoPoint miss() {
+        return gazetteer.find("1600 Pennsylvania Ave NW, Washington, DC");
+    }
+}
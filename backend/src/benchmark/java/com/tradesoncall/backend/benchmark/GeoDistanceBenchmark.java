@@ -0,0 +1,87 @@
+package com.tradesoncall.backend.benchmark;
+
+import com.tradesoncall.backend.service.geo.DistanceKernel;
+import com.tradesoncall.backend.service.geo.GeoDistance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distances from one origin to a batch of points within 25 miles, the shape of a
+ * {@code ProviderSpatialIndex} cell scan.
+ * <ul>
+ *     <li>perPoint: {@link GeoDistance#haversineMiles} per point, as before the batch kernel</li>
+ *     <li>haversine: {@link DistanceKernel#haversineMiles} with the origin terms precomputed</li>
+ *     <li>equirectangular / equirectangularVector: the fast path, scalar and with the Vector API</li>
+ * </ul>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main
+ * -Dbenchmark.args=GeoDistanceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoDistanceBenchmark {
+
+    @Param({"1000"})
+    public int points;
+
+    private DistanceKernel.Origin origin;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] distances;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        origin = DistanceKernel.origin(40.71, -74.00);
+        latitudes = new double[points];
+        longitudes = new double[points];
+        distances = new double[points];
+        for (int i = 0; i < points; i++) {
+            latitudes[i] = origin.latitude() + (random.nextDouble() - 0.5) * 0.7;
+            longitudes[i] = origin.longitude() + (random.nextDouble() - 0.5) * 0.9;
+        }
+    }
+
+    @Benchmark
+    public double[] perPoint() {
+        for (int i = 0; i < points; i++) {
+            distances[i] = GeoDistance.haversineMiles(origin.latitude(), origin.longitude(), latitudes[i], longitudes[i]);
+        }
+        return distances;
+    }
+
+    @Benchmark
+    public double[] haversine() {
+        DistanceKernel.haversineMiles(origin, latitudes, longitudes, points, distances);
+        return distances;
+    }
+
+    @Benchmark
+    public double[] equirectangular() {
+        DistanceKernel.equirectangularMiles(origin, latitudes, longitudes, points, distances);
+        return distances;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public double[] equirectangularVector() {
+        DistanceKernel.equirectangularMiles(origin, latitudes, longitudes, points, distances);
+        return distances;
+    }
+}
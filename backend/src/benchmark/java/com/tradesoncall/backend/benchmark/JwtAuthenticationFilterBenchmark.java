@@ -0,0 +1,92 @@
+package com.tradesoncall.backend.benchmark;
+
+import com.tradesoncall.backend.model.entity.User;
+import com.tradesoncall.backend.repository.RefreshTokenRepository;
+import com.tradesoncall.backend.repository.UserRepository;
+import com.tradesoncall.backend.security.JwtAuthenticationFilter;
+import com.tradesoncall.backend.security.JwtTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtAuthenticationFilter} on an authenticated request, with the user and refresh token
+ * repositories stubbed out, so the score is the filter's own CPU cost without the two database
+ * round trips it makes in production.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.tradesoncall.backend.benchmark.BenchmarkRunner -Dbenchmark.args=JwtAuthenticationFilterBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain PASS = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(JwtBenchmark.jwtConfig());
+        User user = JwtBenchmark.user();
+
+        UserRepository userRepository = stub(UserRepository.class, "findById", Optional.of(user));
+        RefreshTokenRepository refreshTokenRepository = stub(RefreshTokenRepository.class, "existsByToken", false);
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, userRepository, refreshTokenRepository,
+                beans.getBeanProvider(MeterRegistry.class));
+        request = new MockHttpServletRequest("POST", "/api/v1/search/services");
+        request.addHeader("Authorization", "Bearer " + jwtTokenProvider.generateAccessToken(user));
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        // OncePerRequestFilter marks the request as filtered; clear it so each call runs the filter
+        request.clearAttributes();
+        filter.doFilter(request, response, PASS);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /**
+     * Repository answering one method with a fixed value. Mockito is avoided on purpose: it walks
+     * the stack on every stubbed call, which would cost more than the filter itself.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> repository, String method, Object answer) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, invoked, args) -> {
+                    if (invoked.getName().equals(method)) {
+                        return answer;
+                    }
+                    throw new UnsupportedOperationException(invoked.getName());
+                });
+    }
+}
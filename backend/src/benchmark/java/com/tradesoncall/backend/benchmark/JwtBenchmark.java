@@ -0,0 +1,87 @@
+package com.tradesoncall.backend.benchmark;
+
+import com.tradesoncall.backend.config.JwtConfig;
+import com.tradesoncall.backend.model.entity.User;
+import com.tradesoncall.backend.model.enums.UserStatus;
+import com.tradesoncall.backend.model.enums.UserType;
+import com.tradesoncall.backend.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token checks done on every authenticated request by {@link JwtTokenProvider}.
+ * <ul>
+ *     <li>validate / userId: one signature check and claims parse each</li>
+ *     <li>validateThenUserId: both, as the authentication filter calls them</li>
+ * </ul>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.tradesoncall.backend.benchmark.BenchmarkRunner -Dbenchmark.args=JwtBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(jwtConfig());
+        token = jwtTokenProvider.generateAccessToken(user());
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtTokenProvider.validateAccessToken(token);
+    }
+
+    @Benchmark
+    public UUID userId() {
+        return jwtTokenProvider.getUserIdFromAccessToken(token);
+    }
+
+    @Benchmark
+    public UUID validateThenUserId() {
+        return jwtTokenProvider.validateAccessToken(token) ? jwtTokenProvider.getUserIdFromAccessToken(token) : null;
+    }
+
+    /**
+     * The application.yaml defaults
+     */
+    static JwtConfig jwtConfig() {
+        JwtConfig config = new JwtConfig();
+        config.setAccessTokenSecret("404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        config.setRefreshTokenSecret("074E635266556A586E3272357538782F413F4428472B4B6250645367566B5904");
+        config.setAccessExpirationMs(86_400_000L);
+        config.setRefreshExpirationMs(604_800_000L);
+        return config;
+    }
+
+    static User user() {
+        return User.builder()
+                .userId(UUID.fromString("5f0c6f1e-7d0a-4c39-9b41-3a0f7f0c2a11"))
+                .phone("+15550000000")
+                .email("benchmark@example.com")
+                .passwordHash("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchm")
+                .userType(UserType.CUSTOMER)
+                .status(UserStatus.ACTIVE)
+                .isVerified(true)
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.tradesoncall.backend.benchmark;
+
+import com.tradesoncall.backend.config.GazetteerConfig;
+import com.tradesoncall.backend.config.LocationSuggestConfig;
+import com.tradesoncall.backend.model.dto.response.LocationSuggestionResponse;
+import com.tradesoncall.backend.repository.GeocodeCacheRepository;
+import com.tradesoncall.backend.service.geo.Gazetteer;
+import com.tradesoncall.backend.service.geo.GazetteerBuilder;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import com.tradesoncall.backend.service.geo.LocationSuggester;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LocationSuggester} over a gazetteer the size of the US postal code dataset: about 41,000
+ * zip codes and 14,000 places.
+ * <ul>
+ *     <li>shortPrefix: two characters, where thousands of keys share the prefix</li>
+ *     <li>place: a partially typed "Town 12" that narrows to a few dozen places</li>
+ *     <li>record: counting a search, as every search does</li>
+ * </ul>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.tradesoncall.backend.benchmark.BenchmarkRunner -Dbenchmark.args=LocationSuggestBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocationSuggestBenchmark {
+
+    private static final int ZIP_CODES = 41_000;
+    private static final int QUERIES = 1024;
+    private static final UUID USER = UUID.randomUUID();
+    private static final GeoPoint POINT = new GeoPoint(40.7, -74.0);
+
+    private Path file;
+    private LocationSuggester suggester;
+    private final String[] shortPrefixes = new String[QUERIES];
+    private final String[] places = new String[QUERIES];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        GazetteerBuilder builder = new GazetteerBuilder();
+        for (int zip = 0; zip < ZIP_CODES; zip++) {
+            builder.addPostalCode("US", String.format("%05d", 1000 + zip * 2), "Town " + (zip / 3),
+                    "State " + (zip % 50), "S" + (zip % 50),
+                    25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57);
+        }
+        file = Files.createTempFile("gazetteer", ".bin");
+        builder.write(file);
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", new SimpleMeterRegistry());
+        GazetteerConfig gazetteerConfig = new GazetteerConfig();
+        gazetteerConfig.setFile(file.toString());
+        Gazetteer gazetteer = new Gazetteer(gazetteerConfig, beans.getBeanProvider(MeterRegistry.class));
+
+        // No search history
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public void query(String sql, RowCallbackHandler handler, Object... args) {
+            }
+        };
+        GeocodeCacheRepository geocodeCache = (GeocodeCacheRepository) Proxy.newProxyInstance(
+                GeocodeCacheRepository.class.getClassLoader(), new Class<?>[]{GeocodeCacheRepository.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        suggester = new LocationSuggester(new LocationSuggestConfig(), gazetteer, jdbcTemplate, geocodeCache,
+                beans.getBeanProvider(MeterRegistry.class));
+        suggester.start();
+        while (suggester.size() == 0) {
+            Thread.sleep(10);
+        }
+
+        for (int i = 0; i < QUERIES; i++) {
+            shortPrefixes[i] = random.nextBoolean() ? "To" : Integer.toString(10 + random.nextInt(80));
+            places[i] = "Town " + random.nextInt(ZIP_CODES / 3 / 10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        suggester.stop();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<LocationSuggestionResponse> shortPrefix() {
+        return suggester.suggest(shortPrefixes[next++ & (QUERIES - 1)], null);
+    }
+
+    @Benchmark
+    public List<LocationSuggestionResponse> place() {
+        return suggester.suggest(places[next++ & (QUERIES - 1)], null);
+    }
+
+    @Benchmark
+    public void record() {
+        suggester.record(USER, places[next++ & (QUERIES - 1)] + ", S1", POINT);
+    }
+}
@@ -0,0 +1,82 @@
+package com.tradesoncall.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradesoncall.backend.service.external.PlacesPage;
+import com.tradesoncall.backend.service.external.PlacesResponseDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a 20-place Places (New) response with the full field mask.
+ * <ul>
+ *     <li>streaming: {@link PlacesResponseDecoder}, straight into the outgoing DTOs</li>
+ *     <li>tree: binding the same body to a Jackson tree, a lower bound for any databind-then-copy path</li>
+ * </ul>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main
+ * "-Dbenchmark.args=PlacesDecodeBenchmark -prof gc"} to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlacesDecodeBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PlacesResponseDecoder decoder;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        decoder = new PlacesResponseDecoder(objectMapper, "benchmark-key");
+
+        StringBuilder json = new StringBuilder("{\"places\":[");
+        for (int i = 0; i < 20; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("""
+                    {"id":"places/ChIJ%1$dabcdefghijklmnop","displayName":{"text":"Provider %1$d","languageCode":"en"},
+                    "formattedAddress":"%1$d Main Street, New York, NY 10001, USA",
+                    "location":{"latitude":40.7%1$d,"longitude":-74.0%1$d},"rating":4.%1$d,"userRatingCount":1%1$d,
+                    "nationalPhoneNumber":"(212) 555-01%1$02d","websiteUri":"https://provider%1$d.example.com/",
+                    "regularOpeningHours":{"openNow":true,"periods":[{"open":{"day":1,"hour":8,"minute":0},"close":{"day":1,"hour":17,"minute":0}},
+                    {"open":{"day":2,"hour":8,"minute":0},"close":{"day":2,"hour":17,"minute":0}}],
+                    "weekdayDescriptions":["Monday: 8:00 AM - 5:00 PM","Tuesday: 8:00 AM - 5:00 PM"]},
+                    "currentOpeningHours":{"openNow":true,"periods":[],"weekdayDescriptions":[]},
+                    "businessStatus":"OPERATIONAL","types":["plumber","point_of_interest","establishment"],
+                    "priceLevel":"PRICE_LEVEL_MODERATE",
+                    "photos":[{"name":"places/ChIJ%1$d/photos/AUc7tXabcdefghijklmnopqrstuvwxyz","widthPx":4032,"heightPx":3024,
+                    "authorAttributions":[{"displayName":"Someone","uri":"https://maps.google.com/maps/contrib/1"}]},
+                    {"name":"places/ChIJ%1$d/photos/second","widthPx":800,"heightPx":600}]}
+                    """.formatted(i));
+        }
+        body = json.append("],\"nextPageToken\":\"next\"}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public PlacesPage streaming() throws IOException {
+        return decoder.decodePlaces(new ByteArrayInputStream(body), 40.71, -74.00);
+    }
+
+    @Benchmark
+    public JsonNode tree() throws IOException {
+        return objectMapper.readTree(new ByteArrayInputStream(body));
+    }
+}
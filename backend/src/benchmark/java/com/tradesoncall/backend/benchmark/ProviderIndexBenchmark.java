@@ -0,0 +1,121 @@
+package com.tradesoncall.backend.benchmark;
+
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.service.provider.ProviderSpatialIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Radius query time of {@link ProviderSpatialIndex} holding 1M providers of one service type.
+ * <ul>
+ *     <li>uniform: spread evenly over the continental US (sparse, ~700 per square degree)</li>
+ *     <li>metro: clustered around 50 metro areas, the realistic and dense case</li>
+ * </ul>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main
+ * -Dbenchmark.args=ProviderIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProviderIndexBenchmark {
+
+    private static final int QUERY_POINTS = 1_024;
+
+    @Param({"1000000"})
+    public int providers;
+
+    @Param({"uniform", "metro"})
+    public String distribution;
+
+    @Param({"5", "25"})
+    public int radiusMiles;
+
+    @Param({"0.05"})
+    public double cellDegrees;
+
+    private ProviderSpatialIndex index;
+    private double[] queryLatitudes;
+    private double[] queryLongitudes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        double[][] metros = new double[50][];
+        for (int i = 0; i < metros.length; i++) {
+            metros[i] = new double[]{uniformLatitude(random), uniformLongitude(random)};
+        }
+
+        index = new ProviderSpatialIndex(cellDegrees);
+        queryLatitudes = new double[QUERY_POINTS];
+        queryLongitudes = new double[QUERY_POINTS];
+
+        for (int i = 0; i < providers; i++) {
+            double[] point = point(random, metros);
+            index.upsert(ServiceType.PLUMBER, ServiceSearchResponse.builder()
+                    .placeId("place-" + i)
+                    .name("Provider " + i)
+                    .rating(1 + random.nextDouble() * 4)
+                    .latitude(point[0])
+                    .longitude(point[1])
+                    .build());
+        }
+
+        // Query where the providers are, as real searches do
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            double[] point = point(random, metros);
+            queryLatitudes[i] = point[0];
+            queryLongitudes[i] = point[1];
+        }
+    }
+
+    @Benchmark
+    public List<ServiceSearchResponse> radiusQuery() {
+        int i = next++ & (QUERY_POINTS - 1);
+        return index.query(ServiceType.PLUMBER, queryLatitudes[i], queryLongitudes[i], radiusMiles, 20);
+    }
+
+    private double[] point(SplittableRandom random, double[][] metros) {
+        if ("uniform".equals(distribution)) {
+            return new double[]{uniformLatitude(random), uniformLongitude(random)};
+        }
+
+        // Gaussian spread of roughly 20 miles around a metro centre
+        double[] metro = metros[random.nextInt(metros.length)];
+        return new double[]{
+                metro[0] + gaussian(random) * 0.3,
+                metro[1] + gaussian(random) * 0.4
+        };
+    }
+
+    private static double uniformLatitude(SplittableRandom random) {
+        return 25 + random.nextDouble() * 24;
+    }
+
+    private static double uniformLongitude(SplittableRandom random) {
+        return -125 + random.nextDouble() * 58;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
@@ -0,0 +1,98 @@
+package com.tradesoncall.backend.benchmark;
+
+import com.tradesoncall.backend.config.RankingConfig;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.model.enums.RankingProfile;
+import com.tradesoncall.backend.service.ranking.RankingEngine;
+import com.tradesoncall.backend.service.ranking.RankingRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Scoring and top-K selection of 10k candidates with {@link RankingEngine}, against the
+ * straightforward stream approach (filter passes, then score and fully sort).
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main
+ * -Dbenchmark.args=RankingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RankingBenchmark {
+
+    @Param({"10000"})
+    public int candidates;
+
+    @Param({"20"})
+    public int k;
+
+    @Param({"BALANCED"})
+    public RankingProfile profile;
+
+    private RankingEngine engine;
+    private RankingRequest request;
+    private List<ServiceSearchResponse> input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new RankingEngine(new RankingConfig());
+        request = new RankingRequest(profile, 25, 3.0, false, k);
+
+        SplittableRandom random = new SplittableRandom(42);
+        input = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            input.add(ServiceSearchResponse.builder()
+                    .placeId("place-" + i)
+                    .distanceMiles(random.nextDouble() * 25)
+                    .rating(random.nextInt(10) == 0 ? null : 1 + random.nextDouble() * 4)
+                    .totalReviews(random.nextInt(2_000))
+                    .openNow(random.nextBoolean())
+                    .priceLevel(random.nextInt(5))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<ServiceSearchResponse> rankingEngine() {
+        return engine.rank(input, request);
+    }
+
+    @Benchmark
+    public List<ServiceSearchResponse> streamFilterAndSort() {
+        RankingConfig.Weights w = new RankingConfig().getProfiles().get(profile);
+        return input.stream()
+                .filter(r -> r.getRating() != null && r.getRating() >= request.minRating())
+                .sorted(Comparator.comparingDouble((ServiceSearchResponse r) -> -score(r, w)))
+                .limit(k)
+                .collect(Collectors.toList());
+    }
+
+    private double score(ServiceSearchResponse r, RankingConfig.Weights w) {
+        double distance = Math.max(0, 1 - r.getDistanceMiles() / request.radiusMiles());
+        double rating = r.getRating() == null ? 0 : (r.getRating() - 1) / 4;
+        double reviews = Math.min(Math.log1p(r.getTotalReviews()) / Math.log1p(500), 1);
+        double openNow = r.getOpenNow() == null ? 0.5 : r.getOpenNow() ? 1 : 0;
+        double price = r.getPriceLevel() == null ? 0.5 : (4.0 - r.getPriceLevel()) / 4;
+        return w.getDistance() * distance + w.getRating() * rating + w.getReviews() * reviews
+                + w.getOpenNow() * openNow + w.getPriceLevel() * price;
+    }
+}
@@ -0,0 +1,182 @@
+package com.tradesoncall.backend.benchmark;
+
+import com.tradesoncall.backend.BackendApplication;
+import com.tradesoncall.backend.fake.FakeGoogleServer;
+import com.tradesoncall.backend.fake.LatencyDistribution;
+import com.tradesoncall.backend.model.entity.User;
+import com.tradesoncall.backend.model.enums.UserStatus;
+import com.tradesoncall.backend.model.enums.UserType;
+import com.tradesoncall.backend.repository.UserRepository;
+import com.tradesoncall.backend.security.JwtTokenProvider;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of POST /api/v1/search/services under high concurrency, comparing
+ * <ul>
+ *     <li>platform-threads: blocking orchestration on a platform-thread Tomcat pool</li>
+ *     <li>virtual-threads: blocking orchestration with Tomcat on virtual threads</li>
+ *     <li>reactive: the non-blocking pipeline on a platform-thread Tomcat pool</li>
+ * </ul>
+ * The Google APIs are replaced by {@link FakeGoogleServer} with a fixed latency. Caches, the local
+ * provider store, quotas, rate limits and hedging are disabled so every request pays the full
+ * upstream round trips once.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.tradesoncall.backend.benchmark.SearchConcurrencyBenchmark}.
+ * Tunables are system properties passed through benchmark.jvmArgs, e.g.
+ * {@code -Dbenchmark.jvmArgs="-Dbench.concurrency=2000 -Dbench.requests=20000"}
+ * (bench.concurrency, bench.requests, bench.warmupRequests, bench.upstreamLatencyMs, bench.tomcatThreads).
+ */
+public class SearchConcurrencyBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 1_000);
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 10_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("bench.warmupRequests", 2_000);
+    private static final int UPSTREAM_LATENCY_MS = Integer.getInteger("bench.upstreamLatencyMs", 100);
+    private static final int TOMCAT_THREADS = Integer.getInteger("bench.tomcatThreads", 200);
+
+    private static final String SEARCH_BODY = "{\"serviceType\":\"PLUMBER\",\"location\":\"New York, NY\"}";
+
+    public static void main(String[] args) throws Exception {
+        FakeGoogleServer upstream = FakeGoogleServer.start(FakeGoogleServer.Settings.builder()
+                .latency(LatencyDistribution.fixed(Duration.ofMillis(UPSTREAM_LATENCY_MS)))
+                .build());
+        String upstreamUrl = upstream.baseUrl();
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        try {
+            results.put("platform-threads", run(upstreamUrl, "virtual-threads", false));
+            results.put("virtual-threads", run(upstreamUrl, "virtual-threads", true));
+            results.put("reactive", run(upstreamUrl, "reactive", false));
+        } finally {
+            upstream.close();
+        }
+
+        System.out.printf("%nconcurrency=%d requests=%d upstreamLatency=%dms tomcatThreads=%d%n",
+                CONCURRENCY, REQUESTS, UPSTREAM_LATENCY_MS, TOMCAT_THREADS);
+        System.out.printf("%-18s %12s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        results.forEach((mode, result) -> System.out.printf("%-18s %12.1f %10.1f %10.1f %10.1f %8d%n",
+                mode, result.throughput(), result.percentile(50), result.percentile(99),
+                result.percentile(100), result.errors()));
+    }
+
+    private static Result run(String upstreamUrl, String executionMode, boolean virtualThreads) throws Exception {
+        // Command line arguments, so they take precedence over application.yaml
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.tradesoncall.backend=WARN",
+                        "--app.search.execution-mode=" + executionMode,
+                        "--app.geocode-cache.enabled=false",
+                        "--app.search-cache.enabled=false",
+                        "--app.provider-store.enabled=false",
+                        "--google.places.base-url=" + upstreamUrl,
+                        "--google.geocoding.base-url=" + upstreamUrl,
+                        "--google.http.max-connections=" + (CONCURRENCY * 2),
+                        "--google.http.pending-acquire-max-count=-1",
+                        "--google.http.read-timeout=30s",
+                        "--google.quota.enabled=false",
+                        "--google.resilience.hedging.enabled=false",
+                        "--app.rate-limit.enabled=false"
+                );
+
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String token = createUserToken(context);
+            URI searchUri = URI.create("http://localhost:" + port + "/api/v1/search/services");
+
+            try (HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build()) {
+                fire(client, searchUri, token, WARMUP_REQUESTS);
+                return fire(client, searchUri, token, REQUESTS);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result fire(HttpClient client, URI uri, String token, int requests) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(SEARCH_BODY))
+                .build();
+
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                inFlight.acquire();
+                executor.submit(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - sent;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(latencies, elapsed, errors.get());
+    }
+
+    private static String createUserToken(ConfigurableApplicationContext context) {
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .phone("+15550000000")
+                .passwordHash("benchmark")
+                .userType(UserType.CUSTOMER)
+                .status(UserStatus.ACTIVE)
+                .isVerified(true)
+                .build());
+        return context.getBean(JwtTokenProvider.class).generateAccessToken(user);
+    }
+
+    private record Result(long[] sortedLatenciesNanos, long elapsedNanos, int errors) {
+
+        double throughput() {
+            return sortedLatenciesNanos.length / (elapsedNanos / 1e9);
+        }
+
+        double percentile(double p) {
+            int index = (int) Math.ceil(p / 100 * sortedLatenciesNanos.length) - 1;
+            return sortedLatenciesNanos[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.tradesoncall.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Offline gazetteer of zip codes and cities, built with GazetteerBuilder.
+ * Without the file, every location goes to the Geocoding API as before.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.gazetteer")
+@Getter
+@Setter
+public class GazetteerConfig {
+    private boolean enabled = true;
+    private String file = "data/gazetteer.bin";
+    // Fault the whole file into memory at startup rather than on first lookups
+    private boolean preload = true;
+}
@@ -0,0 +1,26 @@
+package com.tradesoncall.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.geocode-cache")
+@Getter
+@Setter
+public class GeocodeCacheConfig {
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofDays(30);
+    private Durable durable = new Durable();
+
+    @Getter
+    @Setter
+    public static class Durable {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofDays(90);
+    }
+}
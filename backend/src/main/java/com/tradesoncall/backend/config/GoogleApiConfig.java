@@ -0,0 +1,157 @@
+package com.tradesoncall.backend.config;
+
+import com.tradesoncall.backend.model.enums.GoogleSku;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "google")
+@Getter
+@Setter
+public class GoogleApiConfig {
+    private Places places = new Places();
+    private Geocoding geocoding = new Geocoding();
+    private Http http = new Http();
+    private Coalescing coalescing = new Coalescing();
+    private Resilience resilience = new Resilience();
+    private Quota quota = new Quota();
+
+    @Getter
+    @Setter
+    public static class Places {
+        private String apiKey;
+        private String baseUrl = "https://places.googleapis.com/v1";
+    }
+
+    @Getter
+    @Setter
+    public static class Geocoding {
+        private String baseUrl = "https://maps.googleapis.com/maps/api";
+    }
+
+    /**
+     * Connection pool and transport settings, applied to each upstream's client separately
+     */
+    @Getter
+    @Setter
+    public static class Http {
+        private int maxConnections = 100;
+        private int pendingAcquireMaxCount = 1_000;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        private Duration maxIdleTime = Duration.ofSeconds(60);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(5);
+        private boolean compression = true;
+        private boolean http2 = true;
+        private boolean metricsEnabled = true;
+        // Responses are decoded from one buffer; larger bodies fail rather than grow the heap
+        private DataSize maxResponseSize = DataSize.ofMegabytes(1);
+    }
+
+    /**
+     * Sharing of identical in-flight geocode and nearby search calls
+     */
+    @Getter
+    @Setter
+    public static class Coalescing {
+        private boolean enabled = true;
+        // Upper bound on a shared call, after which every waiter gets a timeout error
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Timeouts, circuit breakers and hedging around each Google endpoint
+     */
+    @Getter
+    @Setter
+    public static class Resilience {
+        private Duration geocodeTimeout = Duration.ofSeconds(3);
+        private Duration placesTimeout = Duration.ofSeconds(5);
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+        private Hedging hedging = new Hedging();
+    }
+
+    /**
+     * Count-based circuit breaker over the last window-size calls; timeouts count as failures
+     */
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        private int windowSize = 50;
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        // How long an open circuit rejects calls before letting trial calls through
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+    }
+
+    /**
+     * Geocoding hedging: a second request is sent if the first is slower than the given
+     * percentile of recent latencies, bounded by min-delay and max-delay
+     */
+    @Getter
+    @Setter
+    public static class Hedging {
+        private boolean enabled = true;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(100);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        // Upper bound on hedged requests as a fraction of calls, so a brownout is not doubled
+        private double maxHedgeRatio = 0.1;
+    }
+
+    /**
+     * Request rate and daily budget per billed endpoint. Calls over the rate wait for a slot up to
+     * max-wait; each active user gets a weighted share of the rate and at most user-daily-share of
+     * the daily budget, so one client cannot starve the rest.
+     */
+    @Getter
+    @Setter
+    public static class Quota {
+        private boolean enabled = true;
+        // Longest a call queues for a rate slot before failing with 429
+        private Duration maxWait = Duration.ofSeconds(2);
+        private double userDailyShare = 0.1;
+        // Users who made a call within this window share the rate
+        private Duration activeUserWindow = Duration.ofSeconds(30);
+        // Relative weight per user (phone number); users not listed weigh 1
+        private Map<String, Double> userWeights = new HashMap<>();
+        private Map<GoogleSku, SkuQuota> skus = defaultSkus();
+
+        private static Map<GoogleSku, SkuQuota> defaultSkus() {
+            Map<GoogleSku, SkuQuota> skus = new EnumMap<>(GoogleSku.class);
+            skus.put(GoogleSku.NEARBY_SEARCH, new SkuQuota(10, 20, 5_000));
+            skus.put(GoogleSku.TEXT_SEARCH, new SkuQuota(10, 20, 5_000));
+            skus.put(GoogleSku.GEOCODE, new SkuQuota(20, 40, 10_000));
+            return skus;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class SkuQuota {
+        private double requestsPerSecond;
+        private int burst;
+        private long dailyBudget;
+
+        public SkuQuota() {
+        }
+
+        public SkuQuota(double requestsPerSecond, int burst, long dailyBudget) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+            this.dailyBudget = dailyBudget;
+        }
+    }
+}
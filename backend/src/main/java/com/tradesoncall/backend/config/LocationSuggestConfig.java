@@ -0,0 +1,32 @@
+package com.tradesoncall.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Location typeahead, built from the gazetteer's places and the locations users search for
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.location-suggest")
+@Getter
+@Setter
+public class LocationSuggestConfig {
+    private boolean enabled = true;
+    private int minQueryLength = 2;
+    private int defaultLimit = 8;
+    private int maxLimit = 20;
+    private boolean includePostalCodes = true;
+    // Searches loaded at startup: locations searched within the window, most searched first
+    private Duration historyWindow = Duration.ofDays(90);
+    private int historyLocations = 50_000;
+    // Weight of one search, against one postal code of a gazetteer place
+    private int historyWeight = 10;
+    // A location the gazetteer does not know is only suggested once this many users have searched it
+    private int minDistinctUsers = 3;
+    private Duration rebuildInterval = Duration.ofSeconds(10);
+    private int maxCandidates = 100_000;
+}
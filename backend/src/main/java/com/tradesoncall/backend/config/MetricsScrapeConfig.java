@@ -0,0 +1,19 @@
+package com.tradesoncall.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * HTTP Basic credentials of the Prometheus scrape, which also open the other actuator endpoints
+ * except health. Without a password those endpoints refuse every request.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.metrics-scrape")
+@Getter
+@Setter
+public class MetricsScrapeConfig {
+    private String username = "prometheus";
+    private String password;
+}
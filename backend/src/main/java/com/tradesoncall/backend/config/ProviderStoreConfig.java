@@ -0,0 +1,23 @@
+package com.tradesoncall.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.provider-store")
+@Getter
+@Setter
+public class ProviderStoreConfig {
+    private boolean enabled = true;
+    // Side of a spatial index grid cell in degrees (0.05 is roughly 3.5 miles north-south)
+    private double indexCellDegrees = 0.05;
+    // Geohash precision of the cells whose upstream freshness is tracked
+    private int coveragePrecision = 5;
+    private Duration freshTtl = Duration.ofDays(7);
+    // Fewer local results than this (or than maxResults, if smaller) falls back to Google
+    private int minResults = 5;
+}
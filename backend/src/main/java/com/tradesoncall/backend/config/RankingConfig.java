@@ -0,0 +1,48 @@
+package com.tradesoncall.backend.config;
+
+import com.tradesoncall.backend.model.enums.RankingProfile;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.ranking")
+@Getter
+@Setter
+public class RankingConfig {
+    private RankingProfile defaultProfile = RankingProfile.DISTANCE;
+    // Fetch this many times maxResults candidates (capped at max-fetch) so re-ranking has something to choose from
+    private int overFetchFactor = 2;
+    private int maxFetch = 20;
+    private Map<RankingProfile, Weights> profiles = defaultProfiles();
+
+    /**
+     * Feature weights; each feature is normalized to [0, 1] before weighting
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Weights {
+        private double distance;
+        private double rating;
+        private double reviews;
+        private double openNow;
+        private double priceLevel;
+    }
+
+    private static Map<RankingProfile, Weights> defaultProfiles() {
+        Map<RankingProfile, Weights> profiles = new EnumMap<>(RankingProfile.class);
+        profiles.put(RankingProfile.DISTANCE, new Weights(1.0, 0, 0, 0, 0));
+        profiles.put(RankingProfile.BALANCED, new Weights(0.4, 0.3, 0.15, 0.1, 0.05));
+        profiles.put(RankingProfile.TOP_RATED, new Weights(0.15, 0.5, 0.3, 0.05, 0));
+        profiles.put(RankingProfile.OPEN_NOW, new Weights(0.35, 0.1, 0.05, 0.5, 0));
+        return profiles;
+    }
+}
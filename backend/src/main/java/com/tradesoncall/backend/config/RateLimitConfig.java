@@ -0,0 +1,42 @@
+package com.tradesoncall.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request rate limits per route. The first policy whose path matches a request applies.
+ * Behind a proxy, set server.forward-headers-strategy so the client IP is the caller's, not the proxy's.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Getter
+@Setter
+public class RateLimitConfig {
+    private boolean enabled = true;
+    // Upper bound on tracked users/IPs per policy; idle ones expire after two windows
+    private long maximumKeys = 100_000;
+    private List<Policy> policies = new ArrayList<>();
+
+    public enum Key {
+        // The authenticated user, or the client IP for anonymous requests
+        USER,
+        IP
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+        private String name;
+        // Spring path pattern, such as /api/v1/search/**
+        private String path;
+        private int limit;
+        private Duration window = Duration.ofMinutes(1);
+        private Key key = Key.USER;
+    }
+}
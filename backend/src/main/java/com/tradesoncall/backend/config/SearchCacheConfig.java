@@ -0,0 +1,23 @@
+package com.tradesoncall.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.search-cache")
+@Getter
+@Setter
+public class SearchCacheConfig {
+    private boolean enabled = true;
+    private long maximumSize = 5_000;
+    private int geohashPrecision = 6;
+    private List<Integer> radiusBucketsMiles = List.of(1, 2, 5, 10, 15, 25, 50);
+    private Duration freshTtl = Duration.ofMinutes(10);
+    private Duration staleWhileRevalidate = Duration.ofMinutes(30);
+    private Duration staleIfError = Duration.ofHours(24);
+}
@@ -0,0 +1,25 @@
+package com.tradesoncall.backend.config;
+
+import com.tradesoncall.backend.model.enums.SearchExecutionMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.search")
+@Getter
+@Setter
+public class SearchExecutionConfig {
+    private SearchExecutionMode executionMode = SearchExecutionMode.REACTIVE;
+    // Limit of a whole virtual-thread search, its subtasks and provider search together
+    private Duration subtaskTimeout = Duration.ofSeconds(15);
+    // Places calls in flight at once for one multi-service search
+    private int multiServiceConcurrency = 3;
+    // HMAC key for streamed search cursors
+    private String cursorSecret;
+    // Google page tokens expire, so cursors do too
+    private Duration cursorTtl = Duration.ofMinutes(30);
+}
@@ -0,0 +1,24 @@
+package com.tradesoncall.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Monthly search_history partitions on PostgreSQL; ignored on other databases
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.search-history-partitions")
+@Getter
+@Setter
+public class SearchHistoryPartitionConfig {
+    private boolean enabled = true;
+    // Partitions kept ready beyond the current month
+    private int monthsAhead = 3;
+    // Whole months of history kept besides the current one; 0 keeps everything
+    private int retentionMonths = 24;
+    private Duration checkInterval = Duration.ofHours(6);
+}
@@ -0,0 +1,26 @@
+package com.tradesoncall.backend.config;
+
+import com.tradesoncall.backend.model.enums.QueueOverflowPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.search-history")
+@Getter
+@Setter
+public class SearchHistoryWriterConfig {
+    // When false, history rows are saved synchronously one at a time
+    private boolean writeBehind = true;
+    private int queueCapacity = 10_000;
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private QueueOverflowPolicy overflowPolicy = QueueOverflowPolicy.DROP;
+    private Duration blockTimeout = Duration.ofMillis(100);
+    // Repeats of the same search by the same user within this window are recorded once
+    private Duration collapseWindow = Duration.ofSeconds(30);
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
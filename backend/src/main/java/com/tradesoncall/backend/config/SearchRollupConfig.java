@@ -0,0 +1,23 @@
+package com.tradesoncall.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.search-rollups")
+@Getter
+@Setter
+public class SearchRollupConfig {
+    private boolean enabled = true;
+    // Geohash length of a region; 3 is a cell of roughly 150 km
+    private int regionPrecision = 3;
+    private Duration flushInterval = Duration.ofSeconds(30);
+    private Duration hourlyRetention = Duration.ofDays(14);
+    private Duration dailyRetention = Duration.ofDays(730);
+    private int defaultDays = 7;
+    private int defaultLimit = 10;
+}
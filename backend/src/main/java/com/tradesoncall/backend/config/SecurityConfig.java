@@ -1,37 +1,88 @@
 package com.tradesoncall.backend.config;
 
 import com.tradesoncall.backend.security.JwtAuthenticationFilter;
+import com.tradesoncall.backend.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.StringUtils;
 
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final String METRICS_ROLE = "METRICS";
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Actuator endpoints other than health (the Prometheus scrape, metrics, spans), behind HTTP Basic
+     * with the configured scrape credentials rather than user JWTs
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http, MetricsScrapeConfig config,
+                                                   PasswordEncoder passwordEncoder) throws Exception {
+        http
+                .securityMatcher(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class))
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        if (!StringUtils.hasText(config.getPassword())) {
+            http.authorizeHttpRequests(auth -> auth.anyRequest().denyAll());
+            return http.build();
+        }
+
+        UserDetailsService scraper = new InMemoryUserDetailsManager(User.withUsername(config.getUsername())
+                .password(passwordEncoder.encode(config.getPassword()))
+                .roles(METRICS_ROLE)
+                .build());
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(scraper);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        http
+                .authenticationManager(new ProviderManager(authenticationProvider))
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole(METRICS_ROLE))
+                .httpBasic(Customizer.withDefaults());
+        return http.build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))  // No sessions, use JWT
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches complete requests that were already authorized (Mono/Flux results)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints (no authentication required)
                         .requestMatchers(
                                 "/api/v1/auth/**",           // Login, register, refresh
@@ -43,13 +94,16 @@ public class SecurityConfig {
                                 "/api-docs/**",              // API docs
                                 "/swagger-resources/**",     // Swagger resources
                                 "/webjars/**",               // WebJars for Swagger UI
-                                "/favicon.ico"               // Favicon
+                                "/favicon.ico",              // Favicon
+                                "/actuator/health/**"        // Liveness/readiness probes
                         ).permitAll()
 
                         // All other endpoints require authentication
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // After authentication, so limits can be keyed by user
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,30 @@
+package com.tradesoncall.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local span export, so traces can be read without a collector.
+ * Sampling and propagation are configured under management.tracing.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.tracing")
+@Getter
+@Setter
+public class TracingConfig {
+    // Spans for Spring Data repository calls made within a traced request
+    private boolean repositorySpans = true;
+    private LocalExport localExport = new LocalExport();
+
+    @Getter
+    @Setter
+    public static class LocalExport {
+        private boolean enabled = true;
+        // Most recent finished spans kept in memory, readable at /actuator/spans
+        private int recentSpans = 2000;
+        // Append finished spans to this file as JSON lines; empty for none
+        private String file = "";
+    }
+}
@@ -0,0 +1,92 @@
+package com.tradesoncall.backend.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Long-lived WebClients for the Google APIs.
+ * Each upstream gets its own connection pool so a slow Places API cannot starve geocoding.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebClientConfig {
+
+    private final GoogleApiConfig googleApiConfig;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geocodingConnectionProvider() {
+        return connectionProvider("google-geocoding");
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider placesConnectionProvider() {
+        return connectionProvider("google-places");
+    }
+
+    @Bean
+    public WebClient geocodingWebClient(WebClient.Builder webClientBuilder) {
+        return buildClient(webClientBuilder, geocodingConnectionProvider(),
+                googleApiConfig.getGeocoding().getBaseUrl());
+    }
+
+    @Bean
+    public WebClient placesWebClient(WebClient.Builder webClientBuilder) {
+        return buildClient(webClientBuilder, placesConnectionProvider(),
+                googleApiConfig.getPlaces().getBaseUrl());
+    }
+
+    private ConnectionProvider connectionProvider(String name) {
+        GoogleApiConfig.Http http = googleApiConfig.getHttp();
+        return ConnectionProvider.builder(name)
+                .maxConnections(http.getMaxConnections())
+                .pendingAcquireMaxCount(http.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(http.getPendingAcquireTimeout())
+                .maxIdleTime(http.getMaxIdleTime())
+                .maxLifeTime(http.getMaxLifeTime())
+                .evictInBackground(http.getEvictInBackground())
+                .metrics(http.isMetricsEnabled())
+                .build();
+    }
+
+    private WebClient buildClient(WebClient.Builder webClientBuilder, ConnectionProvider provider, String baseUrl) {
+        GoogleApiConfig.Http http = googleApiConfig.getHttp();
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(http.getReadTimeout())
+                .compress(http.isCompression())
+                .protocol(protocols(baseUrl, http.isHttp2()))
+                // Tag metrics by path only; query strings carry addresses and API keys
+                .metrics(http.isMetricsEnabled(), WebClientConfig::stripQuery);
+
+        return webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) http.getMaxResponseSize().toBytes()))
+                .build();
+    }
+
+    private static String stripQuery(String uri) {
+        int query = uri.indexOf('?');
+        return query < 0 ? uri : uri.substring(0, query);
+    }
+
+    /**
+     * HTTP/2 is negotiated via ALPN, so it is only offered over TLS
+     */
+    private HttpProtocol[] protocols(String baseUrl, boolean http2) {
+        if (http2 && baseUrl.startsWith("https")) {
+            return new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11};
+        }
+        return new HttpProtocol[]{HttpProtocol.HTTP11};
+    }
+}
@@ -1,12 +1,18 @@
 package com.tradesoncall.backend.controller;
 
+import com.tradesoncall.backend.model.dto.request.MultiServiceSearchRequest;
 import com.tradesoncall.backend.model.dto.request.ServiceSearchRequest;
 import com.tradesoncall.backend.model.dto.response.ApiResponse;
+import com.tradesoncall.backend.model.dto.response.LocationSuggestionResponse;
+import com.tradesoncall.backend.model.dto.response.PopularServiceResponse;
+import com.tradesoncall.backend.model.dto.response.SearchHistoryPageResponse;
 import com.tradesoncall.backend.model.dto.response.SearchResultsResponse;
-import com.tradesoncall.backend.model.dto.response.UserResponse;
+import com.tradesoncall.backend.model.dto.response.SearchStreamEvent;
 import com.tradesoncall.backend.security.JwtTokenProvider;
+import com.tradesoncall.backend.service.geo.LocationSuggester;
+import com.tradesoncall.backend.service.search.SearchHistoryService;
+import com.tradesoncall.backend.service.search.SearchRollups;
 import com.tradesoncall.backend.service.search.SearchService;
-import com.tradesoncall.backend.service.user.UserQueryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,11 +21,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/search")
@@ -28,8 +39,10 @@ import org.springframework.web.bind.annotation.*;
 public class SearchController {
 
     private final SearchService searchService;
-    private final UserQueryService userQueryService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final LocationSuggester locationSuggester;
+    private final SearchRollups searchRollups;
+    private final SearchHistoryService searchHistoryService;
 
     @PostMapping("/services")
     @SecurityRequirement(name = "bearerAuth")
@@ -57,23 +70,185 @@ public class SearchController {
                     description = "External service unavailable"
             )
     })
-    public ResponseEntity<ApiResponse<SearchResultsResponse>> searchServices(
+    public Mono<ResponseEntity<ApiResponse<SearchResultsResponse>>> searchServices(
             @Valid @RequestBody ServiceSearchRequest request,
             @AuthenticationPrincipal UserDetails userDetails
     ) {
-        String phone = userDetails.getUsername();
-        // Extract user ID from JWT token
-        // Get user by phone
-        UserResponse user = userQueryService.getUserByPhone(phone);
+        // The request thread is released here; the response is written once the search completes
+        return searchService.searchServices(userDetails.getUsername(), request)
+                .map(results -> ResponseEntity.ok(ApiResponse.success(
+                        "Search completed successfully",
+                        results
+                )));
+    }
+
+    @PostMapping("/services/multi")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Search for several types of service provider at once",
+            description = "Search for providers of any of the given service types near a location, " +
+                    "merged into one list sorted by distance",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Search completed successfully",
+                    content = @Content(schema = @Schema(implementation = SearchResultsResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid search parameters"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "503",
+                    description = "External service unavailable"
+            )
+    })
+    public Mono<ResponseEntity<ApiResponse<SearchResultsResponse>>> searchMultipleServices(
+            @Valid @RequestBody MultiServiceSearchRequest request,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return searchService.searchMultipleServices(userDetails.getUsername(), request)
+                .map(results -> ResponseEntity.ok(ApiResponse.success(
+                        "Search completed successfully",
+                        results
+                )));
+    }
+
+    @PostMapping(value = "/services/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Stream search results (Server-Sent Events)",
+            description = "Same search as /services, sent as one 'result' event per provider followed by " +
+                    "an 'end' event whose nextCursor fetches the next page. Each page is fetched and ranked " +
+                    "whole before its first event, so the first result arrives no sooner than /services " +
+                    "would answer; streaming pays off across pages. Send Accept: application/x-ndjson " +
+                    "for newline delimited JSON instead.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public Flux<ServerSentEvent<SearchStreamEvent>> streamSearchServices(
+            @Valid @RequestBody ServiceSearchRequest request,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return toServerSentEvents(searchService.streamSearch(userDetails.getUsername(), request));
+    }
+
+    @PostMapping(value = "/services/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Stream search results (NDJSON)", security = @SecurityRequirement(name = "bearerAuth"))
+    public Flux<SearchStreamEvent> streamSearchServicesNdjson(
+            @Valid @RequestBody ServiceSearchRequest request,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return searchService.streamSearch(userDetails.getUsername(), request);
+    }
+
+    @GetMapping(value = "/services/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Stream the next page of a search (Server-Sent Events)",
+            description = "Continue a streamed search with the nextCursor from its previous page",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public Flux<ServerSentEvent<SearchStreamEvent>> streamNextPage(
+            @RequestParam String cursor,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return toServerSentEvents(searchService.streamNextPage(userDetails.getUsername(), cursor));
+    }
+
+    @GetMapping(value = "/services/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Stream the next page of a search (NDJSON)", security = @SecurityRequirement(name = "bearerAuth"))
+    public Flux<SearchStreamEvent> streamNextPageNdjson(
+            @RequestParam String cursor,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return searchService.streamNextPage(userDetails.getUsername(), cursor);
+    }
+
+    @GetMapping("/history")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Get search history",
+            description = "The current user's searches, most recent first, a page at a time (default 20, " +
+                    "at most 100). Pass the nextCursor of a page to get the next one.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Search history retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = SearchHistoryPageResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token"
+            )
+    })
+    public ResponseEntity<ApiResponse<SearchHistoryPageResponse>> getSearchHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(
+                "Search history retrieved successfully",
+                searchHistoryService.getHistory(userDetails.getUsername(), cursor, limit)
+        ));
+    }
 
-        // Perform search
-        SearchResultsResponse results = searchService.searchServices(user.getUserId(), request);
+    @GetMapping("/services/popular")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Most searched service types",
+            description = "Search counts per service type over the last days (default 7, today included) or, " +
+                    "with hours, the last hours. With latitude and longitude, only searches in the region " +
+                    "around the point are counted. Counts are updated every few seconds.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<List<PopularServiceResponse>>> popularServices(
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) Integer hours,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(
+                "Popular services retrieved successfully",
+                searchRollups.popularServices(days, hours, latitude, longitude, limit)
+        ));
+    }
 
-        ApiResponse<SearchResultsResponse> response = ApiResponse.success(
-                "Search completed successfully",
-                results
-        );
+    @GetMapping("/locations/suggest")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Suggest locations",
+            description = "Complete a partially typed location with known cities, zip codes and locations " +
+                    "other users search for, most likely first. Queries shorter than two characters get no suggestions.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<ApiResponse<List<LocationSuggestionResponse>>> suggestLocations(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(
+                "Suggestions retrieved successfully",
+                locationSuggester.suggest(query, limit)
+        ));
+    }
 
-        return ResponseEntity.ok(response);
+    private static Flux<ServerSentEvent<SearchStreamEvent>> toServerSentEvents(Flux<SearchStreamEvent> events) {
+        return events.map(event -> ServerSentEvent.builder(event)
+                .event(event.getType())
+                .build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package com.tradesoncall.backend.exception;
+
+/**
+ * A call was rejected without being attempted because the upstream's circuit is open
+ */
+public class CircuitOpenException extends ExternalServiceException {
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.tradesoncall.backend.exception;
+
+import java.time.Duration;
+
+/**
+ * A Google call was not made because it would exceed a global or per-user quota.
+ * Subclasses {@link ExternalServiceException} so searches fall back to local data as for an outage.
+ */
+public class QuotaExceededException extends ExternalServiceException {
+
+    private final Duration retryAfter;
+
+    public QuotaExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
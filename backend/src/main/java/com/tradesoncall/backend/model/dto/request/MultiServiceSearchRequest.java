@@ -0,0 +1,62 @@
+package com.tradesoncall.backend.model.dto.request;
+
+import com.tradesoncall.backend.model.enums.RankingProfile;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+@Schema(description = "Search request covering several service types at once")
+public class MultiServiceSearchRequest {
+
+    @NotEmpty(message = "At least one service type is required")
+    @Size(max = 5, message = "Cannot search more than 5 service types at once")
+    @Schema(description = "Types of service to search for", example = "[\"PLUMBER\", \"HANDYMAN\"]", required = true)
+    private Set<ServiceType> serviceTypes;
+
+    @NotBlank(message = "Location is required")
+    @Schema(description = "Location to search in (address, city, or zip code)",
+            example = "New York, NY", required = true)
+    private String location;
+
+    @Min(value = 1, message = "Radius must be at least 1 mile")
+    @Max(value = 50, message = "Radius cannot exceed 50 miles")
+    @Schema(description = "Search radius in miles", example = "10", defaultValue = "10")
+    private Integer radiusMiles = 10;
+
+    @Min(value = 1, message = "Must request at least 1 result")
+    @Max(value = 20, message = "Cannot request more than 20 results")
+    @Schema(description = "Maximum number of results, across all service types", example = "10", defaultValue = "10")
+    private Integer maxResults = 10;
+
+    @Schema(description = "Minimum rating (1-5)", example = "3.5")
+    private Double minRating;
+
+    @Schema(description = "Only show currently open businesses", example = "false")
+    private Boolean openNow = false;
+
+    @Schema(description = "How to order results; defaults to nearest first", example = "BALANCED")
+    private RankingProfile rankingProfile;
+
+    /**
+     * The single-type search for one of the requested service types
+     */
+    public ServiceSearchRequest forServiceType(ServiceType serviceType) {
+        ServiceSearchRequest request = new ServiceSearchRequest();
+        request.setServiceType(serviceType);
+        request.setLocation(location);
+        request.setRadiusMiles(radiusMiles);
+        request.setMaxResults(maxResults);
+        request.setMinRating(minRating);
+        request.setOpenNow(openNow);
+        request.setRankingProfile(rankingProfile);
+        return request;
+    }
+}
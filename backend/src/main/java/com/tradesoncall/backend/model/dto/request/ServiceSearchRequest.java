@@ -1,5 +1,6 @@
 package com.tradesoncall.backend.model.dto.request;
 
+import com.tradesoncall.backend.model.enums.RankingProfile;
 import com.tradesoncall.backend.model.enums.ServiceType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Max;
@@ -36,4 +37,7 @@ public class ServiceSearchRequest {
 
     @Schema(description = "Only show currently open businesses", example = "false")
     private Boolean openNow = false;
+
+    @Schema(description = "How to order results; defaults to nearest first", example = "BALANCED")
+    private RankingProfile rankingProfile;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.tradesoncall.backend.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Location suggested for a partially typed location")
+public class LocationSuggestionResponse {
+
+    @Schema(description = "Location to show and to search for", example = "Springfield, IL")
+    private String location;
+
+    @Schema(description = "Latitude", example = "39.78")
+    private Double latitude;
+
+    @Schema(description = "Longitude", example = "-89.64")
+    private Double longitude;
+}
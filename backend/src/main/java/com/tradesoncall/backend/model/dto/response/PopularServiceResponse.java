@@ -0,0 +1,21 @@
+package com.tradesoncall.backend.model.dto.response;
+
+import com.tradesoncall.backend.model.enums.ServiceType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Number of searches for a service type")
+public class PopularServiceResponse {
+
+    @Schema(description = "Service type", example = "PLUMBER")
+    private ServiceType serviceType;
+
+    @Schema(description = "Service type display name", example = "Plumber")
+    private String displayName;
+
+    @Schema(description = "Searches in the period", example = "1250")
+    private Long searches;
+}
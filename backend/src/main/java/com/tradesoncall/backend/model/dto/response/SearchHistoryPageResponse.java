@@ -0,0 +1,19 @@
+package com.tradesoncall.backend.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Page of the user's search history, most recent first")
+public class SearchHistoryPageResponse {
+
+    @Schema(description = "Searches on this page")
+    private List<SearchHistoryResponse> searches;
+
+    @Schema(description = "Cursor for the next page; absent on the last page")
+    private String nextCursor;
+}
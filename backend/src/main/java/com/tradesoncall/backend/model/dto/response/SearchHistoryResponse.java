@@ -0,0 +1,43 @@
+package com.tradesoncall.backend.model.dto.response;
+
+import com.tradesoncall.backend.model.enums.ServiceType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One past search. Also the projection of SearchHistoryRepository's history queries, which
+ * select these columns only.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@Schema(description = "Past search")
+public class SearchHistoryResponse {
+
+    @Schema(description = "Search ID")
+    private UUID searchId;
+
+    @Schema(description = "Service type searched for", example = "PLUMBER")
+    private ServiceType serviceType;
+
+    @Schema(description = "Location as entered", example = "Springfield, IL")
+    private String location;
+
+    @Schema(description = "Latitude of the first result")
+    private BigDecimal latitude;
+
+    @Schema(description = "Longitude of the first result")
+    private BigDecimal longitude;
+
+    @Schema(description = "Number of results", example = "10")
+    private Integer resultsCount;
+
+    @Schema(description = "When the search was made")
+    private LocalDateTime searchedAt;
+}
@@ -0,0 +1,44 @@
+package com.tradesoncall.backend.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "One event of a streamed search: a result, the end of a page, or an error")
+public class SearchStreamEvent {
+
+    public static final String RESULT = "result";
+    public static final String END = "end";
+    public static final String ERROR = "error";
+
+    @Schema(description = "Event type", example = "result", allowableValues = {RESULT, END, ERROR})
+    private String type;
+
+    @Schema(description = "Service provider, for result events")
+    private ServiceSearchResponse result;
+
+    @Schema(description = "Number of results in the page, for end events")
+    private Integer pageResults;
+
+    @Schema(description = "Opaque cursor for the next page, for end events; absent on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Error message, for error events")
+    private String message;
+
+    public static SearchStreamEvent result(ServiceSearchResponse result) {
+        return SearchStreamEvent.builder().type(RESULT).result(result).build();
+    }
+
+    public static SearchStreamEvent end(int pageResults, String nextCursor) {
+        return SearchStreamEvent.builder().type(END).pageResults(pageResults).nextCursor(nextCursor).build();
+    }
+
+    public static SearchStreamEvent error(String message) {
+        return SearchStreamEvent.builder().type(ERROR).message(message).build();
+    }
+}
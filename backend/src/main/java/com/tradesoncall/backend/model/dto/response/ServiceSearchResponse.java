@@ -7,7 +7,7 @@ import lombok.Data;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @Schema(description = "Service provider search result")
 public class ServiceSearchResponse {
 
@@ -0,0 +1,76 @@
+package com.tradesoncall.backend.model.entity;
+
+import com.tradesoncall.backend.model.enums.ServiceType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A provider seen in Places results, stored once per service type it was found for
+ */
+@Entity
+@Table(name = "provider")
+@IdClass(Provider.ProviderId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Provider {
+
+    @Id
+    @Column(name = "place_id")
+    private String placeId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "service_type", length = 100)
+    private ServiceType serviceType;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "address")
+    private String address;
+
+    @Column(name = "phone_number", length = 50)
+    private String phoneNumber;
+
+    @Column(name = "rating")
+    private Double rating;
+
+    @Column(name = "total_reviews")
+    private Integer totalReviews;
+
+    @Column(name = "price_level")
+    private Integer priceLevel;
+
+    @Column(name = "website", length = 1000)
+    private String website;
+
+    @Column(name = "google_maps_url", length = 500)
+    private String googleMapsUrl;
+
+    // Comma separated Places types
+    @Column(name = "types", length = 1000)
+    private String types;
+
+    @Column(name = "latitude", nullable = false)
+    private Double latitude;
+
+    @Column(name = "longitude", nullable = false)
+    private Double longitude;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProviderId implements Serializable {
+        private String placeId;
+        private ServiceType serviceType;
+    }
+}
@@ -0,0 +1,56 @@
+package com.tradesoncall.backend.model.entity;
+
+import com.tradesoncall.backend.model.enums.ServiceType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * When a geohash cell was last searched upstream for a service type, and the circle that search
+ * covered. Drives whether local provider data around the cell is fresh enough to serve.
+ */
+@Entity
+@Table(name = "provider_cell")
+@IdClass(ProviderCell.ProviderCellId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderCell {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "service_type", length = 100)
+    private ServiceType serviceType;
+
+    @Id
+    @Column(name = "geohash", length = 12)
+    private String geohash;
+
+    @Column(name = "provider_count", nullable = false)
+    private Integer providerCount;
+
+    // Centre and radius of the upstream search
+    @Column(name = "latitude", nullable = false)
+    private Double latitude;
+
+    @Column(name = "longitude", nullable = false)
+    private Double longitude;
+
+    @Column(name = "radius_miles", nullable = false)
+    private Integer radiusMiles;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProviderCellId implements Serializable {
+        private ServiceType serviceType;
+        private String geohash;
+    }
+}
@@ -43,7 +43,8 @@ public class SearchHistory {
     @Builder.Default
     private Integer resultsCount = 0;
 
+    // Partition key of search_history, so part of its primary key in the database
     @CreationTimestamp
-    @Column(name = "searched_at", updatable = false)
+    @Column(name = "searched_at", nullable = false, updatable = false)
     private LocalDateTime searchedAt;
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.tradesoncall.backend.model.entity;
+
+import com.tradesoncall.backend.model.enums.RollupGranularity;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Number of searches for a service type in a region during an hour or a day.
+ * Region "*" counts every region. Maintained by SearchRollups, never by JPA.
+ */
+@Entity
+@Table(name = "search_rollup")
+@IdClass(SearchRollup.SearchRollupId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 8)
+    private RollupGranularity granularity;
+
+    @Id
+    @Column(name = "region", length = 12)
+    private String region;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "service_type", length = 100)
+    private ServiceType serviceType;
+
+    @Column(name = "searches", nullable = false)
+    private Long searches;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SearchRollupId implements Serializable {
+        private RollupGranularity granularity;
+        private String region;
+        private LocalDateTime bucketStart;
+        private ServiceType serviceType;
+    }
+}
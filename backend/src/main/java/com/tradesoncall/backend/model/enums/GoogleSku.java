@@ -0,0 +1,10 @@
+package com.tradesoncall.backend.model.enums;
+
+/**
+ * Billed Google Maps Platform endpoints, each with its own quota
+ */
+public enum GoogleSku {
+    NEARBY_SEARCH,
+    TEXT_SEARCH,
+    GEOCODE
+}
@@ -0,0 +1,8 @@
+package com.tradesoncall.backend.model.enums;
+
+public enum QueueOverflowPolicy {
+    // Discard the new item and count it
+    DROP,
+    // Wait up to the configured timeout for space, then discard; never blocks non-blocking threads
+    BLOCK
+}
@@ -0,0 +1,15 @@
+package com.tradesoncall.backend.model.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "How search results are ordered")
+public enum RankingProfile {
+    // Nearest first
+    DISTANCE,
+    // Mix of distance, rating, review count, opening hours and price
+    BALANCED,
+    // Best rated, with enough reviews to trust the rating
+    TOP_RATED,
+    // Open now first, then nearest
+    OPEN_NOW
+}
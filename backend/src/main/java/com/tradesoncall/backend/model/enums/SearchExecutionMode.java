@@ -0,0 +1,8 @@
+package com.tradesoncall.backend.model.enums;
+
+public enum SearchExecutionMode {
+    // Non-blocking pipeline; the request thread is released while upstream calls are in flight
+    REACTIVE,
+    // Blocking orchestration with structured fan-out on virtual threads; pair with spring.threads.virtual.enabled
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,33 @@
+package com.tradesoncall.backend.observability;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationFilter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the query string from the URL recorded on HTTP client spans: Google calls carry the
+ * address being searched and the API key as query parameters.
+ */
+@Component
+public class ClientUrlObservationFilter implements ObservationFilter {
+
+    private static final String CLIENT_REQUESTS = "http.client.requests";
+    private static final String URL = "http.url";
+
+    @Override
+    public Observation.Context map(Observation.Context context) {
+        if (!CLIENT_REQUESTS.equals(context.getName())) {
+            return context;
+        }
+
+        KeyValue url = context.getHighCardinalityKeyValue(URL);
+        if (url != null) {
+            int query = url.getValue().indexOf('?');
+            if (query >= 0) {
+                context.addHighCardinalityKeyValue(KeyValue.of(URL, url.getValue().substring(0, query)));
+            }
+        }
+        return context;
+    }
+}
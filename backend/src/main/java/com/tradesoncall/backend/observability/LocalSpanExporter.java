@@ -0,0 +1,137 @@
+package com.tradesoncall.backend.observability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradesoncall.backend.config.TracingConfig;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Span exporter that needs no collector: keeps the most recent finished spans in memory and,
+ * if a file is configured, appends them to it as JSON lines.
+ * Spans arrive in batches from the span processor's worker thread, never from request threads.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.tracing.local-export", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class LocalSpanExporter implements SpanExporter {
+
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final Deque<ExportedSpan> recent;
+    private final BufferedWriter file;
+
+    public LocalSpanExporter(TracingConfig tracingConfig, ObjectMapper objectMapper) throws IOException {
+        TracingConfig.LocalExport config = tracingConfig.getLocalExport();
+        this.objectMapper = objectMapper;
+        this.capacity = Math.max(1, config.getRecentSpans());
+        this.recent = new ArrayDeque<>(capacity);
+        this.file = config.getFile().isEmpty() ? null : open(Path.of(config.getFile()));
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            for (SpanData span : spans) {
+                ExportedSpan exported = ExportedSpan.of(span);
+                if (recent.size() == capacity) {
+                    recent.removeFirst();
+                }
+                recent.addLast(exported);
+                if (file != null) {
+                    file.write(objectMapper.writeValueAsString(exported));
+                    file.newLine();
+                }
+            }
+            if (file != null) {
+                file.flush();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Could not write {} spans to the trace file", spans.size(), e);
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    /**
+     * Recently finished spans, oldest first
+     * @param traceId only spans of this trace, or null for all
+     */
+    public synchronized List<ExportedSpan> recent(String traceId) {
+        return recent.stream()
+                .filter(span -> traceId == null || traceId.equals(span.traceId()))
+                .toList();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                log.warn("Could not close the trace file", e);
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static BufferedWriter open(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        return Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public record ExportedSpan(
+            String traceId,
+            String spanId,
+            String parentSpanId,
+            String name,
+            String kind,
+            Instant start,
+            long durationMicros,
+            String status,
+            Map<String, String> attributes
+    ) {
+        static ExportedSpan of(SpanData span) {
+            Map<String, String> attributes = new LinkedHashMap<>();
+            span.getAttributes().forEach((AttributeKey<?> key, Object value) -> attributes.put(key.getKey(), String.valueOf(value)));
+            return new ExportedSpan(
+                    span.getTraceId(),
+                    span.getSpanId(),
+                    span.getParentSpanContext().isValid() ? span.getParentSpanId() : null,
+                    span.getName(),
+                    span.getKind().name(),
+                    Instant.ofEpochSecond(0, span.getStartEpochNanos()),
+                    TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()),
+                    span.getStatus().getStatusCode().name(),
+                    attributes
+            );
+        }
+    }
+}
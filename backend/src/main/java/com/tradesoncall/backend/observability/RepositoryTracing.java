@@ -0,0 +1,81 @@
+package com.tradesoncall.backend.observability;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spans for Spring Data repository calls, named after the repository and method, as children of
+ * the current span. Calls made outside a trace, such as loading the provider store at startup,
+ * get no span.
+ * <p>
+ * Only spans: call timings are already published as spring.data.repository.invocations.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.tracing", name = "repository-spans", havingValue = "true", matchIfMissing = true)
+public class RepositoryTracing implements BeanPostProcessor {
+
+    private final ObjectProvider<Tracer> tracerProvider;
+    private volatile Tracer tracer;
+
+    public RepositoryTracing(ObjectProvider<Tracer> tracerProvider) {
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxy, repository) -> proxy.addAdvice(
+                            new SpanInterceptor(repository.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private Tracer tracer() {
+        Tracer current = tracer;
+        if (current == null) {
+            current = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+            tracer = current;
+        }
+        return current;
+    }
+
+    private final class SpanInterceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        SpanInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Tracer current = tracer();
+            if (current.currentSpan() == null) {
+                return invocation.proceed();
+            }
+
+            String method = invocation.getMethod().getName();
+            Span span = current.nextSpan()
+                    .name(repository + "." + method)
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .start();
+            try (Tracer.SpanInScope ignored = current.withSpan(span)) {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                span.error(e);
+                throw e;
+            } finally {
+                span.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.tradesoncall.backend.observability;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Recently finished spans held by {@link LocalSpanExporter}, optionally for one trace:
+ * /actuator/spans?traceId=...
+ */
+@Component
+@Endpoint(id = "spans")
+@ConditionalOnProperty(prefix = "app.tracing.local-export", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SpansEndpoint {
+
+    private final LocalSpanExporter localSpanExporter;
+
+    @ReadOperation
+    public List<LocalSpanExporter.ExportedSpan> spans(@Nullable String traceId) {
+        return localSpanExporter.recent(traceId);
+    }
+}
@@ -0,0 +1,9 @@
+package com.tradesoncall.backend.repository;
+
+import com.tradesoncall.backend.model.entity.ProviderCell;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProviderCellRepository extends JpaRepository<ProviderCell, ProviderCell.ProviderCellId> {
+}
@@ -1,5 +1,6 @@
 package com.tradesoncall.backend.repository;
 
+import com.tradesoncall.backend.model.dto.response.SearchHistoryResponse;
 import com.tradesoncall.backend.model.entity.SearchHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -14,33 +15,44 @@ import java.util.UUID;
 public interface SearchHistoryRepository extends JpaRepository<SearchHistory, UUID> {
 
     /**
-     * Get user's search history
-     */
-    List<SearchHistory> findByUserIdOrderBySearchedAtDesc(UUID userId);
-
-    /**
-     * Get user's recent searches
+     * First page of a user's search history, most recent first.
+     * Served by idx_search_user_time without sorting; notBefore prunes the partitions past retention.
      */
     @Query("""
-        SELECT sh FROM SearchHistory sh 
-        WHERE sh.userId = :userId 
-        ORDER BY sh.searchedAt DESC 
+        SELECT new com.tradesoncall.backend.model.dto.response.SearchHistoryResponse(
+            sh.searchId, sh.serviceType, sh.location, sh.latitude, sh.longitude, sh.resultsCount, sh.searchedAt)
+        FROM SearchHistory sh
+        WHERE sh.userId = :userId
+          AND sh.searchedAt >= :notBefore
+        ORDER BY sh.searchedAt DESC, sh.searchId DESC
         LIMIT :limit
         """)
-    List<SearchHistory> findRecentSearches(
+    List<SearchHistoryResponse> findHistoryPage(
             @Param("userId") UUID userId,
+            @Param("notBefore") LocalDateTime notBefore,
             @Param("limit") int limit
     );
 
     /**
-     * Get popular service types
+     * Page of a user's search history following the given search (keyset pagination): seeks
+     * straight to it in idx_search_user_time, however deep the page
      */
     @Query("""
-        SELECT sh.serviceType, COUNT(sh) as count 
-        FROM SearchHistory sh 
-        WHERE sh.searchedAt > :since
-        GROUP BY sh.serviceType 
-        ORDER BY count DESC
+        SELECT new com.tradesoncall.backend.model.dto.response.SearchHistoryResponse(
+            sh.searchId, sh.serviceType, sh.location, sh.latitude, sh.longitude, sh.resultsCount, sh.searchedAt)
+        FROM SearchHistory sh
+        WHERE sh.userId = :userId
+          AND sh.searchedAt >= :notBefore
+          AND sh.searchedAt <= :searchedAt
+          AND (sh.searchedAt < :searchedAt OR sh.searchId < :searchId)
+        ORDER BY sh.searchedAt DESC, sh.searchId DESC
+        LIMIT :limit
         """)
-    List<Object[]> findPopularServices(@Param("since") LocalDateTime since);
-}
\ No newline at end of file
+    List<SearchHistoryResponse> findHistoryPageAfter(
+            @Param("userId") UUID userId,
+            @Param("notBefore") LocalDateTime notBefore,
+            @Param("searchedAt") LocalDateTime searchedAt,
+            @Param("searchId") UUID searchId,
+            @Param("limit") int limit
+    );
+}
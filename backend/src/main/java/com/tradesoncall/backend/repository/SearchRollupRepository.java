@@ -0,0 +1,34 @@
+package com.tradesoncall.backend.repository;
+
+import com.tradesoncall.backend.model.entity.SearchRollup;
+import com.tradesoncall.backend.model.enums.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SearchRollupRepository extends JpaRepository<SearchRollup, SearchRollup.SearchRollupId> {
+
+    /**
+     * Searches per service type in a region since a bucket, most searched first.
+     * Reads at most one row per bucket and service type, however many searches there were.
+     */
+    @Query("""
+        SELECT r.serviceType, SUM(r.searches)
+        FROM SearchRollup r
+        WHERE r.granularity = :granularity
+          AND r.region = :region
+          AND r.bucketStart >= :since
+        GROUP BY r.serviceType
+        ORDER BY SUM(r.searches) DESC
+        """)
+    List<Object[]> sumSearchesByServiceType(
+            @Param("granularity") RollupGranularity granularity,
+            @Param("region") String region,
+            @Param("since") LocalDateTime since
+    );
+}
@@ -4,12 +4,15 @@ import com.tradesoncall.backend.exception.BlacklistedTokenException;
 import com.tradesoncall.backend.model.entity.User;
 import com.tradesoncall.backend.repository.RefreshTokenRepository;
 import com.tradesoncall.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,9 +25,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -32,6 +35,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
 
+    private final Timer validTokens;
+    private final Timer invalidTokens;
+
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
+                                   UserRepository userRepository,
+                                   RefreshTokenRepository refreshTokenRepository,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.validTokens = validationTimer("valid", registry);
+        this.invalidTokens = validationTimer("invalid", registry);
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -42,11 +61,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extract JWT from request header
             String jwt = extractJwtFromRequest(request);
 
-            // Validate token
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateAccessToken(jwt)) {
-                // Get user ID from token
-                UUID userId = jwtTokenProvider.getUserIdFromAccessToken(jwt);
-
+            // Validate token and get user ID from it
+            UUID userId = StringUtils.hasText(jwt) ? validate(jwt) : null;
+            if (userId != null) {
                 // Load user from database
                 User user = userRepository.findById(userId)
                         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
@@ -78,6 +95,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * @return the token's user ID, or null if the token is not a valid access token
+     */
+    private UUID validate(String jwt) {
+        long started = System.nanoTime();
+        UUID userId = null;
+        try {
+            if (jwtTokenProvider.validateAccessToken(jwt)) {
+                userId = jwtTokenProvider.getUserIdFromAccessToken(jwt);
+            }
+            return userId;
+        } finally {
+            (userId != null ? validTokens : invalidTokens).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer validationTimer(String outcome, MeterRegistry registry) {
+        return Timer.builder("security.jwt.validation")
+                .description("Access token signature and claims checks")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
     /**
      * Extract JWT token from Authorization header
      */
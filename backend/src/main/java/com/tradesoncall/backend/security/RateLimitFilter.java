@@ -0,0 +1,148 @@
+package com.tradesoncall.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradesoncall.backend.config.RateLimitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-route request rate limits, keyed by the authenticated user or the client IP.
+ * Runs after {@link JwtAuthenticationFilter} so the user is known. Requests over a limit get a 429
+ * with Retry-After before reaching the controller.
+ * <p>
+ * Each policy keeps one {@link SlidingWindowCounter} per key in a size-bounded cache whose entries
+ * expire after two idle windows, so memory stays bounded however many clients show up.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final List<Policy> policies;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitConfig rateLimitConfig, ObjectMapper objectMapper,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.enabled = rateLimitConfig.isEnabled();
+        this.objectMapper = objectMapper;
+        this.policies = rateLimitConfig.getPolicies().stream()
+                .filter(policy -> policy.getLimit() > 0)
+                .map(policy -> new Policy(policy, rateLimitConfig.getMaximumKeys(), registry))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || policies.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        Policy policy = match(request);
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        SlidingWindowCounter counter = policy.counters.get(key(policy, request), k -> new SlidingWindowCounter());
+        long retryAfterMillis = counter.tryAcquire(System.currentTimeMillis(), policy.windowMillis, policy.limit);
+        if (retryAfterMillis == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        policy.rejected.increment();
+        reject(request, response, retryAfterMillis);
+    }
+
+    private Policy match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Policy policy : policies) {
+            if (policy.pattern.matches(path)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private static String key(Policy policy, HttpServletRequest request) {
+        if (policy.key == RateLimitConfig.Key.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterMillis)
+            throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", false);
+        body.put("message", "Too many requests, try again later");
+        body.put("timestamp", LocalDateTime.now());
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static final class Policy {
+        final PathPattern pattern;
+        final int limit;
+        final long windowMillis;
+        final RateLimitConfig.Key key;
+        final Cache<String, SlidingWindowCounter> counters;
+        final Counter rejected;
+
+        Policy(RateLimitConfig.Policy config, long maximumKeys, MeterRegistry registry) {
+            this.pattern = PathPatternParser.defaultInstance.parse(config.getPath());
+            this.limit = config.getLimit();
+            this.windowMillis = config.getWindow().toMillis();
+            this.key = config.getKey();
+            this.counters = Caffeine.newBuilder()
+                    .expireAfterAccess(config.getWindow().multipliedBy(2))
+                    .maximumSize(maximumKeys)
+                    // Cache upkeep runs on the request thread; handing it to the common pool
+                    // wakes a worker on most requests and costs more than the upkeep itself
+                    .executor(Runnable::run)
+                    .build();
+            this.rejected = Counter.builder("http.rate.limit.rejected")
+                    .description("Requests rejected by a rate limit")
+                    .tag("policy", config.getName())
+                    .register(registry);
+        }
+    }
+}
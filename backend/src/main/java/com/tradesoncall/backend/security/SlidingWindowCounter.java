@@ -0,0 +1,61 @@
+package com.tradesoncall.backend.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free sliding window rate counter.
+ * Keeps the counts of the current and previous fixed windows and weights the previous one by how
+ * much of it still overlaps the sliding window, which is accurate to within a few percent at
+ * the cost of a single long. Window index and both counts are packed together and updated with a CAS.
+ */
+final class SlidingWindowCounter {
+
+    private static final long COUNT_MASK = 0xFFFF;
+    private static final long WINDOW_MASK = 0xFFFF_FFFFL;
+
+    // [window index: 32 bits][previous window count: 16 bits][current window count: 16 bits]
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Count a request if it is within the limit
+     * @return 0 if the request is allowed, otherwise millis until it would be
+     */
+    long tryAcquire(long nowMillis, long windowMillis, int limit) {
+        long window = (nowMillis / windowMillis) & WINDOW_MASK;
+        long elapsed = nowMillis % windowMillis;
+        while (true) {
+            long current = state.get();
+            long currentWindow = current >>> 32;
+            long previousCount = current >>> 16 & COUNT_MASK;
+            long count = current & COUNT_MASK;
+            if (currentWindow != window) {
+                previousCount = currentWindow == ((window - 1) & WINDOW_MASK) ? count : 0;
+                count = 0;
+            }
+
+            double estimate = previousCount * (double) (windowMillis - elapsed) / windowMillis + count;
+            if (estimate + 1 > limit) {
+                return retryAfter(previousCount, count, elapsed, windowMillis, limit);
+            }
+            long next = window << 32 | previousCount << 16 | Math.min(count + 1, COUNT_MASK);
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Millis until enough of the previous window has slid out for one more request
+     */
+    private static long retryAfter(long previousCount, long count, long elapsed, long windowMillis, int limit) {
+        double wait;
+        if (count + 1 <= limit) {
+            // Within this window, once the previous window's weight has dropped far enough
+            wait = windowMillis * (1 - (double) (limit - count - 1) / previousCount) - elapsed;
+        } else {
+            // Not before the next window, where this window's count becomes the previous one
+            wait = windowMillis - elapsed + Math.max(0, windowMillis * (1 - (double) (limit - 1) / count));
+        }
+        return Math.max(1, (long) Math.ceil(wait));
+    }
+}
@@ -0,0 +1,202 @@
+package com.tradesoncall.backend.service.external;
+
+import com.tradesoncall.backend.exception.CircuitOpenException;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Count-based circuit breaker for one upstream endpoint.
+ * <ul>
+ *     <li>CLOSED: calls go through and the outcomes of the last window-size calls are kept; once at
+ *     least minimum-calls are recorded and the failure rate reaches the threshold, the circuit opens</li>
+ *     <li>OPEN: calls fail at once with {@link CircuitOpenException} until open-duration has passed</li>
+ *     <li>HALF_OPEN: up to half-open-calls trial calls go through; if all succeed the circuit closes
+ *     with an empty window, if any fails it opens again</li>
+ * </ul>
+ * Errors and timeouts count as failures, except 4xx responses other than 429, which say nothing about
+ * the upstream's health. Cancelled calls (such as the losing side of a hedge) are not recorded.
+ */
+@Slf4j
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    // Ring buffer of outcomes, guarded by this
+    private final boolean[] failed;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenStarted;
+    private int halfOpenSucceeded;
+
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls) {
+        this.name = name;
+        this.failed = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * Run the call if the circuit allows it and record its outcome
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                rejectedCount.increment();
+                return Mono.error(new CircuitOpenException("Google " + name + " is unavailable, try again shortly"));
+            }
+
+            return Mono.defer(call)
+                    .doOnSuccess(value -> onSuccess())
+                    .doOnError(error -> {
+                        if (countsAsFailure(error)) {
+                            onFailure();
+                        } else {
+                            onSuccess();
+                        }
+                    })
+                    .doOnCancel(this::onCancel);
+        });
+    }
+
+    public synchronized State state() {
+        // Report an open circuit whose open-duration has passed as half-open, as the next call will see it
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Stats stats() {
+        return Stats.builder()
+                .state(state())
+                .successes(successCount.sum())
+                .failures(failureCount.sum())
+                .rejected(rejectedCount.sum())
+                .build();
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenStarted >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenStarted++;
+        }
+        return true;
+    }
+
+    private synchronized void onSuccess() {
+        successCount.increment();
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    private synchronized void onFailure() {
+        failureCount.increment();
+        if (state == State.HALF_OPEN) {
+            // A trial call failed
+            record(true);
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls
+                && failures >= failureRateThreshold * recorded) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private synchronized void onCancel() {
+        // Give the trial slot back so a cancelled trial cannot wedge the circuit half-open
+        if (state == State.HALF_OPEN && halfOpenStarted > halfOpenSucceeded) {
+            halfOpenStarted--;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failed.length && failed[next]) {
+            failures--;
+        }
+        failed[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % failed.length;
+        recorded = Math.min(recorded + 1, failed.length);
+    }
+
+    private void transitionTo(State target) {
+        if (target == State.OPEN) {
+            log.warn("Circuit for Google {} opened ({} of the last {} calls failed)", name, failures, recorded);
+            openedAt = System.nanoTime();
+        } else if (target == State.CLOSED) {
+            log.info("Circuit for Google {} closed", name);
+        }
+        if (target != State.HALF_OPEN) {
+            recorded = 0;
+            next = 0;
+            failures = 0;
+        }
+        halfOpenStarted = 0;
+        halfOpenSucceeded = 0;
+        state = target;
+    }
+
+    private static boolean countsAsFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status >= 500 || status == 429;
+        }
+        return true;
+    }
+
+    @Value
+    @Builder
+    public static class Stats {
+        State state;
+        long successes;
+        long failures;
+        long rejected;
+    }
+}
@@ -0,0 +1,51 @@
+package com.tradesoncall.backend.service.external;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free count of calls made today. The epoch day and the count are packed into one long so
+ * the reset at midnight and the increment happen in the same CAS.
+ */
+final class DailyBudget {
+
+    private static final int COUNT_BITS = 40;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Count one call if fewer than limit were made today
+     */
+    boolean tryAcquire(long epochDay, long limit) {
+        while (true) {
+            long current = state.get();
+            long count = current >>> COUNT_BITS == epochDay ? current & COUNT_MASK : 0;
+            if (count >= limit) {
+                return false;
+            }
+            if (state.compareAndSet(current, epochDay << COUNT_BITS | (count + 1))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a call counted today that was not made
+     */
+    void release(long epochDay) {
+        while (true) {
+            long current = state.get();
+            if (current >>> COUNT_BITS != epochDay || (current & COUNT_MASK) == 0) {
+                return;
+            }
+            if (state.compareAndSet(current, current - 1)) {
+                return;
+            }
+        }
+    }
+
+    long used(long epochDay) {
+        long current = state.get();
+        return current >>> COUNT_BITS == epochDay ? current & COUNT_MASK : 0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.tradesoncall.backend.service.external;
+
+import com.tradesoncall.backend.config.GoogleApiConfig;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import com.tradesoncall.backend.service.geo.GeocodeCache;
+import com.tradesoncall.backend.service.geo.LocationNormalizer;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing for the Google APIs, so a burst of identical searches
+ * (e.g. "PLUMBER near Chicago") costs one upstream call instead of one per request.
+ * Geocodes are only coalesced here when {@link GeocodeCache} does not handle the location,
+ * i.e. the cache is disabled or the location normalizes to empty; the cache already shares
+ * concurrent misses of the locations it handles.
+ */
+@Component
+public class GoogleCallCoalescer {
+
+    private final boolean enabled;
+    private final SingleFlight<String, GeoPoint> geocodeFlights;
+    private final SingleFlight<NearbyKey, List<ServiceSearchResponse>> nearbyFlights;
+
+    public GoogleCallCoalescer(GoogleApiConfig googleApiConfig) {
+        GoogleApiConfig.Coalescing coalescing = googleApiConfig.getCoalescing();
+        this.enabled = coalescing.isEnabled();
+        this.geocodeFlights = new SingleFlight<>("geocode", coalescing.getTimeout());
+        this.nearbyFlights = new SingleFlight<>("searchNearby", coalescing.getTimeout());
+    }
+
+    /**
+     * Share a geocode call with concurrent lookups of the same (normalized) location.
+     * For lookups that bypass {@link GeocodeCache}.
+     */
+    public Mono<GeoPoint> geocode(String location, Supplier<Mono<GeoPoint>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        String key = LocationNormalizer.normalize(location);
+        return geocodeFlights.execute(key.isEmpty() ? location : key, call);
+    }
+
+    /**
+     * Share a nearby search with concurrent searches for the same type, centre, radius and size
+     */
+    public Mono<List<ServiceSearchResponse>> searchNearby(String serviceType, GeoPoint center,
+                                                          Integer radiusMeters, Integer maxResults,
+                                                          Supplier<Mono<List<ServiceSearchResponse>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        NearbyKey key = new NearbyKey(serviceType.toLowerCase(), center, radiusMeters, maxResults);
+        return nearbyFlights.execute(key, call);
+    }
+
+    public SingleFlight.Stats geocodeStats() {
+        return geocodeFlights.stats();
+    }
+
+    public SingleFlight.Stats nearbyStats() {
+        return nearbyFlights.stats();
+    }
+
+    @Value
+    private static class NearbyKey {
+        String serviceType;
+        GeoPoint center;
+        Integer radiusMeters;
+        Integer maxResults;
+    }
+}
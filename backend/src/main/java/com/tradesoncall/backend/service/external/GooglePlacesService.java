@@ -1,37 +1,55 @@
 package com.tradesoncall.backend.service.external;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.tradesoncall.backend.exception.ExternalServiceException;
 import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.service.geo.Gazetteer;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import com.tradesoncall.backend.service.geo.GeocodeCache;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GooglePlacesService {
 
+    // Most results the Places API returns for one call (maxResultCount)
+    public static final int MAX_RESULT_COUNT = 20;
+
     @Value("${google.places.api-key}")
     private String apiKey;
 
-    private final WebClient.Builder webClientBuilder;
+    @Qualifier("geocodingWebClient")
+    private final WebClient geocodingWebClient;
+
+    @Qualifier("placesWebClient")
+    private final WebClient placesWebClient;
 
-    private static final String PLACES_BASE_URL = "https://places.googleapis.com/v1";
-    private static final String GEOCODING_BASE_URL = "https://maps.googleapis.com/maps/api";
+    private final Gazetteer gazetteer;
+    private final GeocodeCache geocodeCache;
+    private final GoogleCallCoalescer googleCallCoalescer;
+    private final PlacesResponseDecoder placesResponseDecoder;
+    private final GoogleResilience googleResilience;
 
     // Supported place types for Nearby Search
     private static final Set<String> SUPPORTED_NEARBY_TYPES = Set.of(
@@ -46,84 +64,123 @@ public class GooglePlacesService {
     );
 
     /**
-     * Search for service providers near a location
+     * Resolve a location string to coordinates: zip codes and "City, ST" from the offline
+     * {@link Gazetteer}, anything else from {@link GeocodeCache} when possible.
+     * Concurrent lookups of the same location share one Geocoding API call, which is
+     * guarded and hedged by {@link GoogleResilience}: the cache shares its own misses, and
+     * {@link GoogleCallCoalescer} shares the lookups the cache does not handle.
      */
-    public List<ServiceSearchResponse> searchNearby(
+    public Mono<GeoPoint> geocode(String location) {
+        GeoPoint known = gazetteer.find(location);
+        if (known != null) {
+            return Mono.just(known);
+        }
+
+        // The shared call is subscribed outside the callers' chains, so it gets the quota context
+        // of the caller that started it
+        return Mono.deferContextual(context -> {
+                    Function<String, Mono<GeoPoint>> lookup =
+                            raw -> googleResilience.geocode(() -> geocodeLocation(raw)).contextWrite(context);
+                    return geocodeCache.caches(location)
+                            ? geocodeCache.get(location, lookup)
+                            : googleCallCoalescer.geocode(location, () -> lookup.apply(location));
+                })
+                .switchIfEmpty(Mono.error(() -> new ExternalServiceException("Could not find location: " + location)))
+                .onErrorMap(e -> !(e instanceof ExternalServiceException), e -> {
+                    log.error("Error geocoding location", e);
+                    return new ExternalServiceException("Failed to search for services: " + e.getMessage());
+                });
+    }
+
+    /**
+     * Search for service providers near already geocoded coordinates.
+     * Concurrent identical searches share one Places API call, charged to the caller that started it.
+     */
+    public Mono<List<ServiceSearchResponse>> searchNearby(
             String serviceType,  // e.g., "plumber", "electrician", "hvac"
-            String location,
+            GeoPoint center,
             Integer radiusMeters,
             Integer maxResults
     ) {
-        try {
-            // Step 1: Geocode the location to get coordinates
-            GeocodingResponse geocoding = geocodeLocation(location);
-
-            if (geocoding == null || geocoding.getResults().isEmpty()) {
-                throw new ExternalServiceException("Could not find location: " + location);
-            }
-
-            double lat = geocoding.getResults().get(0).getGeometry().getLocation().getLat();
-            double lng = geocoding.getResults().get(0).getGeometry().getLocation().getLng();
-
-            // Step 2: Search for places using appropriate method
-            List<Place> places;
-            if (SUPPORTED_NEARBY_TYPES.contains(serviceType.toLowerCase())) {
-                places = searchNearbyPlaces(serviceType, lat, lng, radiusMeters, maxResults);
-            } else {
-                places = searchTextPlaces(serviceType, lat, lng, radiusMeters, maxResults);
-            }
-
-            if (places == null || places.isEmpty()) {
-                return List.of();
-            }
-
-            // Step 3: Convert to our DTO
-            return places.stream()
-                    .map(place -> convertToServiceResponse(place, lat, lng))
-                    .collect(Collectors.toList());
-
-        } catch (Exception e) {
-            log.error("Error searching Google Places", e);
-            throw new ExternalServiceException("Failed to search for services: " + e.getMessage());
-        }
+        return Mono.deferContextual(context -> googleCallCoalescer.searchNearby(serviceType, center, radiusMeters, maxResults,
+                        () -> fetchNearby(serviceType, center, radiusMeters, maxResults).contextWrite(context)))
+                .onErrorMap(e -> !(e instanceof ExternalServiceException), e -> {
+                    log.error("Error searching Google Places", e);
+                    return new ExternalServiceException("Failed to search for services: " + e.getMessage());
+                });
     }
 
     /**
-     * Geocode a location string to coordinates
+     * Whether searches for this query use Nearby Search, which returns a single page of results.
+     * Other queries use Text Search, which can be paged with {@link #searchTextPage}.
      */
-    private GeocodingResponse geocodeLocation(String location) {
-        WebClient webClient = webClientBuilder
-                .baseUrl(GEOCODING_BASE_URL)
-                .build();
+    public boolean supportsNearbySearch(String serviceType) {
+        return SUPPORTED_NEARBY_TYPES.contains(serviceType.toLowerCase());
+    }
 
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/geocode/json")
-                        .queryParam("address", location)
-                        .queryParam("key", apiKey)
-                        .build())
+    /**
+     * One page of Text Search results, for paging through results beyond the first call
+     * @param pageToken token from the previous page, or null for the first page
+     */
+    public Mono<PlacesPage> searchTextPage(
+            String query,
+            GeoPoint center,
+            Integer radiusMeters,
+            Integer pageSize,
+            String pageToken
+    ) {
+        double lat = center.getLatitude();
+        double lng = center.getLongitude();
+
+        return textSearch(query, lat, lng, radiusMeters, pageSize, pageToken)
+                .defaultIfEmpty(new PlacesPage(List.of(), null))
+                .onErrorMap(e -> !(e instanceof ExternalServiceException), e -> {
+                    log.error("Error searching Google Places", e);
+                    return new ExternalServiceException("Failed to search for services: " + e.getMessage());
+                });
+    }
+
+    private Mono<List<ServiceSearchResponse>> fetchNearby(
+            String serviceType,
+            GeoPoint center,
+            Integer radiusMeters,
+            Integer maxResults
+    ) {
+        double lat = center.getLatitude();
+        double lng = center.getLongitude();
+
+        // Search for places using appropriate method
+        return SUPPORTED_NEARBY_TYPES.contains(serviceType.toLowerCase())
+                ? searchNearbyPlaces(serviceType, lat, lng, radiusMeters, maxResults)
+                : searchTextPlaces(serviceType, lat, lng, radiusMeters, maxResults);
+    }
+
+    /**
+     * Geocode a location string to coordinates.
+     * Called through {@link GeocodeCache}, so only cache misses reach the Geocoding API.
+     */
+    private Mono<GeoPoint> geocodeLocation(String location) {
+        // A URI template, so client metrics are tagged with it rather than the address and key
+        return geocodingWebClient.get()
+                .uri("/geocode/json?address={address}&key={key}", location, apiKey)
                 .retrieve()
-                .bodyToMono(GeocodingResponse.class)
-                .block();
+                .bodyToMono(DataBuffer.class)
+                .mapNotNull(body -> decode(body, placesResponseDecoder::decodeGeocode));
     }
 
     /**
      * Search using Nearby Search (New) API - for supported types
      */
-    private List<Place> searchNearbyPlaces(
+    private Mono<List<ServiceSearchResponse>> searchNearbyPlaces(
             String placeType,
             double lat,
             double lng,
             Integer radiusMeters,
             Integer maxResults
     ) {
-        WebClient webClient = webClientBuilder
-                .baseUrl(PLACES_BASE_URL)
-                .build();
-
         NearbySearchRequest request = NearbySearchRequest.builder()
                 .includedTypes(List.of(placeType))
-                .maxResultCount(maxResults != null ? maxResults : 20)
+                .maxResultCount(maxResults != null ? maxResults : MAX_RESULT_COUNT)
                 .locationRestriction(LocationRestriction.builder()
                         .circle(Circle.builder()
                                 .center(Center.builder()
@@ -136,40 +193,47 @@ public class GooglePlacesService {
                 .rankPreference("DISTANCE")
                 .build();
 
-        PlacesSearchResponse response = webClient.post()
+        return googleResilience.searchNearby(() -> placesWebClient.post()
                 .uri("/places:searchNearby")
                 .contentType(MediaType.APPLICATION_JSON)
                 .header("X-Goog-Api-Key", apiKey)
                 .header("X-Goog-FieldMask", getFieldMask())
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(PlacesSearchResponse.class)
-                .onErrorResume(e -> {
-                    log.error("Error calling Nearby Search API", e);
-                    return Mono.empty();
-                })
-                .block();
-
-        return response != null ? response.getPlaces() : List.of();
+                .bodyToMono(DataBuffer.class)
+                .map(body -> decode(body, in -> placesResponseDecoder.decodePlaces(in, lat, lng)))
+                .doOnError(e -> log.error("Error calling Nearby Search API", e)))
+                .map(PlacesPage::getResults)
+                .defaultIfEmpty(List.of());
     }
 
     /**
      * Search using Text Search API - for unsupported types like HVAC
      */
-    private List<Place> searchTextPlaces(
+    private Mono<List<ServiceSearchResponse>> searchTextPlaces(
             String query,
             double lat,
             double lng,
             Integer radiusMeters,
             Integer maxResults
     ) {
-        WebClient webClient = webClientBuilder
-                .baseUrl(PLACES_BASE_URL)
-                .build();
+        return textSearch(query, lat, lng, radiusMeters, maxResults, null)
+                .map(PlacesPage::getResults)
+                .defaultIfEmpty(List.of());
+    }
 
+    private Mono<PlacesPage> textSearch(
+            String query,
+            double lat,
+            double lng,
+            Integer radiusMeters,
+            Integer maxResults,
+            String pageToken
+    ) {
         TextSearchRequest request = TextSearchRequest.builder()
                 .textQuery(query + " service")
-                .maxResultCount(maxResults != null ? maxResults : 20)
+                .maxResultCount(maxResults != null ? maxResults : MAX_RESULT_COUNT)
+                .pageToken(pageToken)
                 .locationBias(LocationBias.builder()
                         .circle(Circle.builder()
                                 .center(Center.builder()
@@ -181,21 +245,16 @@ public class GooglePlacesService {
                         .build())
                 .build();
 
-        PlacesSearchResponse response = webClient.post()
+        return googleResilience.searchText(() -> placesWebClient.post()
                 .uri("/places:searchText")
                 .contentType(MediaType.APPLICATION_JSON)
                 .header("X-Goog-Api-Key", apiKey)
-                .header("X-Goog-FieldMask", getFieldMask())
+                .header("X-Goog-FieldMask", getFieldMask() + ",nextPageToken")
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(PlacesSearchResponse.class)
-                .onErrorResume(e -> {
-                    log.error("Error calling Text Search API", e);
-                    return Mono.empty();
-                })
-                .block();
-
-        return response != null ? response.getPlaces() : List.of();
+                .bodyToMono(DataBuffer.class)
+                .map(body -> decode(body, in -> placesResponseDecoder.decodePlaces(in, lat, lng)))
+                .doOnError(e -> log.error("Error calling Text Search API", e)));
     }
 
     /**
@@ -219,107 +278,19 @@ public class GooglePlacesService {
     }
 
     /**
-     * Convert Google Place (New API) to our DTO
+     * Decode a response body held in one buffer, capped at google.http.max-response-size
      */
-    private ServiceSearchResponse convertToServiceResponse(
-            Place place,
-            double searchLat,
-            double searchLng
-    ) {
-        // Calculate distance
-        double distanceMiles = 0.0;
-        if (place.getLocation() != null) {
-            distanceMiles = calculateDistance(
-                    searchLat, searchLng,
-                    place.getLocation().getLatitude(),
-                    place.getLocation().getLongitude()
-            );
-        }
-
-        // Extract business name
-        String businessName = place.getDisplayName() != null
-                ? place.getDisplayName().getText()
-                : "Unknown";
-
-        // Check if currently open
-        Boolean openNow = null;
-        if (place.getCurrentOpeningHours() != null) {
-            openNow = place.getCurrentOpeningHours().getOpenNow();
+    private static <T> T decode(DataBuffer body, BodyDecoder<T> decoder) {
+        try (InputStream in = body.asInputStream(true)) {
+            return decoder.decode(in);
+        } catch (IOException e) {
+            throw new DecodingException("Could not decode Google response: " + e.getMessage(), e);
         }
-
-        // Get photo URLs
-        List<String> photoUrls = place.getPhotos() != null
-                ? place.getPhotos().stream()
-                .limit(1)
-                .map(photo -> buildPhotoUrl(photo.getName()))
-                .collect(Collectors.toList())
-                : List.of();
-
-        return ServiceSearchResponse.builder()
-                .name(businessName)
-                .address(place.getFormattedAddress())
-                .phoneNumber(place.getNationalPhoneNumber())
-                .rating(place.getRating())
-                .totalReviews(place.getUserRatingCount())
-                .priceLevel(place.getPriceLevel())
-                .openNow(openNow)
-                .distanceMiles(distanceMiles)
-                .website(place.getWebsiteUri())
-                .googleMapsUrl(buildGoogleMapsUrl(place))
-                .serviceTypes(place.getTypes())
-                .latitude(place.getLocation() != null ? place.getLocation().getLatitude() : null)
-                .longitude(place.getLocation() != null ? place.getLocation().getLongitude() : null)
-                .placeId(extractPlaceId(place.getId()))
-                .photoUrls(photoUrls)
-                .build();
     }
 
-    /**
-     * Build Google Maps URL from place
-     */
-    private String buildGoogleMapsUrl(Place place) {
-        if (place.getId() != null) {
-            String placeId = extractPlaceId(place.getId());
-            return "https://www.google.com/maps/place/?q=place_id:" + placeId;
-        }
-        return null;
-    }
-
-    /**
-     * Extract place ID from resource name (format: "places/ChIJ...")
-     */
-    private String extractPlaceId(String resourceName) {
-        if (resourceName != null && resourceName.startsWith("places/")) {
-            return resourceName.substring(7);
-        }
-        return resourceName;
-    }
-
-    /**
-     * Build photo URL from photo resource name
-     */
-    private String buildPhotoUrl(String photoResourceName) {
-        return String.format(
-                "https://places.googleapis.com/v1/%s/media?maxHeightPx=400&maxWidthPx=400&key=%s",
-                photoResourceName,
-                apiKey
-        );
-    }
-
-    /**
-     * Calculate distance between two coordinates in miles (Haversine formula)
-     */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 3959; // Radius of the earth in miles
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return R * c; // Distance in miles
+    @FunctionalInterface
+    private interface BodyDecoder<T> {
+        T decode(InputStream body) throws IOException;
     }
 
     // ===== Request DTOs =====
@@ -339,9 +310,11 @@ public class GooglePlacesService {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private static class TextSearchRequest {
         private String textQuery;
         private Integer maxResultCount;
+        private String pageToken;
         private LocationBias locationBias;
     }
 
@@ -378,73 +351,4 @@ public class GooglePlacesService {
         private Double latitude;
         private Double longitude;
     }
-
-    // ===== Response DTOs =====
-
-    @Data
-    private static class GeocodingResponse {
-        private List<GeocodingResult> results;
-    }
-
-    @Data
-    private static class GeocodingResult {
-        private Geometry geometry;
-    }
-
-    @Data
-    private static class Geometry {
-        private Location location;
-    }
-
-    @Data
-    private static class Location {
-        private Double lat;
-        private Double lng;
-    }
-
-    @Data
-    private static class PlacesSearchResponse {
-        private List<Place> places;
-    }
-
-    @Data
-    private static class Place {
-        private String id;  // Resource name: "places/ChIJ..."
-        private DisplayName displayName;
-        private String formattedAddress;
-        private PlaceLocation location;
-        private Double rating;
-        private Integer userRatingCount;
-        private String nationalPhoneNumber;
-        private String websiteUri;
-        private String businessStatus;
-        private Integer priceLevel;
-        private List<String> types;
-        private CurrentOpeningHours currentOpeningHours;
-        private List<Photo> photos;
-    }
-
-    @Data
-    private static class DisplayName {
-        private String text;
-        private String languageCode;
-    }
-
-    @Data
-    private static class PlaceLocation {
-        private Double latitude;
-        private Double longitude;
-    }
-
-    @Data
-    private static class CurrentOpeningHours {
-        private Boolean openNow;
-    }
-
-    @Data
-    private static class Photo {
-        private String name;  // Resource name for photo
-        private Integer widthPx;
-        private Integer heightPx;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,290 @@
+package com.tradesoncall.backend.service.external;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradesoncall.backend.config.GoogleApiConfig;
+import com.tradesoncall.backend.exception.QuotaExceededException;
+import com.tradesoncall.backend.model.enums.GoogleSku;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Request rate and daily budget per billed Google endpoint.
+ * <ul>
+ *     <li>Global: one {@link TokenBucket} and one {@link DailyBudget} per SKU</li>
+ *     <li>Per user: users active within active-user-window split each SKU's rate in proportion to
+ *     their weight, and each may use at most user-daily-share of a daily budget</li>
+ * </ul>
+ * A call over the rate waits for its reserved slot instead of failing, as long as the wait is within
+ * max-wait; beyond that, or once a daily budget is used up, it fails with {@link QuotaExceededException}.
+ * <p>
+ * Calls are counted per SKU and {@link ServiceType} and published as google.quota.spend.
+ */
+@Component
+public class GoogleQuotaManager {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long SWEEP_INTERVAL_NANOS = NANOS_PER_SECOND;
+    // Google resets daily quotas at midnight Pacific time
+    private static final ZoneId QUOTA_ZONE = ZoneId.of("America/Los_Angeles");
+    private static final ServiceType[] SERVICE_TYPES = ServiceType.values();
+
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final long activeWindowNanos;
+    private final Map<String, Double> userWeights;
+    private final LongSupplier nanoTime;
+    private final Clock clock;
+
+    private final Map<GoogleSku, Limit> limits = new EnumMap<>(GoogleSku.class);
+    private final Cache<String, UserQuota> users;
+
+    private volatile double activeWeight;
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    // [sku][service type ordinal, or the last slot for calls without one]
+    private final LongAdder[][] spend = new LongAdder[GoogleSku.values().length][SERVICE_TYPES.length + 1];
+
+    @Autowired
+    public GoogleQuotaManager(GoogleApiConfig googleApiConfig, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(googleApiConfig.getQuota(), System::nanoTime, Clock.system(QUOTA_ZONE));
+        registerMeters(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    GoogleQuotaManager(GoogleApiConfig.Quota config, LongSupplier nanoTime, Clock clock) {
+        this.enabled = config.isEnabled();
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+        this.activeWindowNanos = config.getActiveUserWindow().toNanos();
+        this.userWeights = Map.copyOf(config.getUserWeights());
+        this.nanoTime = nanoTime;
+        this.clock = clock;
+
+        for (GoogleSku sku : GoogleSku.values()) {
+            GoogleApiConfig.SkuQuota quota = config.getSkus().get(sku);
+            if (quota != null) {
+                limits.put(sku, new Limit(quota, config.getUserDailyShare()));
+            }
+            for (int i = 0; i < spend[sku.ordinal()].length; i++) {
+                spend[sku.ordinal()][i] = new LongAdder();
+            }
+        }
+
+        this.users = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofDays(1))
+                .maximumSize(100_000)
+                .build();
+        this.lastSweep.set(nanoTime.getAsLong());
+    }
+
+    /**
+     * Take one call's worth of quota for the user and service type in the subscriber's context
+     * (see {@link QuotaContext}); completes when the call may start
+     */
+    public Mono<Void> acquire(GoogleSku sku) {
+        if (!enabled || !limits.containsKey(sku)) {
+            return Mono.deferContextual(context -> {
+                count(sku, QuotaContext.serviceType(context));
+                return Mono.empty();
+            });
+        }
+        return Mono.deferContextual(context -> {
+            long waitNanos = reserve(sku, QuotaContext.user(context), QuotaContext.serviceType(context));
+            return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then() : Mono.empty();
+        });
+    }
+
+    /**
+     * Reserve quota for one call
+     * @return nanos to wait before making the call
+     * @throws QuotaExceededException if a daily budget is used up or the wait would exceed max-wait
+     */
+    long reserve(GoogleSku sku, String user, ServiceType serviceType) {
+        Limit limit = limits.get(sku);
+        long now = nanoTime.getAsLong();
+        long today = LocalDate.now(clock).toEpochDay();
+        UserQuota userQuota = users.get(user, key -> new UserQuota(userWeights.getOrDefault(key, 1.0)));
+        userQuota.lastSeen = now;
+        sweepIfDue(now);
+
+        int index = sku.ordinal();
+        if (!limit.daily.tryAcquire(today, limit.dailyBudget)) {
+            limit.rejected.increment();
+            throw new QuotaExceededException("Daily Google " + sku + " budget is used up", untilTomorrow());
+        }
+        // Cache refreshes and other calls made outside a request only count against the global budget
+        long userDailyBudget = QuotaContext.SYSTEM_USER.equals(user) ? limit.dailyBudget : limit.userDailyBudget;
+        if (!userQuota.daily[index].tryAcquire(today, userDailyBudget)) {
+            limit.daily.release(today);
+            limit.rejected.increment();
+            throw new QuotaExceededException("Daily search allowance reached, try again tomorrow", untilTomorrow());
+        }
+
+        // The user's fair share of the rate; a user who is alone gets all of it
+        double share = userQuota.weight / Math.max(activeWeight, userQuota.weight);
+        long userInterval = (long) (limit.intervalNanos / share);
+        int userBurst = Math.max(1, (int) Math.round(limit.burst * share));
+
+        long userWait = userQuota.buckets[index].reserve(now, userInterval, userBurst, maxWaitNanos);
+        if (userWait == TokenBucket.REJECTED) {
+            userQuota.daily[index].release(today);
+            limit.daily.release(today);
+            limit.rejected.increment();
+            throw new QuotaExceededException("Too many searches right now, try again shortly",
+                    retryAfter(userQuota.buckets[index].waitNanos(now, userInterval, userBurst)));
+        }
+        long globalWait = limit.bucket.reserve(now, limit.intervalNanos, limit.burst, maxWaitNanos);
+        if (globalWait == TokenBucket.REJECTED) {
+            userQuota.buckets[index].release(userInterval);
+            userQuota.daily[index].release(today);
+            limit.daily.release(today);
+            limit.rejected.increment();
+            throw new QuotaExceededException("Search capacity is exhausted right now, try again shortly",
+                    retryAfter(limit.bucket.waitNanos(now, limit.intervalNanos, limit.burst)));
+        }
+
+        count(sku, serviceType);
+        return Math.max(userWait, globalWait);
+    }
+
+    /**
+     * Calls made for a SKU and service type since startup; a null service type counts calls made without one
+     */
+    public long spend(GoogleSku sku, ServiceType serviceType) {
+        return spend[sku.ordinal()][slot(serviceType)].sum();
+    }
+
+    public Stats stats(GoogleSku sku) {
+        Limit limit = limits.get(sku);
+        long today = LocalDate.now(clock).toEpochDay();
+        long calls = 0;
+        for (LongAdder adder : spend[sku.ordinal()]) {
+            calls += adder.sum();
+        }
+        return Stats.builder()
+                .calls(calls)
+                .usedToday(limit != null ? limit.daily.used(today) : 0)
+                .dailyBudget(limit != null ? limit.dailyBudget : 0)
+                .rejected(limit != null ? limit.rejected.sum() : 0)
+                .activeWeight(activeWeight)
+                .build();
+    }
+
+    private void count(GoogleSku sku, ServiceType serviceType) {
+        spend[sku.ordinal()][slot(serviceType)].increment();
+    }
+
+    private static int slot(ServiceType serviceType) {
+        return serviceType != null ? serviceType.ordinal() : SERVICE_TYPES.length;
+    }
+
+    /**
+     * Recompute the total weight of active users, at most once per second and by one thread
+     */
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (activeWeight > 0 && now - last < SWEEP_INTERVAL_NANOS) {
+            return;
+        }
+        if (!lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        double total = 0;
+        for (UserQuota quota : users.asMap().values()) {
+            if (now - quota.lastSeen <= activeWindowNanos) {
+                total += quota.weight;
+            }
+        }
+        activeWeight = total;
+    }
+
+    private Duration retryAfter(long waitNanos) {
+        return Duration.ofNanos(Math.max(0, waitNanos - maxWaitNanos));
+    }
+
+    private Duration untilTomorrow() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay());
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        for (GoogleSku sku : limits.keySet()) {
+            String skuTag = sku.name().toLowerCase();
+            for (int slot = 0; slot <= SERVICE_TYPES.length; slot++) {
+                String serviceTypeTag = slot < SERVICE_TYPES.length ? SERVICE_TYPES[slot].name().toLowerCase() : "none";
+                FunctionCounter.builder("google.quota.spend", spend[sku.ordinal()][slot], LongAdder::sum)
+                        .description("Billed Google calls")
+                        .tags("sku", skuTag, "service_type", serviceTypeTag)
+                        .register(registry);
+            }
+            Gauge.builder("google.quota.used", this, m -> m.stats(sku).getUsedToday())
+                    .description("Calls counted against today's budget")
+                    .tag("sku", skuTag)
+                    .register(registry);
+            FunctionCounter.builder("google.quota.rejected", limits.get(sku).rejected, LongAdder::sum)
+                    .tag("sku", skuTag)
+                    .register(registry);
+        }
+    }
+
+    private static final class Limit {
+        final long intervalNanos;
+        final int burst;
+        final long dailyBudget;
+        final long userDailyBudget;
+        final TokenBucket bucket = new TokenBucket();
+        final DailyBudget daily = new DailyBudget();
+        final LongAdder rejected = new LongAdder();
+
+        Limit(GoogleApiConfig.SkuQuota quota, double userDailyShare) {
+            this.intervalNanos = (long) (NANOS_PER_SECOND / quota.getRequestsPerSecond());
+            this.burst = Math.max(1, quota.getBurst());
+            this.dailyBudget = quota.getDailyBudget();
+            this.userDailyBudget = Math.max(1, (long) (quota.getDailyBudget() * userDailyShare));
+        }
+    }
+
+    private static final class UserQuota {
+        final double weight;
+        final TokenBucket[] buckets = new TokenBucket[GoogleSku.values().length];
+        final DailyBudget[] daily = new DailyBudget[GoogleSku.values().length];
+        volatile long lastSeen;
+
+        UserQuota(double weight) {
+            this.weight = weight;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new TokenBucket();
+                daily[i] = new DailyBudget();
+            }
+        }
+    }
+
+    @Value
+    @Builder
+    public static class Stats {
+        long calls;
+        long usedToday;
+        long dailyBudget;
+        long rejected;
+        double activeWeight;
+    }
+}
@@ -0,0 +1,126 @@
+package com.tradesoncall.backend.service.external;
+
+import com.tradesoncall.backend.config.GoogleApiConfig;
+import com.tradesoncall.backend.model.enums.GoogleSku;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Timeouts, circuit breakers and hedging around the Google endpoints.
+ * Each endpoint has its own {@link CircuitBreaker}, so Text Search failing does not stop geocoding.
+ * Every attempt is bounded by the endpoint's timeout; geocoding attempts are additionally hedged
+ * with {@link RequestHedger}, since a search cannot start before its location is resolved.
+ * Every attempt, hedges included, first takes quota from {@link GoogleQuotaManager}; the wait for
+ * a rate slot is not part of the timeout, and quota rejections are not breaker failures.
+ * <p>
+ * Breaker state and hedging counters are published as google.circuit.* and google.hedge.* meters.
+ */
+@Component
+public class GoogleResilience {
+
+    private final Duration geocodeTimeout;
+    private final Duration placesTimeout;
+    private final boolean breakersEnabled;
+
+    private final CircuitBreaker geocodeBreaker;
+    private final CircuitBreaker nearbyBreaker;
+    private final CircuitBreaker textBreaker;
+    private final RequestHedger geocodeHedger;
+    private final GoogleQuotaManager quotaManager;
+
+    public GoogleResilience(GoogleApiConfig googleApiConfig, GoogleQuotaManager quotaManager,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.quotaManager = quotaManager;
+        GoogleApiConfig.Resilience resilience = googleApiConfig.getResilience();
+        this.geocodeTimeout = resilience.getGeocodeTimeout();
+        this.placesTimeout = resilience.getPlacesTimeout();
+        this.breakersEnabled = resilience.getCircuitBreaker().isEnabled();
+
+        this.geocodeBreaker = breaker("geocode", resilience.getCircuitBreaker());
+        this.nearbyBreaker = breaker("searchNearby", resilience.getCircuitBreaker());
+        this.textBreaker = breaker("searchText", resilience.getCircuitBreaker());
+
+        GoogleApiConfig.Hedging hedging = resilience.getHedging();
+        this.geocodeHedger = hedging.isEnabled()
+                ? new RequestHedger(hedging.getPercentile(), hedging.getMinDelay(), hedging.getMaxDelay(),
+                hedging.getMaxHedgeRatio())
+                : null;
+
+        registerMeters(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public <T> Mono<T> geocode(Supplier<Mono<T>> call) {
+        Supplier<Mono<T>> attempt = () -> guard(GoogleSku.GEOCODE, geocodeBreaker, call, geocodeTimeout);
+        return geocodeHedger != null ? geocodeHedger.execute(attempt) : attempt.get();
+    }
+
+    public <T> Mono<T> searchNearby(Supplier<Mono<T>> call) {
+        return guard(GoogleSku.NEARBY_SEARCH, nearbyBreaker, call, placesTimeout);
+    }
+
+    public <T> Mono<T> searchText(Supplier<Mono<T>> call) {
+        return guard(GoogleSku.TEXT_SEARCH, textBreaker, call, placesTimeout);
+    }
+
+    public List<CircuitBreaker> circuitBreakers() {
+        return List.of(geocodeBreaker, nearbyBreaker, textBreaker);
+    }
+
+    public RequestHedger.Stats geocodeHedgeStats() {
+        return geocodeHedger != null ? geocodeHedger.stats() : null;
+    }
+
+    private <T> Mono<T> guard(GoogleSku sku, CircuitBreaker breaker, Supplier<Mono<T>> call, Duration timeout) {
+        Supplier<Mono<T>> timed = () -> Mono.defer(call)
+                .timeout(timeout, Mono.error(() -> new TimeoutException(
+                        "Google " + breaker.name() + " call timed out after " + timeout.toMillis() + "ms")));
+        return quotaManager.acquire(sku)
+                .then(breakersEnabled ? breaker.execute(timed) : Mono.defer(timed));
+    }
+
+    private static CircuitBreaker breaker(String name, GoogleApiConfig.CircuitBreaker config) {
+        return new CircuitBreaker(name, config.getWindowSize(), config.getMinimumCalls(),
+                config.getFailureRateThreshold(), config.getOpenDuration(), config.getHalfOpenCalls());
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        for (CircuitBreaker breaker : circuitBreakers()) {
+            Gauge.builder("google.circuit.state", breaker, b -> b.state().ordinal())
+                    .description("Circuit state: 0 closed, 1 open, 2 half-open")
+                    .tag("endpoint", breaker.name())
+                    .register(registry);
+            FunctionCounter.builder("google.circuit.calls", breaker, b -> b.stats().getSuccesses())
+                    .tags("endpoint", breaker.name(), "outcome", "success")
+                    .register(registry);
+            FunctionCounter.builder("google.circuit.calls", breaker, b -> b.stats().getFailures())
+                    .tags("endpoint", breaker.name(), "outcome", "failure")
+                    .register(registry);
+            FunctionCounter.builder("google.circuit.calls", breaker, b -> b.stats().getRejected())
+                    .tags("endpoint", breaker.name(), "outcome", "rejected")
+                    .register(registry);
+        }
+
+        if (geocodeHedger != null) {
+            FunctionCounter.builder("google.hedge.requests", geocodeHedger, h -> h.stats().getHedged())
+                    .tag("endpoint", "geocode")
+                    .register(registry);
+            FunctionCounter.builder("google.hedge.wins", geocodeHedger, h -> h.stats().getHedgeWins())
+                    .tag("endpoint", "geocode")
+                    .register(registry);
+            Gauge.builder("google.hedge.delay", geocodeHedger, h -> h.delay().toMillis())
+                    .baseUnit("milliseconds")
+                    .tag("endpoint", "geocode")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.tradesoncall.backend.service.external;
+
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A page of Places results and the token for the next page, if there is one
+ */
+@Value
+public class PlacesPage {
+    List<ServiceSearchResponse> results;
+    String nextPageToken;
+}
@@ -0,0 +1,312 @@
+package com.tradesoncall.backend.service.external;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.service.geo.DistanceKernel;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Token-level decoding of Places (New) and Geocoding responses.
+ * Places are read straight into {@link ServiceSearchResponse} builders in one pass, skipping
+ * fields we do not use, instead of binding an intermediate object graph and copying it.
+ */
+@Component
+public class PlacesResponseDecoder {
+
+    private static final String PLACE_RESOURCE_PREFIX = "places/";
+    private static final String MAPS_URL_PREFIX = "https://www.google.com/maps/place/?q=place_id:";
+    private static final String PHOTO_URL_PREFIX = "https://places.googleapis.com/v1/";
+    // Geocoding reports these with HTTP 200 and no results
+    private static final Set<String> FAILED_GEOCODE_STATUSES = Set.of("OVER_QUERY_LIMIT", "REQUEST_DENIED", "UNKNOWN_ERROR");
+
+    private final ObjectReader reader;
+    private final String photoUrlSuffix;
+
+    public PlacesResponseDecoder(ObjectMapper objectMapper, @Value("${google.places.api-key}") String apiKey) {
+        this.reader = objectMapper.reader();
+        this.photoUrlSuffix = "/media?maxHeightPx=400&maxWidthPx=400&key=" + apiKey;
+    }
+
+    /**
+     * Decode a Nearby Search or Text Search response, with distances from the search centre
+     */
+    public PlacesPage decodePlaces(InputStream body, double searchLat, double searchLng) throws IOException {
+        List<ServiceSearchResponse.ServiceSearchResponseBuilder> places = new ArrayList<>();
+        String nextPageToken = null;
+
+        try (JsonParser parser = reader.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("places".equals(field) && value == JsonToken.START_ARRAY) {
+                    for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+                        if (element == JsonToken.START_OBJECT) {
+                            places.add(readPlace(parser));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else if ("nextPageToken".equals(field)) {
+                    nextPageToken = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return new PlacesPage(withDistances(places, searchLat, searchLng), nextPageToken);
+    }
+
+    /**
+     * Decode the first result's location of a Geocoding response
+     * @return the location, or null when there are no results
+     * @throws IOException also when the status says the call failed (quota, key or server error)
+     */
+    public GeoPoint decodeGeocode(InputStream body) throws IOException {
+        try (JsonParser parser = reader.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    // results[0].geometry.location
+                    JsonToken first = parser.nextToken();
+                    if (first == JsonToken.END_ARRAY) {
+                        // No results: the status tells a failed call from an unknown address
+                        continue;
+                    }
+                    if (first == JsonToken.START_OBJECT && enterObject(parser, "geometry")
+                            && enterObject(parser, "location")) {
+                        return readLatLng(parser, "lat", "lng");
+                    }
+                    return null;
+                }
+                if ("status".equals(field) && FAILED_GEOCODE_STATUSES.contains(parser.getText())) {
+                    throw new IOException("Geocoding API returned " + parser.getText());
+                }
+                parser.skipChildren();
+            }
+        }
+        return null;
+    }
+
+    private ServiceSearchResponse.ServiceSearchResponseBuilder readPlace(JsonParser parser) throws IOException {
+        ServiceSearchResponse.ServiceSearchResponseBuilder place = ServiceSearchResponse.builder()
+                .name("Unknown")
+                .photoUrls(List.of());
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            boolean object = value == JsonToken.START_OBJECT;
+            boolean array = value == JsonToken.START_ARRAY;
+
+            switch (field) {
+                case "id" -> {
+                    String placeId = extractPlaceId(parser.getText());
+                    place.placeId(placeId).googleMapsUrl(MAPS_URL_PREFIX + placeId);
+                }
+                case "displayName" -> {
+                    if (object) {
+                        place.name(readText(parser));
+                    }
+                }
+                case "formattedAddress" -> place.address(parser.getText());
+                case "location" -> {
+                    GeoPoint location = object ? readLatLng(parser, "latitude", "longitude") : null;
+                    if (location != null) {
+                        place.latitude(location.getLatitude()).longitude(location.getLongitude());
+                    }
+                }
+                case "rating" -> place.rating(parser.getValueAsDouble());
+                case "userRatingCount" -> place.totalReviews(parser.getValueAsInt());
+                case "nationalPhoneNumber" -> place.phoneNumber(parser.getText());
+                case "websiteUri" -> place.website(parser.getText());
+                case "priceLevel" -> place.priceLevel(readPriceLevel(parser, value));
+                case "types" -> {
+                    if (array) {
+                        place.serviceTypes(readStrings(parser));
+                    }
+                }
+                case "currentOpeningHours" -> {
+                    if (object) {
+                        place.openNow(readOpenNow(parser));
+                    }
+                }
+                case "photos" -> {
+                    if (array) {
+                        place.photoUrls(readFirstPhotoUrl(parser));
+                    }
+                }
+                default -> {
+                }
+            }
+            // Unused fields, and values of an unexpected shape, are skipped whole
+            parser.skipChildren();
+        }
+        return place;
+    }
+
+    private List<ServiceSearchResponse> withDistances(List<ServiceSearchResponse.ServiceSearchResponseBuilder> places,
+                                                      double searchLat, double searchLng) {
+        // Distances in one pass; places without a location sit at the centre (distance 0)
+        int n = places.size();
+        List<ServiceSearchResponse> results = new ArrayList<>(n);
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            ServiceSearchResponse place = places.get(i).build();
+            results.add(place);
+            latitudes[i] = place.getLatitude() != null ? place.getLatitude() : searchLat;
+            longitudes[i] = place.getLongitude() != null ? place.getLongitude() : searchLng;
+        }
+
+        double[] distances = new double[n];
+        DistanceKernel.haversineMiles(DistanceKernel.origin(searchLat, searchLng), latitudes, longitudes, n, distances);
+        for (int i = 0; i < n; i++) {
+            results.get(i).setDistanceMiles(distances[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Read {lat, lng}-style object fields; the parser is at the object's START_OBJECT
+     */
+    private static GeoPoint readLatLng(JsonParser parser, String latField, String lngField) throws IOException {
+        Double lat = null;
+        Double lng = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (latField.equals(field)) {
+                lat = parser.getValueAsDouble();
+            } else if (lngField.equals(field)) {
+                lng = parser.getValueAsDouble();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return lat != null && lng != null ? new GeoPoint(lat, lng) : null;
+    }
+
+    /**
+     * Advance to the named field of the current object and onto its START_OBJECT
+     */
+    private static boolean enterObject(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (name.equals(field)) {
+                return value == JsonToken.START_OBJECT;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static String readText(JsonParser parser) throws IOException {
+        String text = "Unknown";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("text".equals(field)) {
+                text = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return text;
+    }
+
+    private static Boolean readOpenNow(JsonParser parser) throws IOException {
+        Boolean openNow = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("openNow".equals(field) && value.isBoolean()) {
+                openNow = parser.getBooleanValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return openNow;
+    }
+
+    private static List<String> readStrings(JsonParser parser) throws IOException {
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(parser.getText());
+        }
+        return values;
+    }
+
+    /**
+     * Only the first photo is returned to clients
+     */
+    private List<String> readFirstPhotoUrl(JsonParser parser) throws IOException {
+        String name = null;
+        for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+            if (element != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (name == null && "name".equals(field)) {
+                    name = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return name != null ? List.of(PHOTO_URL_PREFIX + name + photoUrlSuffix) : List.of();
+    }
+
+    /**
+     * Places (New) returns price level as an enum name; older payloads use a number
+     */
+    private static Integer readPriceLevel(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getIntValue();
+        }
+        return switch (parser.getText()) {
+            case "PRICE_LEVEL_FREE" -> 0;
+            case "PRICE_LEVEL_INEXPENSIVE" -> 1;
+            case "PRICE_LEVEL_MODERATE" -> 2;
+            case "PRICE_LEVEL_EXPENSIVE" -> 3;
+            case "PRICE_LEVEL_VERY_EXPENSIVE" -> 4;
+            default -> null;
+        };
+    }
+
+    /**
+     * Extract place ID from resource name (format: "places/ChIJ...")
+     */
+    private static String extractPlaceId(String resourceName) {
+        return resourceName.startsWith(PLACE_RESOURCE_PREFIX)
+                ? resourceName.substring(PLACE_RESOURCE_PREFIX.length())
+                : resourceName;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but found " + actual);
+        }
+    }
+}
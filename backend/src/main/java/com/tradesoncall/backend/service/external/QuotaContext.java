@@ -0,0 +1,43 @@
+package com.tradesoncall.backend.service.external;
+
+import com.tradesoncall.backend.model.enums.ServiceType;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Who a Google call is made for, carried in the Reactor context from the search down to
+ * {@link GoogleQuotaManager}. Calls made outside a request, such as cache refreshes, are
+ * charged to a shared system user.
+ */
+public final class QuotaContext {
+
+    public static final String SYSTEM_USER = "system";
+
+    private static final String USER_KEY = QuotaContext.class.getName() + ".user";
+    private static final String SERVICE_TYPE_KEY = QuotaContext.class.getName() + ".serviceType";
+
+    private QuotaContext() {
+    }
+
+    public static Function<Context, Context> of(String user, ServiceType serviceType) {
+        return forUser(user).andThen(forServiceType(serviceType));
+    }
+
+    public static Function<Context, Context> forUser(String user) {
+        return context -> context.put(USER_KEY, user);
+    }
+
+    public static Function<Context, Context> forServiceType(ServiceType serviceType) {
+        return context -> serviceType != null ? context.put(SERVICE_TYPE_KEY, serviceType) : context;
+    }
+
+    static String user(ContextView context) {
+        return context.getOrDefault(USER_KEY, SYSTEM_USER);
+    }
+
+    static ServiceType serviceType(ContextView context) {
+        return context.getOrDefault(SERVICE_TYPE_KEY, null);
+    }
+}
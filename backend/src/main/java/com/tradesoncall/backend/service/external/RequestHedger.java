@@ -0,0 +1,156 @@
+package com.tradesoncall.backend.service.external;
+
+import lombok.Builder;
+import lombok.Value;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Latency-based request hedging.
+ * If a call has not answered within the hedge delay, an identical second call is started and the
+ * first answer wins; the other call is cancelled. The delay follows a percentile of recent call
+ * latencies, so only the slow tail is hedged. An error from one call is only reported once every
+ * started call has failed.
+ * <p>
+ * Hedges are paid for from a token bucket that earns max-hedge-ratio tokens per call, so during a
+ * brownout the extra load is bounded by that fraction instead of doubling traffic.
+ */
+public final class RequestHedger {
+
+    private static final int SAMPLES = 256;
+    private static final int RECOMPUTE_EVERY = 16;
+    private static final double MAX_TOKENS = 10;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final double maxHedgeRatio;
+
+    // Guarded by this
+    private final long[] latencies = new long[SAMPLES];
+    private int sampled;
+    private int next;
+    private double tokens;
+
+    private volatile long delayNanos;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public RequestHedger(double percentile, Duration minDelay, Duration maxDelay, double maxHedgeRatio) {
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxHedgeRatio = maxHedgeRatio;
+        // Until there are samples, only hedge calls that are clearly stuck
+        this.delayNanos = maxDelayNanos;
+    }
+
+    /**
+     * Run the call, hedging it if it is slower than the current delay
+     * @param call upstream call; subscribed once, or twice when hedged
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            calls.increment();
+            earnToken();
+
+            AtomicInteger started = new AtomicInteger(1);
+            AtomicInteger failed = new AtomicInteger();
+            long startedAt = System.nanoTime();
+
+            Mono<Optional<T>> primary = attempt(call, started, failed)
+                    .doOnNext(answer -> recordLatency(System.nanoTime() - startedAt));
+            Mono<Optional<T>> hedge = Mono.delay(Duration.ofNanos(delayNanos))
+                    .flatMap(tick -> {
+                        if (!spendToken()) {
+                            return Mono.never();
+                        }
+                        hedged.increment();
+                        started.incrementAndGet();
+                        long hedgedAt = System.nanoTime();
+                        return attempt(call, started, failed)
+                                .doOnNext(answer -> {
+                                    hedgeWins.increment();
+                                    recordLatency(System.nanoTime() - hedgedAt);
+                                });
+                    });
+
+            return Mono.firstWithSignal(primary, hedge)
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    /**
+     * Current hedge delay
+     */
+    public Duration delay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    public Stats stats() {
+        return Stats.builder()
+                .calls(calls.sum())
+                .hedged(hedged.sum())
+                .hedgeWins(hedgeWins.sum())
+                .delayMillis(delayNanos / 1_000_000)
+                .build();
+    }
+
+    /**
+     * One call with empty completion turned into a value, so an empty answer wins like any other.
+     * A failure is held back while another call is still running.
+     */
+    private static <T> Mono<Optional<T>> attempt(Supplier<Mono<T>> call, AtomicInteger started, AtomicInteger failed) {
+        return Mono.defer(call)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> failed.incrementAndGet() < started.get() ? Mono.never() : Mono.error(e));
+    }
+
+    private synchronized void earnToken() {
+        tokens = Math.min(MAX_TOKENS, tokens + maxHedgeRatio);
+    }
+
+    private synchronized boolean spendToken() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private void recordLatency(long nanos) {
+        long[] snapshot = null;
+        synchronized (this) {
+            latencies[next] = nanos;
+            next = (next + 1) % SAMPLES;
+            sampled = Math.min(sampled + 1, SAMPLES);
+            if (next % RECOMPUTE_EVERY == 0) {
+                snapshot = Arrays.copyOf(latencies, sampled);
+            }
+        }
+
+        if (snapshot != null) {
+            Arrays.sort(snapshot);
+            long p = snapshot[(int) Math.min(snapshot.length - 1, Math.floor(percentile * snapshot.length))];
+            delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, p));
+        }
+    }
+
+    @Value
+    @Builder
+    public static class Stats {
+        long calls;
+        long hedged;
+        long hedgeWins;
+        long delayMillis;
+    }
+}
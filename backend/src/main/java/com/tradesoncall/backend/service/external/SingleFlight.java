@@ -0,0 +1,89 @@
+package com.tradesoncall.backend.service.external;
+
+import lombok.Builder;
+import lombok.Value;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one upstream call.
+ * The first caller for a key starts the call; callers arriving while it is in flight
+ * wait for and receive the same value, empty completion or error. Once the call
+ * finishes the key is released, so later calls go upstream again (this is not a cache).
+ * <p>
+ * The shared call is bounded by a timeout and is not cancelled when an individual
+ * waiter cancels, since other waiters may still need it.
+ */
+public final class SingleFlight<K, V> {
+
+    private final String name;
+    private final Duration timeout;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name, Duration timeout) {
+        this.name = name;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Run the call for the key, or join the one already in flight
+     * @param key identity of the call; must implement equals/hashCode
+     * @param call upstream call, subscribed at most once per flight
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing, true);
+            }
+
+            calls.increment();
+            // Subscribed outside of the map so a synchronously completing call can release the key
+            Mono.defer(call)
+                    .timeout(timeout, Mono.error(() -> new TimeoutException(
+                            name + " call for " + key + " timed out after " + timeout.toMillis() + "ms")))
+                    .subscribe(
+                            value -> release(key, flight).complete(value),
+                            error -> release(key, flight).completeExceptionally(error),
+                            () -> release(key, flight).complete(null)
+                    );
+            return Mono.fromFuture(flight, true);
+        });
+    }
+
+    /**
+     * Snapshot of coalescing counters
+     */
+    public Stats stats() {
+        return Stats.builder()
+                .inFlight(inFlight.size())
+                .upstreamCalls(calls.sum())
+                .coalesced(coalesced.sum())
+                .build();
+    }
+
+    // Release before completing so a caller woken by the result never joins a finished flight
+    private CompletableFuture<V> release(K key, CompletableFuture<V> flight) {
+        inFlight.remove(key, flight);
+        return flight;
+    }
+
+    @Value
+    @Builder
+    public static class Stats {
+        int inFlight;
+        long upstreamCalls;
+        long coalesced;
+    }
+}
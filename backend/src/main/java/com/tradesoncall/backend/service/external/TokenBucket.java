@@ -0,0 +1,56 @@
+package com.tradesoncall.backend.service.external;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the only state is the theoretical arrival time of the
+ * next call, advanced by one emission interval per call with a CAS.
+ * <p>
+ * A call over the rate is not refused outright. It reserves the next free slot and is told how long
+ * to wait for it, unless that wait is longer than the caller is prepared to queue.
+ */
+final class TokenBucket {
+
+    static final long REJECTED = -1;
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Reserve a slot
+     * @param intervalNanos emission interval, one second divided by the rate
+     * @param burst calls that may go through back to back after an idle period
+     * @return nanos to wait before the call may start, or {@link #REJECTED} if that exceeds maxWaitNanos
+     */
+    long reserve(long now, long intervalNanos, int burst, long maxWaitNanos) {
+        long tolerance = intervalNanos * Math.max(0, burst - 1);
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = tat == Long.MIN_VALUE ? now : Math.max(tat, now);
+            long wait = start - tolerance - now;
+            if (wait > maxWaitNanos) {
+                return REJECTED;
+            }
+            if (theoreticalArrival.compareAndSet(tat, start + intervalNanos)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Give back a reserved slot that will not be used
+     */
+    void release(long intervalNanos) {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * Nanos until a call would go through without waiting
+     */
+    long waitNanos(long now, long intervalNanos, int burst) {
+        long tat = theoreticalArrival.get();
+        if (tat == Long.MIN_VALUE) {
+            return 0;
+        }
+        return Math.max(0, tat - intervalNanos * Math.max(0, burst - 1) - now);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tradesoncall.backend.service.geo;
+
+/**
+ * Distances from one origin to many points held in primitive coordinate arrays.
+ * Terms that depend only on the origin (its radians, cosine and sine of latitude) are computed
+ * once per query rather than once per point as in {@link GeoDistance#haversineMiles}.
+ * <ul>
+ *     <li>{@link #haversineMiles}: great-circle distance, same results as {@link GeoDistance}</li>
+ *     <li>{@link #equirectangularMiles}: flat projection at the pair's mean latitude, no trig per point.
+ *     Within {@link #FAST_PATH_MAX_MILES} of an origin between +/-{@link #FAST_PATH_MAX_LATITUDE} degrees
+ *     the error relative to Haversine is below {@link #FAST_PATH_MAX_RELATIVE_ERROR}
+ *     (0.03 miles at 100 miles)</li>
+ * </ul>
+ * {@link #distancesMiles} takes the fast path whenever the search radius allows it.
+ * <p>
+ * The equirectangular loop is vectorised with the incubating Vector API when the JVM is started
+ * with {@code --add-modules jdk.incubator.vector}; otherwise the scalar loop is used.
+ */
+public final class DistanceKernel {
+
+    public static final double FAST_PATH_MAX_MILES = 100;
+    public static final double FAST_PATH_MAX_LATITUDE = 70;
+    public static final double FAST_PATH_MAX_RELATIVE_ERROR = 3e-4;
+
+    static final double RADIANS_PER_DEGREE = Math.PI / 180;
+
+    // Keep clear of the antimeridian, where longitude differences wrap
+    private static final double FAST_PATH_MAX_LONGITUDE = 178;
+
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private DistanceKernel() {
+    }
+
+    /**
+     * Precompute the per-query terms for an origin
+     */
+    public static Origin origin(double latitude, double longitude) {
+        double latRadians = latitude * RADIANS_PER_DEGREE;
+        return new Origin(latitude, longitude, Math.cos(latRadians), Math.sin(latRadians));
+    }
+
+    /**
+     * Whether the Vector API implementation is in use
+     */
+    public static boolean vectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Distances in miles to the first {@code length} points, with the fast path if the radius allows it
+     * @param radiusMiles search radius; points further away may carry the larger error of the fast path
+     */
+    public static void distancesMiles(Origin origin, double radiusMiles,
+                                      double[] latitudes, double[] longitudes, int length, double[] out) {
+        if (radiusMiles <= FAST_PATH_MAX_MILES
+                && Math.abs(origin.latitude()) <= FAST_PATH_MAX_LATITUDE
+                && Math.abs(origin.longitude()) <= FAST_PATH_MAX_LONGITUDE) {
+            equirectangularMiles(origin, latitudes, longitudes, length, out);
+        } else {
+            haversineMiles(origin, latitudes, longitudes, length, out);
+        }
+    }
+
+    /**
+     * Great-circle distances in miles to the first {@code length} points
+     */
+    public static void haversineMiles(Origin origin, double[] latitudes, double[] longitudes,
+                                      int length, double[] out) {
+        double lat0 = origin.latitude();
+        double lng0 = origin.longitude();
+        double cosLat0 = origin.cosLatitude();
+
+        for (int i = 0; i < length; i++) {
+            double sinHalfLat = Math.sin((latitudes[i] - lat0) * RADIANS_PER_DEGREE * 0.5);
+            double sinHalfLng = Math.sin((longitudes[i] - lng0) * RADIANS_PER_DEGREE * 0.5);
+            double a = sinHalfLat * sinHalfLat
+                    + cosLat0 * Math.cos(latitudes[i] * RADIANS_PER_DEGREE) * sinHalfLng * sinHalfLng;
+            out[i] = 2 * GeoDistance.EARTH_RADIUS_MILES * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+    }
+
+    /**
+     * Equirectangular distances in miles to the first {@code length} points; see the class comment for accuracy
+     */
+    public static void equirectangularMiles(Origin origin, double[] latitudes, double[] longitudes,
+                                            int length, double[] out) {
+        int from = VECTORIZED ? VectorDistanceKernel.equirectangularMiles(origin, latitudes, longitudes, length, out) : 0;
+
+        double lat0 = origin.latitude();
+        double lng0 = origin.longitude();
+        double cosLat0 = origin.cosLatitude();
+        double sinLat0 = origin.sinLatitude();
+
+        for (int i = from; i < length; i++) {
+            double dLat = (latitudes[i] - lat0) * RADIANS_PER_DEGREE;
+            double dLng = (longitudes[i] - lng0) * RADIANS_PER_DEGREE;
+            // cos of the mean latitude, expanded around the origin to second order
+            double cosMean = cosLat0 - sinLat0 * dLat * 0.5 - cosLat0 * dLat * dLat * 0.125;
+            double x = dLng * cosMean;
+            out[i] = GeoDistance.EARTH_RADIUS_MILES * Math.sqrt(x * x + dLat * dLat);
+        }
+    }
+
+    /**
+     * Query origin with its precomputed terms
+     */
+    public record Origin(double latitude, double longitude, double cosLatitude, double sinLatitude) {
+    }
+}
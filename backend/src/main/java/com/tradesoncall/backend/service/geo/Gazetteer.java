@@ -0,0 +1,237 @@
+package com.tradesoncall.backend.service.geo;
+
+import com.tradesoncall.backend.config.GazetteerConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Offline coordinates for zip codes and "City, ST" locations, so they never cost a Geocoding call.
+ * The data is a file written by {@link GazetteerBuilder} and memory-mapped read-only: the index
+ * lives outside the heap and lookups allocate nothing beyond the key's bytes.
+ * <p>
+ * File layout, big-endian:
+ * <pre>
+ * header   magic int, version int, entry count int, reserved int, key pool offset long, key pool size long
+ * entries  key hash long, latitude int, longitude int, key offset int, key length short, kind byte,
+ *          reserved byte, weight int; sorted by hash
+ * keys     UTF-8 keys, as produced by {@link LocationNormalizer}
+ * </pre>
+ * Coordinates are stored in millionths of a degree. The weight of a place is its number of postal
+ * codes, a rough measure of its size. A lookup binary-searches the entries by the
+ * key's 64-bit FNV-1a hash and compares the key bytes, so hash collisions cannot return a wrong place.
+ */
+@Component
+@Slf4j
+public class Gazetteer {
+
+    static final int MAGIC = 0x5447415A; // "TGAZ"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 32;
+    static final int ENTRY_BYTES = 28;
+    static final double COORDINATE_SCALE = 1_000_000.0;
+
+    /**
+     * What a key names. Only POSTAL_CODE and PLACE keys are worth suggesting; the others are
+     * alternative spellings of them.
+     */
+    public enum Kind {
+        POSTAL_CODE,
+        // "place ST"
+        PLACE,
+        // "place state name"
+        PLACE_STATE_NAME,
+        // "place ST postal code"
+        PLACE_POSTAL_CODE,
+        // "place ST country"
+        PLACE_COUNTRY
+    }
+
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(String key, Kind kind, int weight, GeoPoint point);
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final MappedByteBuffer data;
+    private final int entries;
+    private final long poolOffset;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public Gazetteer(GazetteerConfig config, ObjectProvider<MeterRegistry> meterRegistry) throws IOException {
+        this(config.isEnabled() ? Path.of(config.getFile()) : null, config.isPreload());
+        registerMeters(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * @param file gazetteer file, or null (or a missing file) for an empty gazetteer
+     */
+    Gazetteer(Path file, boolean preload) throws IOException {
+        if (file == null || !Files.isRegularFile(file)) {
+            if (file != null) {
+                log.warn("Gazetteer file {} not found; all locations will be geocoded upstream", file);
+            }
+            this.data = null;
+            this.entries = 0;
+            this.poolOffset = 0;
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("Not a version " + VERSION + " gazetteer file: " + file);
+        }
+        this.entries = data.getInt(8);
+        this.poolOffset = data.getLong(16);
+        if (poolOffset + data.getLong(24) > data.capacity()
+                || HEADER_BYTES + (long) entries * ENTRY_BYTES > poolOffset) {
+            throw new IOException("Truncated gazetteer file: " + file);
+        }
+        if (preload) {
+            data.load();
+        }
+        log.info("Loaded gazetteer with {} entries from {}", entries, file);
+    }
+
+    /**
+     * Coordinates of a zip code or "City, ST" location
+     * @param location raw user input
+     * @return coordinates, or null if the gazetteer does not know the location
+     */
+    public GeoPoint find(String location) {
+        if (entries == 0) {
+            return null;
+        }
+        GeoPoint point = lookup(LocationNormalizer.normalize(location));
+        (point != null ? hits : misses).increment();
+        return point;
+    }
+
+    /**
+     * Exact lookup of an already normalized key
+     */
+    public GeoPoint lookup(String key) {
+        if (entries == 0 || key.isEmpty()) {
+            return null;
+        }
+
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(bytes);
+        int index = firstWithHash(hash);
+        for (int i = index; i < entries && hashAt(i) == hash; i++) {
+            int entry = HEADER_BYTES + i * ENTRY_BYTES;
+            if (keyEquals(data.getInt(entry + 16), keyLength(entry), bytes)) {
+                return pointAt(entry);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Visit every entry, in no particular order
+     */
+    public void forEach(EntryVisitor visitor) {
+        byte[] key = new byte[256];
+        for (int i = 0; i < entries; i++) {
+            int entry = HEADER_BYTES + i * ENTRY_BYTES;
+            int length = keyLength(entry);
+            if (key.length < length) {
+                key = new byte[length];
+            }
+            data.get((int) poolOffset + data.getInt(entry + 16), key, 0, length);
+            visitor.visit(new String(key, 0, length, StandardCharsets.UTF_8), KINDS[data.get(entry + 22)],
+                    data.getInt(entry + 24), pointAt(entry));
+        }
+    }
+
+    public int size() {
+        return entries;
+    }
+
+    /**
+     * Index of the first entry whose hash is not less than the given hash
+     */
+    private int firstWithHash(long hash) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (hashAt(mid) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int keyLength(int entry) {
+        return data.getShort(entry + 20) & 0xffff;
+    }
+
+    private GeoPoint pointAt(int entry) {
+        return new GeoPoint(data.getInt(entry + 8) / COORDINATE_SCALE, data.getInt(entry + 12) / COORDINATE_SCALE);
+    }
+
+    private long hashAt(int index) {
+        return data.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    private boolean keyEquals(int offset, int length, byte[] key) {
+        if (length != key.length) {
+            return false;
+        }
+        int start = (int) poolOffset + offset;
+        for (int i = 0; i < length; i++) {
+            if (data.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long hash(byte[] key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : key) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        Gauge.builder("gazetteer.entries", this, Gazetteer::size)
+                .register(registry);
+        FunctionCounter.builder("gazetteer.lookups", hits, LongAdder::sum)
+                .description("Locations looked up in the offline gazetteer")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("gazetteer.lookups", misses, LongAdder::sum)
+                .description("Locations looked up in the offline gazetteer")
+                .tag("result", "miss")
+                .register(registry);
+    }
+}
@@ -0,0 +1,205 @@
+package com.tradesoncall.backend.service.geo;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the {@link Gazetteer} file from GeoNames postal code dumps
+ * (https://download.geonames.org/export/zip/, e.g. US.txt): tab-separated country code, postal code,
+ * place name, state name, state code, county and community columns, latitude, longitude, accuracy.
+ * <p>
+ * Every postal code is written as itself and as "place ST code"; every place as "place ST",
+ * "place state" and, in the US and Canada, "place ST country", at the mean of its postal codes'
+ * coordinates and weighted by their number. Keys are
+ * normalized with {@link LocationNormalizer}, like the lookups. Postal code keys win over place keys
+ * that clash.
+ * <p>
+ * Run from the packaged application:
+ * {@code java -cp backend.jar -Dloader.main=com.tradesoncall.backend.service.geo.GazetteerBuilder
+ * org.springframework.boot.loader.launch.PropertiesLauncher data/gazetteer.bin US.txt [CA.txt ...]}
+ */
+public final class GazetteerBuilder {
+
+    // Key lengths are stored as an unsigned short; four bytes per char covers any UTF-8
+    private static final int MAX_KEY_CHARS = 0xffff / 4;
+
+    // Countries that LocationNormalizer keeps in keys, by GeoNames country code
+    private static final Map<String, String> COUNTRIES = Map.of("US", "USA", "CA", "Canada");
+
+    private final Map<String, Location> postalCodes = new HashMap<>();
+    private final Map<String, Location> places = new HashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: GazetteerBuilder <output file> <GeoNames postal code file>...");
+            System.exit(2);
+        }
+
+        GazetteerBuilder builder = new GazetteerBuilder();
+        for (int i = 1; i < args.length; i++) {
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(args[i]), StandardCharsets.UTF_8)) {
+                builder.addGeoNames(reader);
+            }
+        }
+        builder.write(Path.of(args[0]));
+        System.out.println("Wrote " + builder.size() + " entries to " + args[0]);
+    }
+
+    /**
+     * Add every row of a GeoNames postal code dump; rows without coordinates are skipped
+     */
+    public GazetteerBuilder addGeoNames(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] columns = line.split("\t", -1);
+            if (columns.length < 11 || columns[9].isBlank() || columns[10].isBlank()) {
+                continue;
+            }
+            addPostalCode(columns[0], columns[1], columns[2], columns[3], columns[4],
+                    Double.parseDouble(columns[9]), Double.parseDouble(columns[10]));
+        }
+        return this;
+    }
+
+    /**
+     * @param countryCode ISO 3166 alpha-2 code, as in GeoNames
+     */
+    public GazetteerBuilder addPostalCode(String countryCode, String postalCode, String place, String stateName,
+                                          String stateCode, double latitude, double longitude) {
+        putPostalCode(postalCode, Gazetteer.Kind.POSTAL_CODE, latitude, longitude);
+        putPostalCode(place + " " + stateCode + " " + postalCode, Gazetteer.Kind.PLACE_POSTAL_CODE, latitude, longitude);
+        addPlace(place + " " + stateCode, Gazetteer.Kind.PLACE, latitude, longitude);
+        addPlace(place + " " + stateName, Gazetteer.Kind.PLACE_STATE_NAME, latitude, longitude);
+        String country = COUNTRIES.get(countryCode);
+        if (country != null) {
+            addPlace(place + " " + stateCode + " " + country, Gazetteer.Kind.PLACE_COUNTRY, latitude, longitude);
+        }
+        return this;
+    }
+
+    /**
+     * Number of distinct keys that {@link #write} will write
+     */
+    public int size() {
+        return (int) places.keySet().stream().filter(key -> !postalCodes.containsKey(key)).count()
+                + postalCodes.size();
+    }
+
+    /**
+     * Write the gazetteer file, replacing any existing one atomically
+     */
+    public void write(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>(postalCodes.size() + places.size());
+        postalCodes.forEach((key, location) -> entries.add(new Entry(key, location)));
+        places.forEach((key, location) -> {
+            if (!postalCodes.containsKey(key)) {
+                entries.add(new Entry(key, location));
+            }
+        });
+        entries.sort(Comparator.comparingLong(Entry::hash).thenComparing(Entry::key, Arrays::compare));
+
+        long poolSize = entries.stream().mapToLong(entry -> entry.key().length).sum();
+        long poolOffset = Gazetteer.HEADER_BYTES + (long) entries.size() * Gazetteer.ENTRY_BYTES;
+
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(Gazetteer.MAGIC);
+            out.writeInt(Gazetteer.VERSION);
+            out.writeInt(entries.size());
+            out.writeInt(0);
+            out.writeLong(poolOffset);
+            out.writeLong(poolSize);
+
+            int keyOffset = 0;
+            for (Entry entry : entries) {
+                Location location = entry.location();
+                out.writeLong(entry.hash());
+                out.writeInt((int) Math.round(location.latitude / location.count * Gazetteer.COORDINATE_SCALE));
+                out.writeInt((int) Math.round(location.longitude / location.count * Gazetteer.COORDINATE_SCALE));
+                out.writeInt(keyOffset);
+                out.writeShort(entry.key().length);
+                out.writeByte(location.kind.ordinal());
+                out.writeByte(0);
+                out.writeInt(location.count);
+                keyOffset += entry.key().length;
+            }
+            for (Entry entry : entries) {
+                out.write(entry.key());
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void putPostalCode(String location, Gazetteer.Kind kind, double latitude, double longitude) {
+        String key = normalize(location);
+        if (key != null) {
+            postalCodes.computeIfAbsent(key, k -> new Location(kind)).add(latitude, longitude);
+        }
+    }
+
+    private void addPlace(String location, Gazetteer.Kind kind, double latitude, double longitude) {
+        String key = normalize(location);
+        if (key != null) {
+            places.computeIfAbsent(key, k -> new Location(kind)).add(latitude, longitude);
+        }
+    }
+
+    /**
+     * Normalized key, or null if it is empty or too long for the file
+     */
+    private static String normalize(String location) {
+        String key = LocationNormalizer.normalize(location);
+        return key.isEmpty() || key.length() > MAX_KEY_CHARS ? null : key;
+    }
+
+    /**
+     * Sum of the coordinates of a key's postal codes, so places end up at their mean.
+     * A postal code key keeps its first coordinates.
+     */
+    private static final class Location {
+        final Gazetteer.Kind kind;
+        double latitude;
+        double longitude;
+        int count;
+
+        Location(Gazetteer.Kind kind) {
+            this.kind = kind;
+        }
+
+        void add(double latitude, double longitude) {
+            if (count > 0 && (kind == Gazetteer.Kind.POSTAL_CODE || kind == Gazetteer.Kind.PLACE_POSTAL_CODE)) {
+                return;
+            }
+            this.latitude += latitude;
+            this.longitude += longitude;
+            count++;
+        }
+    }
+
+    private record Entry(byte[] key, long hash, Location location) {
+        Entry(String key, Location location) {
+            this(key.getBytes(StandardCharsets.UTF_8), location);
+        }
+
+        private Entry(byte[] key, Location location) {
+            this(key, Gazetteer.hash(key), location);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.tradesoncall.backend.service.geo;
+
+import lombok.Value;
+
+/**
+ * Immutable latitude/longitude pair in decimal degrees
+ */
+@Value
+public class GeoPoint {
+    double latitude;
+    double longitude;
+}
@@ -0,0 +1,189 @@
+package com.tradesoncall.backend.service.geo;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradesoncall.backend.config.GeocodeCacheConfig;
+import com.tradesoncall.backend.model.entity.GeocodeCacheEntry;
+import com.tradesoncall.backend.repository.GeocodeCacheRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Two tier cache for geocoding results.
+ * Tier 1 is a size bounded in-memory cache, tier 2 is the geocode_cache table so
+ * warm entries survive restarts. Keys are normalized with {@link LocationNormalizer}.
+ * When the upstream lookup fails, a durable entry past its TTL is served rather than the error.
+ */
+@Component
+@Slf4j
+public class GeocodeCache {
+
+    // Matches the geocode_cache.normalized_location column
+    private static final int MAX_DURABLE_KEY_LENGTH = 255;
+
+    private final GeocodeCacheConfig config;
+    private final GeocodeCacheRepository geocodeCacheRepository;
+    private final AsyncCache<String, GeoPoint> memory;
+
+    private final LongAdder durableHits = new LongAdder();
+    private final LongAdder upstreamLoads = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    public GeocodeCache(GeocodeCacheConfig config, GeocodeCacheRepository geocodeCacheRepository,
+                        ObjectProvider<MeterRegistry> meterRegistry) {
+        this.config = config;
+        this.geocodeCacheRepository = geocodeCacheRepository;
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .buildAsync();
+
+        registerMeters(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Resolve a location, consulting memory, then the durable tier, then the loader.
+     * Database access runs on the bounded elastic scheduler so callers never block.
+     * @param location raw location string
+     * @param loader upstream lookup, called with the raw location; completes empty if not found
+     * @return coordinates, or an empty Mono if the location could not be resolved
+     */
+    public Mono<GeoPoint> get(String location, Function<String, Mono<GeoPoint>> loader) {
+        String key = LocationNormalizer.normalize(location);
+        if (!config.isEnabled() || key.isEmpty()) {
+            return loader.apply(location);
+        }
+
+        // Concurrent misses for the same key share a single load; one caller cancelling must not cancel it
+        return Mono.fromFuture(
+                () -> memory.get(key, (k, executor) -> loadFromDurableOrUpstream(k, location, loader).toFuture()),
+                true
+        );
+    }
+
+    /**
+     * Whether lookups of this location go through the cache; otherwise {@link #get} calls the loader directly
+     */
+    public boolean caches(String location) {
+        return config.isEnabled() && !LocationNormalizer.normalize(location).isEmpty();
+    }
+
+    /**
+     * Snapshot of cache effectiveness counters
+     */
+    public Stats stats() {
+        var memoryStats = memory.synchronous().stats();
+        return Stats.builder()
+                .size(memory.synchronous().estimatedSize())
+                .memoryHits(memoryStats.hitCount())
+                .memoryMisses(memoryStats.missCount())
+                .durableHits(durableHits.sum())
+                .upstreamLoads(upstreamLoads.sum())
+                .staleHits(staleHits.sum())
+                .evictions(memoryStats.evictionCount())
+                .build();
+    }
+
+    private Mono<GeoPoint> loadFromDurableOrUpstream(String key, String location,
+                                                     Function<String, Mono<GeoPoint>> loader) {
+        return findDurable(key, LocalDateTime.now().minus(config.getDurable().getTtl()))
+                .doOnNext(point -> durableHits.increment())
+                .switchIfEmpty(Mono.defer(() -> {
+                    upstreamLoads.increment();
+                    return loader.apply(location)
+                            .doOnNext(point -> saveDurable(key, point))
+                            .onErrorResume(e -> findDurable(key, LocalDateTime.MIN)
+                                    .doOnNext(point -> {
+                                        staleHits.increment();
+                                        log.warn("Serving expired geocode for '{}' after upstream failure: {}",
+                                                key, e.getMessage());
+                                    })
+                                    .switchIfEmpty(Mono.error(e)));
+                }));
+    }
+
+    private Mono<GeoPoint> findDurable(String key, LocalDateTime freshAfter) {
+        if (!isDurable(key)) {
+            return Mono.empty();
+        }
+
+        return Mono.fromCallable(() -> geocodeCacheRepository.findById(key)
+                        .filter(entry -> entry.getResolvedAt().isAfter(freshAfter))
+                        .map(entry -> new GeoPoint(entry.getLatitude(), entry.getLongitude()))
+                        .orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    // The durable tier is an optimization; never fail a search because of it
+                    log.warn("Could not read geocode cache entry for '{}'", key, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Write through to the durable tier without holding up the caller
+     */
+    private void saveDurable(String key, GeoPoint point) {
+        if (!isDurable(key)) {
+            return;
+        }
+
+        GeocodeCacheEntry entry = GeocodeCacheEntry.builder()
+                .normalizedLocation(key)
+                .latitude(point.getLatitude())
+                .longitude(point.getLongitude())
+                .resolvedAt(LocalDateTime.now())
+                .build();
+
+        Mono.fromRunnable(() -> geocodeCacheRepository.save(entry))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("Could not persist geocode cache entry for '{}'", key, e));
+    }
+
+    /**
+     * Memory tier hits and misses as cache.gets{cache=geocode}; misses resolved by the durable tier,
+     * upstream, or an expired durable entry as geocode.cache.loads
+     */
+    private void registerMeters(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, memory, "geocode");
+        registerLoads(registry, "durable", durableHits);
+        registerLoads(registry, "upstream", upstreamLoads);
+        registerLoads(registry, "stale", staleHits);
+    }
+
+    private static void registerLoads(MeterRegistry registry, String source, LongAdder counter) {
+        FunctionCounter.builder("geocode.cache.loads", counter, LongAdder::sum)
+                .description("Geocode cache misses by where they were resolved")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    private boolean isDurable(String key) {
+        return config.getDurable().isEnabled() && key.length() <= MAX_DURABLE_KEY_LENGTH;
+    }
+
+    @Value
+    @Builder
+    public static class Stats {
+        long size;
+        long memoryHits;
+        long memoryMisses;
+        long durableHits;
+        long upstreamLoads;
+        long staleHits;
+        long evictions;
+    }
+}
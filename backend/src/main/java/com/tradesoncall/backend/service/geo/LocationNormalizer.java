@@ -0,0 +1,82 @@
+package com.tradesoncall.backend.service.geo;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonicalizes free-text locations so that equivalent inputs share a cache key,
+ * e.g. "New York, NY", "new york ny" and "  NEW YORK,  NY. " all map to "new york ny".
+ * <p>
+ * A country stays part of the key, spelled one way ("usa", "canada"): "Vancouver, Canada" and
+ * "Vancouver, USA" are different places. It is dropped only after a postal code of that country,
+ * which names the country already.
+ */
+public final class LocationNormalizer {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern US_ZIP = Pattern.compile("^(\\d{5})(?:[ -]?\\d{4})?$");
+    private static final Pattern CA_POSTAL = Pattern.compile("^([a-z]\\d[a-z]) ?(\\d[a-z]\\d)$");
+    private static final Pattern COUNTRY_SUFFIX = Pattern.compile(
+            "(?:^| )(?:(usa|us|united states(?: of america)?)|canada)$");
+
+    private LocationNormalizer() {
+    }
+
+    /**
+     * Normalize a location string for use as a lookup key
+     * @param location raw user input
+     * @return canonical key, or an empty string if nothing meaningful remains
+     */
+    public static String normalize(String location) {
+        if (location == null) {
+            return "";
+        }
+
+        String value = Normalizer.normalize(location, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT);
+
+        // Zip codes keep their separators until they have been canonicalized
+        String trimmed = value.strip();
+        String postal = canonicalPostalCode(trimmed);
+        if (postal != null) {
+            return postal;
+        }
+
+        value = NON_ALPHANUMERIC.matcher(value).replaceAll(" ").strip();
+
+        var country = COUNTRY_SUFFIX.matcher(value);
+        if (country.find()) {
+            boolean us = country.group(1) != null;
+            String place = value.substring(0, country.start());
+            // "10001, USA" and "10001" resolve to the same place
+            postal = us ? usZip(place) : canadianPostalCode(place);
+            if (postal != null) {
+                return postal;
+            }
+            String countryKey = us ? "usa" : "canada";
+            return place.isEmpty() ? countryKey : place + " " + countryKey;
+        }
+
+        postal = canonicalPostalCode(value);
+        return postal != null ? postal : value;
+    }
+
+    /**
+     * Reduce ZIP+4 to the five digit ZIP and strip the space from Canadian postal codes
+     */
+    private static String canonicalPostalCode(String value) {
+        String zip = usZip(value);
+        return zip != null ? zip : canadianPostalCode(value);
+    }
+
+    private static String usZip(String value) {
+        var zip = US_ZIP.matcher(value);
+        return zip.matches() ? zip.group(1) : null;
+    }
+
+    private static String canadianPostalCode(String value) {
+        var postal = CA_POSTAL.matcher(value);
+        return postal.matches() ? postal.group(1) + postal.group(2) : null;
+    }
+}
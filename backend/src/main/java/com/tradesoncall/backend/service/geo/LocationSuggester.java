@@ -0,0 +1,383 @@
+package com.tradesoncall.backend.service.geo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradesoncall.backend.config.LocationSuggestConfig;
+import com.tradesoncall.backend.model.dto.response.LocationSuggestionResponse;
+import com.tradesoncall.backend.model.entity.GeocodeCacheEntry;
+import com.tradesoncall.backend.repository.GeocodeCacheRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Location typeahead: ranked completions of a partially typed location, with coordinates.
+ * <p>
+ * Suggestions come from the gazetteer's places and postal codes, weighted by their number of postal
+ * codes, and from the locations users search for, weighted by how often. A location the gazetteer
+ * does not know, such as a street address, is only suggested once several different users have
+ * searched for it, so one user's address is never offered to another.
+ * <p>
+ * Lookups read an immutable {@link SuggestionIndex}. One background thread builds it at startup
+ * from the gazetteer and the search history, then folds new searches into it every rebuild
+ * interval by merging them into a new index.
+ */
+@Component
+@Slf4j
+public class LocationSuggester implements SmartLifecycle {
+
+    // Searches per user of the most searched locations; users are counted per key once the
+    // spellings of a location are grouped under it
+    private static final String HISTORY_SQL = """
+            SELECT sh.location, sh.user_id, COUNT(*) AS searches
+            FROM search_history sh
+            JOIN (SELECT location
+                  FROM search_history
+                  WHERE searched_at > ?
+                  GROUP BY location
+                  ORDER BY COUNT(*) DESC
+                  LIMIT ?) top ON top.location = sh.location
+            WHERE sh.searched_at > ?
+            GROUP BY sh.location, sh.user_id
+            """;
+    private static final Pattern CA_POSTAL = Pattern.compile("[a-z]\\d[a-z]\\d[a-z]\\d");
+    private static final int GEOCODE_CACHE_BATCH = 1000;
+
+    private final LocationSuggestConfig config;
+    private final Gazetteer gazetteer;
+    private final JdbcTemplate jdbcTemplate;
+    private final GeocodeCacheRepository geocodeCacheRepository;
+
+    private volatile SuggestionIndex index = SuggestionIndex.EMPTY;
+    // Searched locations by key, with the searches not yet in the index
+    private final Cache<String, Candidate> candidates;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private volatile Thread indexThread;
+
+    private final Timer rebuilds;
+
+    public LocationSuggester(LocationSuggestConfig config,
+                             Gazetteer gazetteer,
+                             JdbcTemplate jdbcTemplate,
+                             GeocodeCacheRepository geocodeCacheRepository,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.config = config;
+        this.gazetteer = gazetteer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.geocodeCacheRepository = geocodeCacheRepository;
+        this.candidates = Caffeine.newBuilder()
+                .maximumSize(config.getMaxCandidates())
+                .expireAfterAccess(config.getHistoryWindow())
+                .executor(Runnable::run)
+                .build();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.rebuilds = Timer.builder("location.suggest.rebuild")
+                .description("Location suggestion index builds and merges")
+                .register(registry);
+        Gauge.builder("location.suggest.entries", this, suggester -> suggester.index.size())
+                .register(registry);
+    }
+
+    /**
+     * Completions of a partially typed location, most likely first
+     * @param query what the user has typed so far
+     * @param limit maximum number of suggestions, or null for the default
+     */
+    public List<LocationSuggestionResponse> suggest(String query, Integer limit) {
+        String prefix = LocationNormalizer.normalize(query);
+        if (!config.isEnabled() || prefix.length() < config.getMinQueryLength()) {
+            return List.of();
+        }
+
+        int count = limit != null ? Math.clamp(limit, 1, config.getMaxLimit()) : config.getDefaultLimit();
+        return index.top(prefix, count).stream()
+                .map(entry -> LocationSuggestionResponse.builder()
+                        .location(entry.display() != null ? entry.display() : displayName(entry.key()))
+                        .latitude(entry.point().getLatitude())
+                        .longitude(entry.point().getLongitude())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Count a search for a location, geocoded to the given point. Picked up by the next rebuild.
+     */
+    public void record(UUID userId, String location, GeoPoint point) {
+        if (!config.isEnabled() || point == null) {
+            return;
+        }
+        String key = LocationNormalizer.normalize(location);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        candidates.get(key, k -> new Candidate(displayOf(location), point))
+                .record(userId, config.getMinDistinctUsers());
+        dirty.add(key);
+    }
+
+    /**
+     * Number of locations that can be suggested
+     */
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        running = true;
+        indexThread = Thread.ofPlatform()
+                .name("location-suggest-index")
+                .daemon(true)
+                .start(this::runIndexer);
+    }
+
+    @Override
+    public void stop() {
+        Thread indexer = indexThread;
+        running = false;
+        if (indexer != null) {
+            LockSupport.unpark(indexer);
+            indexThread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runIndexer() {
+        try {
+            load();
+        } catch (Exception e) {
+            log.error("Could not load location suggestions", e);
+        }
+
+        long intervalNanos = config.getRebuildInterval().toNanos();
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            try {
+                applyRecorded();
+            } catch (Exception e) {
+                log.error("Could not update location suggestions", e);
+            }
+        }
+    }
+
+    /**
+     * Build the index from the gazetteer and the search history
+     */
+    void load() {
+        long started = System.nanoTime();
+        List<SuggestionIndex.Entry> entries = new ArrayList<>();
+        gazetteer.forEach((key, kind, weight, point) -> {
+            if (kind == Gazetteer.Kind.PLACE
+                    || (kind == Gazetteer.Kind.POSTAL_CODE && config.isIncludePostalCodes())) {
+                entries.add(new SuggestionIndex.Entry(key, null, weight, point));
+            }
+        });
+        int places = entries.size();
+        entries.addAll(loadHistory());
+
+        SuggestionIndex loaded = SuggestionIndex.of(entries);
+        rebuilds.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        index = loaded;
+        log.info("Loaded {} location suggestions ({} from the gazetteer)", loaded.size(), places);
+    }
+
+    /**
+     * Searched locations with enough distinct users, at the gazetteer's or the geocode cache's coordinates
+     */
+    private List<SuggestionIndex.Entry> loadHistory() {
+        // Raw locations are grouped in the database and by key here, so one user searching several
+        // spellings of a location counts once
+        Map<String, Searched> searched = new HashMap<>();
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minus(config.getHistoryWindow()));
+        jdbcTemplate.query(HISTORY_SQL, row -> {
+            String location = row.getString("location");
+            String key = LocationNormalizer.normalize(location);
+            if (!key.isEmpty()) {
+                searched.computeIfAbsent(key, k -> new Searched())
+                        .add(location, row.getObject("user_id", UUID.class), row.getLong("searches"));
+            }
+        }, since, config.getHistoryLocations(), since);
+
+        Map<String, GeoPoint> points = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+        searched.forEach((key, location) -> {
+            GeoPoint point = gazetteer.lookup(key);
+            if (point != null) {
+                points.put(key, point);
+            } else if (location.users.size() >= config.getMinDistinctUsers()) {
+                unknown.add(key);
+            }
+        });
+        for (int i = 0; i < unknown.size(); i += GEOCODE_CACHE_BATCH) {
+            for (GeocodeCacheEntry cached : geocodeCacheRepository.findAllById(
+                    unknown.subList(i, Math.min(i + GEOCODE_CACHE_BATCH, unknown.size())))) {
+                points.put(cached.getNormalizedLocation(), new GeoPoint(cached.getLatitude(), cached.getLongitude()));
+            }
+        }
+
+        List<SuggestionIndex.Entry> entries = new ArrayList<>(points.size());
+        searched.forEach((key, location) -> {
+            GeoPoint point = points.get(key);
+            if (point != null) {
+                entries.add(new SuggestionIndex.Entry(key, location.display(),
+                        location.searches * config.getHistoryWeight(), point));
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * Fold the searches recorded since the last call into a new index
+     */
+    void applyRecorded() {
+        SuggestionIndex current = index;
+        List<SuggestionIndex.Entry> updates = new ArrayList<>();
+        for (Iterator<String> keys = dirty.iterator(); keys.hasNext(); ) {
+            String key = keys.next();
+            keys.remove();
+            Candidate candidate = candidates.getIfPresent(key);
+            if (candidate == null) {
+                continue;
+            }
+            long searches = candidate.take(current.contains(key), config.getMinDistinctUsers());
+            if (searches > 0) {
+                updates.add(new SuggestionIndex.Entry(key, candidate.display,
+                        searches * config.getHistoryWeight(), candidate.point));
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        index = current.merge(updates);
+        rebuilds.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A searched location as typed, unless it was typed all in lower case; those are shown as
+     * {@link #displayName} spells their key
+     */
+    private static String displayOf(String location) {
+        String display = location.strip();
+        return display.chars().anyMatch(Character::isUpperCase) ? display : null;
+    }
+
+    /**
+     * "st louis mo" as "St Louis, MO"
+     */
+    static String displayName(String key) {
+        if (CA_POSTAL.matcher(key).matches()) {
+            return (key.substring(0, 3) + " " + key.substring(3)).toUpperCase(Locale.ROOT);
+        }
+
+        String[] words = key.split(" ");
+        StringBuilder display = new StringBuilder(key.length() + 1);
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            boolean stateCode = i == words.length - 1 && i > 0 && word.length() == 2
+                    && Character.isLetter(word.charAt(0)) && Character.isLetter(word.charAt(1));
+            if (stateCode) {
+                display.append(", ").append(word.toUpperCase(Locale.ROOT));
+            } else {
+                if (i > 0) {
+                    display.append(' ');
+                }
+                display.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            }
+        }
+        return display.toString();
+    }
+
+    private static final class Searched {
+        final Set<UUID> users = new HashSet<>();
+        // Searches per spelling
+        final Map<String, Long> spellings = new HashMap<>();
+        long searches;
+
+        void add(String location, UUID userId, long searches) {
+            users.add(userId);
+            spellings.merge(location, searches, Long::sum);
+            this.searches += searches;
+        }
+
+        /**
+         * The most searched spelling
+         */
+        String display() {
+            return displayOf(spellings.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .orElseThrow()
+                    .getKey());
+        }
+    }
+
+    /**
+     * A searched location and the searches not yet added to the index. Users are tracked until
+     * there are enough of them to suggest the location.
+     */
+    private static final class Candidate {
+        final String display;
+        final GeoPoint point;
+        private final Set<UUID> users = new HashSet<>();
+        private long searches;
+
+        Candidate(String display, GeoPoint point) {
+            this.display = display;
+            this.point = point;
+        }
+
+        synchronized void record(UUID userId, int minDistinctUsers) {
+            searches++;
+            if (users.size() < minDistinctUsers) {
+                users.add(userId);
+            }
+        }
+
+        /**
+         * Take the pending searches, if the location can be suggested
+         */
+        synchronized long take(boolean indexed, int minDistinctUsers) {
+            if (!indexed && users.size() < minDistinctUsers) {
+                return 0;
+            }
+            long taken = searches;
+            searches = 0;
+            return taken;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.tradesoncall.backend.service.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable prefix index of weighted location keys.
+ * <p>
+ * Keys are kept sorted, so the keys starting with a prefix form one range found by binary search.
+ * A segment tree holds the heaviest entry of every range, so the top k of a range come out in
+ * O(k log n) however many keys share the prefix: take the heaviest, split the range around it,
+ * repeat on the heaviest remaining part.
+ * <p>
+ * Updates go through {@link #merge}, which returns a new index and leaves this one untouched for
+ * concurrent readers.
+ */
+final class SuggestionIndex {
+
+    static final SuggestionIndex EMPTY = new SuggestionIndex(new Entry[0]);
+
+    /**
+     * @param display text to show, or null to derive it from the key
+     */
+    record Entry(String key, String display, long weight, GeoPoint point) {
+    }
+
+    private final String[] keys;
+    private final Entry[] entries;
+    // tree[1] covers every entry; the children of node i are 2i and 2i + 1; leaf i sits at n + i
+    private final int[] tree;
+
+    private SuggestionIndex(Entry[] sorted) {
+        int n = sorted.length;
+        this.entries = sorted;
+        this.keys = new String[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = sorted[i].key();
+        }
+        this.tree = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            tree[n + i] = i;
+        }
+        for (int node = n - 1; node > 0; node--) {
+            tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Index of the given entries; repeated keys keep the first entry's display text and point and
+     * the sum of the weights
+     */
+    static SuggestionIndex of(Collection<Entry> entries) {
+        return EMPTY.merge(entries);
+    }
+
+    /**
+     * A new index with the given weights added: an existing key keeps its display text and point
+     * and gains the weight, a new key is inserted. Of repeated keys in the updates, the first wins.
+     */
+    SuggestionIndex merge(Collection<Entry> updates) {
+        Entry[] sorted = combine(updates);
+        List<Entry> merged = new ArrayList<>(entries.length + sorted.length);
+        int i = 0;
+        int j = 0;
+        while (i < entries.length || j < sorted.length) {
+            int order = i == entries.length ? 1
+                    : j == sorted.length ? -1
+                    : entries[i].key().compareTo(sorted[j].key());
+            if (order < 0) {
+                merged.add(entries[i++]);
+            } else if (order > 0) {
+                merged.add(sorted[j++]);
+            } else {
+                merged.add(add(entries[i++], sorted[j++]));
+            }
+        }
+        return new SuggestionIndex(merged.toArray(Entry[]::new));
+    }
+
+    boolean contains(String key) {
+        return Arrays.binarySearch(keys, key) >= 0;
+    }
+
+    /**
+     * The heaviest entries whose key starts with the prefix, heaviest first, ties in key order
+     */
+    List<Entry> top(String prefix, int limit) {
+        int from = lowerBound(prefix);
+        int to = prefixEnd(prefix, from);
+        if (from == to || limit <= 0) {
+            return List.of();
+        }
+
+        List<Entry> top = new ArrayList<>(Math.min(limit, to - from));
+        // Ranges as {from, to, heaviest}, heaviest first
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> heavier(a[2], b[2]) == a[2] ? -1 : 1);
+        ranges.add(new int[]{from, to, heaviest(from, to)});
+        while (top.size() < limit && !ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            top.add(entries[best]);
+            if (range[0] < best) {
+                ranges.add(new int[]{range[0], best, heaviest(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                ranges.add(new int[]{best + 1, range[1], heaviest(best + 1, range[1])});
+            }
+        }
+        return top;
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    /**
+     * Heaviest entry in [from, to)
+     */
+    private int heaviest(int from, int to) {
+        int n = entries.length;
+        int best = -1;
+        for (int low = from + n, high = to + n; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                best = heavier(best, tree[low++]);
+            }
+            if ((high & 1) == 1) {
+                best = heavier(best, tree[--high]);
+            }
+        }
+        return best;
+    }
+
+    private int heavier(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        long weightA = entries[a].weight();
+        long weightB = entries[b].weight();
+        return weightB > weightA || (weightB == weightA && b < a) ? b : a;
+    }
+
+    /**
+     * First key not less than the prefix
+     */
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First key from {@code from} on that does not start with the prefix
+     */
+    private int prefixEnd(String prefix, int from) {
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sort updates by key, adding up the weights of repeated keys
+     */
+    private static Entry[] combine(Collection<Entry> updates) {
+        Entry[] sorted = updates.toArray(Entry[]::new);
+        Arrays.sort(sorted, Comparator.comparing(Entry::key));
+        int size = 0;
+        for (Entry entry : sorted) {
+            if (size > 0 && sorted[size - 1].key().equals(entry.key())) {
+                sorted[size - 1] = add(sorted[size - 1], entry);
+            } else {
+                sorted[size++] = entry;
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    private static Entry add(Entry existing, Entry update) {
+        return new Entry(existing.key(), existing.display(), existing.weight() + update.weight(), existing.point());
+    }
+}
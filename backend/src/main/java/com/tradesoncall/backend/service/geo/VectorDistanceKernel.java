@@ -0,0 +1,49 @@
+package com.tradesoncall.backend.service.geo;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API version of {@link DistanceKernel#equirectangularMiles}.
+ * Only loaded when jdk.incubator.vector is in the boot layer.
+ */
+final class VectorDistanceKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorDistanceKernel() {
+    }
+
+    /**
+     * @return index of the first point not computed; the caller finishes the tail
+     */
+    static int equirectangularMiles(DistanceKernel.Origin origin, double[] latitudes, double[] longitudes,
+                                    int length, double[] out) {
+        int upper = SPECIES.loopBound(length);
+        if (upper == 0) {
+            return 0;
+        }
+
+        double cosLat0 = origin.cosLatitude();
+        double halfSinLat0 = origin.sinLatitude() * 0.5;
+        double eighthCosLat0 = cosLat0 * 0.125;
+
+        for (int i = 0; i < upper; i += SPECIES.length()) {
+            DoubleVector dLat = DoubleVector.fromArray(SPECIES, latitudes, i)
+                    .sub(origin.latitude())
+                    .mul(DistanceKernel.RADIANS_PER_DEGREE);
+            DoubleVector dLng = DoubleVector.fromArray(SPECIES, longitudes, i)
+                    .sub(origin.longitude())
+                    .mul(DistanceKernel.RADIANS_PER_DEGREE);
+            DoubleVector cosMean = dLat.mul(dLat).mul(-eighthCosLat0)
+                    .add(dLat.mul(-halfSinLat0))
+                    .add(cosLat0);
+            DoubleVector x = dLng.mul(cosMean);
+            x.mul(x).add(dLat.mul(dLat))
+                    .sqrt()
+                    .mul(GeoDistance.EARTH_RADIUS_MILES)
+                    .intoArray(out, i);
+        }
+        return upper;
+    }
+}
@@ -0,0 +1,201 @@
+package com.tradesoncall.backend.service.provider;
+
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.service.geo.DistanceKernel;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory uniform grid over provider locations, one grid per service type.
+ * Each cell is an immutable set of parallel arrays replaced on write, so radius queries
+ * run lock-free over primitive coordinates and only touch the cells overlapping the
+ * query's bounding box. Writes are rare (Places ingest) and reads are hot (every search).
+ * <p>
+ * Longitude does not wrap at the antimeridian; coverage is the US and Canada.
+ */
+public class ProviderSpatialIndex {
+
+    private static final double MILES_PER_DEGREE_LATITUDE = 69.0;
+
+    private final double cellDegrees;
+    private final Map<ServiceType, TypeGrid> grids = new EnumMap<>(ServiceType.class);
+
+    public ProviderSpatialIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        for (ServiceType type : ServiceType.values()) {
+            grids.put(type, new TypeGrid());
+        }
+    }
+
+    /**
+     * Add or replace a provider; providers are identified by place ID within a service type
+     */
+    public void upsert(ServiceType type, ServiceSearchResponse provider) {
+        if (provider.getPlaceId() == null || provider.getLatitude() == null || provider.getLongitude() == null) {
+            return;
+        }
+
+        TypeGrid grid = grids.get(type);
+        String placeId = provider.getPlaceId();
+        long cellKey = cellKey(provider.getLatitude(), provider.getLongitude());
+
+        Long previousCell = grid.cellOfPlace.put(placeId, cellKey);
+        if (previousCell != null && previousCell != cellKey) {
+            grid.cells.computeIfPresent(previousCell, (k, cell) -> cell.without(placeId));
+        }
+        grid.cells.compute(cellKey, (k, cell) -> (cell == null ? Cell.EMPTY : cell).with(provider));
+    }
+
+    /**
+     * Providers within the radius, nearest first, with distanceMiles set relative to the centre
+     */
+    public List<ServiceSearchResponse> query(ServiceType type, double latitude, double longitude,
+                                             double radiusMiles, int limit) {
+        TypeGrid grid = grids.get(type);
+        double latDelta = radiusMiles / MILES_PER_DEGREE_LATITUDE;
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        double lngDelta = radiusMiles / (MILES_PER_DEGREE_LATITUDE * cosLat);
+
+        int minRow = index(latitude - latDelta);
+        int maxRow = index(latitude + latDelta);
+        int minCol = index(longitude - lngDelta);
+        int maxCol = index(longitude + lngDelta);
+
+        DistanceKernel.Origin origin = DistanceKernel.origin(latitude, longitude);
+        double[] distances = new double[64];
+
+        // Bounded max-heap on distance: only the nearest `limit` matches are kept
+        PriorityQueue<Candidate> nearest = new PriorityQueue<>(
+                Math.max(limit, 1), Comparator.comparingDouble(Candidate::distanceMiles).reversed());
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                Cell cell = grid.cells.get(key(row, col));
+                if (cell == null) {
+                    continue;
+                }
+                if (cell.providers().length > distances.length) {
+                    distances = new double[Math.max(cell.providers().length, distances.length * 2)];
+                }
+                cell.collect(origin, radiusMiles, limit, distances, nearest);
+            }
+        }
+
+        ServiceSearchResponse[] results = new ServiceSearchResponse[nearest.size()];
+        for (int i = results.length - 1; i >= 0; i--) {
+            Candidate match = nearest.poll();
+            results[i] = match.provider().toBuilder()
+                    .distanceMiles(match.distanceMiles())
+                    .build();
+        }
+        return Arrays.asList(results);
+    }
+
+    public int size(ServiceType type) {
+        return grids.get(type).cellOfPlace.size();
+    }
+
+    public int size() {
+        return grids.values().stream().mapToInt(grid -> grid.cellOfPlace.size()).sum();
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return key(index(latitude), index(longitude));
+    }
+
+    private int index(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private static final class TypeGrid {
+        private final ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Long> cellOfPlace = new ConcurrentHashMap<>();
+    }
+
+    private record Candidate(ServiceSearchResponse provider, double distanceMiles) {
+    }
+
+    /**
+     * Immutable cell contents; coordinates are kept in primitive arrays for the distance scan
+     */
+    private record Cell(double[] latitudes, double[] longitudes, ServiceSearchResponse[] providers) {
+
+        private static final Cell EMPTY = new Cell(new double[0], new double[0], new ServiceSearchResponse[0]);
+
+        /**
+         * @param distances scratch space at least as long as the cell
+         */
+        void collect(DistanceKernel.Origin origin, double radiusMiles, int limit,
+                     double[] distances, PriorityQueue<Candidate> nearest) {
+            DistanceKernel.distancesMiles(origin, radiusMiles, latitudes, longitudes, latitudes.length, distances);
+            for (int i = 0; i < latitudes.length; i++) {
+                double distance = distances[i];
+                if (distance > radiusMiles) {
+                    continue;
+                }
+                if (nearest.size() < limit) {
+                    nearest.add(new Candidate(providers[i], distance));
+                } else if (limit > 0 && distance < nearest.peek().distanceMiles()) {
+                    nearest.poll();
+                    nearest.add(new Candidate(providers[i], distance));
+                }
+            }
+        }
+
+        Cell with(ServiceSearchResponse provider) {
+            int existing = indexOf(provider.getPlaceId());
+            int n = providers.length;
+            double[] lats = Arrays.copyOf(latitudes, existing < 0 ? n + 1 : n);
+            double[] lngs = Arrays.copyOf(longitudes, lats.length);
+            ServiceSearchResponse[] ps = Arrays.copyOf(providers, lats.length);
+
+            int slot = existing < 0 ? n : existing;
+            lats[slot] = provider.getLatitude();
+            lngs[slot] = provider.getLongitude();
+            ps[slot] = provider;
+            return new Cell(lats, lngs, ps);
+        }
+
+        Cell without(String placeId) {
+            int existing = indexOf(placeId);
+            if (existing < 0) {
+                return this;
+            }
+            if (providers.length == 1) {
+                // Returning null from computeIfPresent removes the cell
+                return null;
+            }
+
+            int n = providers.length - 1;
+            double[] lats = new double[n];
+            double[] lngs = new double[n];
+            ServiceSearchResponse[] ps = new ServiceSearchResponse[n];
+            System.arraycopy(latitudes, 0, lats, 0, existing);
+            System.arraycopy(longitudes, 0, lngs, 0, existing);
+            System.arraycopy(providers, 0, ps, 0, existing);
+            System.arraycopy(latitudes, existing + 1, lats, existing, n - existing);
+            System.arraycopy(longitudes, existing + 1, lngs, existing, n - existing);
+            System.arraycopy(providers, existing + 1, ps, existing, n - existing);
+            return new Cell(lats, lngs, ps);
+        }
+
+        private int indexOf(String placeId) {
+            for (int i = 0; i < providers.length; i++) {
+                if (providers[i].getPlaceId().equals(placeId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
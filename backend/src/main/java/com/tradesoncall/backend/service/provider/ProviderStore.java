@@ -0,0 +1,370 @@
+package com.tradesoncall.backend.service.provider;
+
+import com.tradesoncall.backend.config.ProviderStoreConfig;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.model.entity.Provider;
+import com.tradesoncall.backend.model.entity.ProviderCell;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.repository.ProviderCellRepository;
+import com.tradesoncall.backend.repository.ProviderRepository;
+import com.tradesoncall.backend.service.geo.GeoDistance;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import com.tradesoncall.backend.service.geo.Geohash;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local store of providers seen in Places results.
+ * Providers are persisted to the provider table and indexed in memory with
+ * {@link ProviderSpatialIndex}, so searches in cells that were searched upstream recently
+ * can be answered without calling Google. Each cell remembers the circle its last upstream
+ * search covered; a search is served locally only if its own circle lies within that circle,
+ * the refresh is within fresh-ttl and the local results are not sparse. Providers outside
+ * the covered circle may never have been fetched, so a wider search always goes upstream.
+ * <p>
+ * Opening hours change by the minute and photo URLs embed the API key, so neither is stored;
+ * local results have no openNow or photos.
+ */
+@Component
+@Slf4j
+public class ProviderStore {
+
+    private final ProviderStoreConfig config;
+    private final ProviderRepository providerRepository;
+    private final ProviderCellRepository providerCellRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ProviderSpatialIndex index;
+    private final Map<ProviderCell.ProviderCellId, Coverage> cellCoverage = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder staleMisses = new LongAdder();
+    private final LongAdder sparseMisses = new LongAdder();
+    private final LongAdder degradedHits = new LongAdder();
+
+    public ProviderStore(ProviderStoreConfig config,
+                         ProviderRepository providerRepository,
+                         ProviderCellRepository providerCellRepository,
+                         JdbcTemplate jdbcTemplate,
+                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this.config = config;
+        this.providerRepository = providerRepository;
+        this.providerCellRepository = providerCellRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.index = new ProviderSpatialIndex(config.getIndexCellDegrees());
+        registerMeters(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Answer a radius search locally if the centre's cell was refreshed recently for a circle
+     * containing the search's, and has enough providers
+     * @return providers nearest first with distances from the centre, or empty to fall back upstream
+     */
+    public Mono<List<ServiceSearchResponse>> findLocal(ServiceType type, GeoPoint center,
+                                                       int radiusMiles, int maxResults) {
+        if (!config.isEnabled() || !loaded) {
+            return Mono.empty();
+        }
+
+        Coverage coverage = cellCoverage.get(coverageCell(type, center));
+        if (coverage == null || !isFresh(coverage) || !coverage.covers(center, radiusMiles)) {
+            staleMisses.increment();
+            return Mono.empty();
+        }
+
+        List<ServiceSearchResponse> results = index.query(
+                type, center.getLatitude(), center.getLongitude(), radiusMiles, maxResults);
+        if (results.size() < Math.min(maxResults, config.getMinResults())) {
+            sparseMisses.increment();
+            return Mono.empty();
+        }
+
+        localHits.increment();
+        return Mono.just(results);
+    }
+
+    /**
+     * Answer a radius search from whatever is indexed, however old or sparse.
+     * Used while Google is unavailable, when stale providers beat an error.
+     * @return providers nearest first, or empty if there are none
+     */
+    public Mono<List<ServiceSearchResponse>> findDegraded(ServiceType type, GeoPoint center,
+                                                          int radiusMiles, int maxResults) {
+        if (!config.isEnabled() || !loaded) {
+            return Mono.empty();
+        }
+
+        List<ServiceSearchResponse> results = index.query(
+                type, center.getLatitude(), center.getLongitude(), radiusMiles, maxResults);
+        if (results.isEmpty()) {
+            return Mono.empty();
+        }
+
+        degradedHits.increment();
+        return Mono.just(results);
+    }
+
+    /**
+     * A later page of a local search, without the freshness checks made for the first page
+     * @return up to limit + 1 providers from the offset, so callers can tell whether there is another page
+     */
+    public List<ServiceSearchResponse> page(ServiceType type, GeoPoint center,
+                                            int radiusMiles, int offset, int limit) {
+        List<ServiceSearchResponse> results = index.query(
+                type, center.getLatitude(), center.getLongitude(), radiusMiles, offset + limit + 1);
+        return offset >= results.size() ? List.of() : results.subList(offset, results.size());
+    }
+
+    /**
+     * Record results of an upstream nearest-first search of the circle around the centre: index them
+     * now, persist them in the background, and mark the circle as covered. A search cut short at
+     * maxResults only covers the circle out to its farthest result.
+     */
+    public void ingest(ServiceType type, GeoPoint center, int radiusMiles, int maxResults,
+                       List<ServiceSearchResponse> results) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Provider> providers = store(type, results, now);
+
+        int coveredMiles = radiusMiles;
+        if (results.size() >= maxResults) {
+            double farthest = providers.stream()
+                    .mapToDouble(provider -> GeoDistance.haversineMiles(center.getLatitude(), center.getLongitude(),
+                            provider.getLatitude(), provider.getLongitude()))
+                    .max()
+                    .orElse(0);
+            coveredMiles = Math.min(radiusMiles, (int) Math.floor(farthest));
+        }
+
+        ProviderCell.ProviderCellId cellId = coverageCell(type, center);
+        Coverage coverage = new Coverage(now, center.getLatitude(), center.getLongitude(), coveredMiles);
+        // A narrower search must not shrink a wider circle that is still fresh
+        boolean covered = cellCoverage.merge(cellId, coverage, this::wider) == coverage;
+        ProviderCell cell = ProviderCell.builder()
+                .serviceType(type)
+                .geohash(cellId.getGeohash())
+                .providerCount(providers.size())
+                .latitude(center.getLatitude())
+                .longitude(center.getLongitude())
+                .radiusMiles(coveredMiles)
+                .refreshedAt(now)
+                .build();
+
+        Mono.fromRunnable(() -> {
+                    providerRepository.saveAll(providers);
+                    if (covered) {
+                        providerCellRepository.save(cell);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("Could not persist {} providers for cell {}", providers.size(), cellId, e));
+    }
+
+    /**
+     * Record results of an upstream search that says nothing about what else is in the area, such as
+     * a Text Search page: index and persist them, without marking anything as covered
+     */
+    public void ingest(ServiceType type, List<ServiceSearchResponse> results) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        List<Provider> providers = store(type, results, LocalDateTime.now());
+        Mono.fromRunnable(() -> providerRepository.saveAll(providers))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("Could not persist {} providers", providers.size(), e));
+    }
+
+    /**
+     * Index the results and return them as entities to persist
+     */
+    private List<Provider> store(ServiceType type, List<ServiceSearchResponse> results, LocalDateTime now) {
+        List<Provider> providers = new ArrayList<>(results.size());
+        for (ServiceSearchResponse result : results) {
+            if (result.getPlaceId() == null || result.getLatitude() == null || result.getLongitude() == null) {
+                continue;
+            }
+            ServiceSearchResponse stored = storable(result);
+            index.upsert(type, stored);
+            providers.add(toEntity(type, stored, now));
+        }
+        return providers;
+    }
+
+    /**
+     * Load persisted providers and cell freshness into memory once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        Mono.fromRunnable(this::load)
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.error("Could not load provider store", e));
+    }
+
+    public Stats stats() {
+        return Stats.builder()
+                .providers(index.size())
+                .cells(cellCoverage.size())
+                .localHits(localHits.sum())
+                .staleMisses(staleMisses.sum())
+                .sparseMisses(sparseMisses.sum())
+                .degradedHits(degradedHits.sum())
+                .build();
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        Gauge.builder("provider.store.providers", index, ProviderSpatialIndex::size)
+                .description("Providers in the local index")
+                .register(registry);
+        registerLookups(registry, "local", localHits);
+        registerLookups(registry, "stale", staleMisses);
+        registerLookups(registry, "sparse", sparseMisses);
+        registerLookups(registry, "degraded", degradedHits);
+    }
+
+    private static void registerLookups(MeterRegistry registry, String result, LongAdder counter) {
+        FunctionCounter.builder("provider.store.lookups", counter, LongAdder::sum)
+                .description("Local lookups: answered locally, cell stale or not covering the search, sparse, or served while Google is down")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    void load() {
+        long started = System.nanoTime();
+
+        providerCellRepository.findAll().forEach(cell -> cellCoverage.merge(
+                new ProviderCell.ProviderCellId(cell.getServiceType(), cell.getGeohash()),
+                new Coverage(cell.getRefreshedAt(), cell.getLatitude(), cell.getLongitude(), cell.getRadiusMiles()),
+                (current, stored) -> current.refreshedAt().isAfter(stored.refreshedAt()) ? current : stored));
+
+        // Streamed with plain JDBC; the table can hold millions of rows
+        jdbcTemplate.query(
+                "SELECT place_id, service_type, name, address, phone_number, rating, total_reviews, price_level, "
+                        + "website, google_maps_url, types, latitude, longitude FROM provider",
+                rs -> {
+                    index.upsert(ServiceType.valueOf(rs.getString("service_type")), ServiceSearchResponse.builder()
+                            .placeId(rs.getString("place_id"))
+                            .name(rs.getString("name"))
+                            .address(rs.getString("address"))
+                            .phoneNumber(rs.getString("phone_number"))
+                            .rating(rs.getObject("rating", Double.class))
+                            .totalReviews(rs.getObject("total_reviews", Integer.class))
+                            .priceLevel(rs.getObject("price_level", Integer.class))
+                            .website(rs.getString("website"))
+                            .googleMapsUrl(rs.getString("google_maps_url"))
+                            .serviceTypes(splitTypes(rs.getString("types")))
+                            .latitude(rs.getDouble("latitude"))
+                            .longitude(rs.getDouble("longitude"))
+                            .photoUrls(List.of())
+                            .build());
+                });
+
+        loaded = true;
+        log.info("Loaded {} providers in {} cells in {} ms", index.size(), cellCoverage.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private boolean isFresh(Coverage coverage) {
+        return !coverage.refreshedAt().isBefore(LocalDateTime.now().minus(config.getFreshTtl()));
+    }
+
+    /**
+     * The current coverage while it is fresh and contains the new circle, otherwise the new one
+     */
+    private Coverage wider(Coverage current, Coverage refreshed) {
+        return isFresh(current) && current.covers(refreshed) ? current : refreshed;
+    }
+
+    private ProviderCell.ProviderCellId coverageCell(ServiceType type, GeoPoint center) {
+        return new ProviderCell.ProviderCellId(type, Geohash.encode(center, config.getCoveragePrecision()));
+    }
+
+    private static ServiceSearchResponse storable(ServiceSearchResponse result) {
+        return result.toBuilder()
+                .distanceMiles(null)
+                .openNow(null)
+                .photoUrls(List.of())
+                .build();
+    }
+
+    private static Provider toEntity(ServiceType type, ServiceSearchResponse result, LocalDateTime now) {
+        return Provider.builder()
+                .placeId(result.getPlaceId())
+                .serviceType(type)
+                .name(result.getName())
+                .address(result.getAddress())
+                .phoneNumber(result.getPhoneNumber())
+                .rating(result.getRating())
+                .totalReviews(result.getTotalReviews())
+                .priceLevel(result.getPriceLevel())
+                .website(result.getWebsite())
+                .googleMapsUrl(result.getGoogleMapsUrl())
+                .types(result.getServiceTypes() != null ? String.join(",", result.getServiceTypes()) : null)
+                .latitude(result.getLatitude())
+                .longitude(result.getLongitude())
+                .updatedAt(now)
+                .build();
+    }
+
+    private static List<String> splitTypes(String types) {
+        return types == null || types.isEmpty() ? List.of() : Arrays.asList(types.split(","));
+    }
+
+    /**
+     * Circle searched upstream for a cell, and when
+     */
+    private record Coverage(LocalDateTime refreshedAt, double latitude, double longitude, int radiusMiles) {
+
+        boolean covers(GeoPoint center, int radiusMiles) {
+            return covers(center.getLatitude(), center.getLongitude(), radiusMiles);
+        }
+
+        boolean covers(Coverage other) {
+            return covers(other.latitude, other.longitude, other.radiusMiles);
+        }
+
+        private boolean covers(double latitude, double longitude, int radiusMiles) {
+            return GeoDistance.haversineMiles(this.latitude, this.longitude, latitude, longitude) + radiusMiles
+                    <= this.radiusMiles;
+        }
+    }
+
+    @Value
+    @Builder
+    public static class Stats {
+        int providers;
+        int cells;
+        long localHits;
+        long staleMisses;
+        long sparseMisses;
+        long degradedHits;
+    }
+}
@@ -0,0 +1,186 @@
+package com.tradesoncall.backend.service.ranking;
+
+import com.tradesoncall.backend.config.RankingConfig;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.model.enums.RankingProfile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scores search candidates with a weighted model and keeps the best K.
+ * Filtering, scoring and selection happen in one pass over the candidates; scores live in a
+ * primitive array and the running top K in a bounded binary min-heap of indices, so ranking
+ * n candidates costs O(n log k) with no per-candidate allocation.
+ * <p>
+ * Features, each normalized to [0, 1]:
+ * <ul>
+ *     <li>distance: 1 at the centre, 0 at the edge of the search radius</li>
+ *     <li>rating: 1-5 stars mapped linearly; unrated scores 0</li>
+ *     <li>reviews: log-scaled review count, saturating at {@value #REVIEWS_SATURATION} reviews</li>
+ *     <li>openNow: 1 open, 0 closed, 0.5 unknown</li>
+ *     <li>priceLevel: cheaper is better; unknown scores 0.5</li>
+ * </ul>
+ * Ties keep the incoming order.
+ */
+@Component
+public class RankingEngine {
+
+    static final int REVIEWS_SATURATION = 500;
+    private static final double LOG_REVIEWS_SATURATION = Math.log1p(REVIEWS_SATURATION);
+    private static final double MAX_PRICE_LEVEL = 4;
+
+    private final RankingConfig config;
+
+    public RankingEngine(RankingConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Candidates to fetch upstream for a search that returns maxResults, leaving room to re-rank
+     */
+    public int fetchSize(int maxResults) {
+        return Math.max(maxResults, Math.min(maxResults * config.getOverFetchFactor(), config.getMaxFetch()));
+    }
+
+    /**
+     * The best candidates under the request's profile and filters, best first
+     */
+    public List<ServiceSearchResponse> rank(List<ServiceSearchResponse> candidates, RankingRequest request) {
+        int n = candidates.size();
+        int k = Math.min(request.limit(), n);
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+
+        RankingConfig.Weights weights = weights(request.profile());
+        double wDistance = weights.getDistance();
+        double wRating = weights.getRating();
+        double wReviews = weights.getReviews();
+        double wOpenNow = weights.getOpenNow();
+        double wPrice = weights.getPriceLevel();
+        double radius = request.radiusMiles();
+        Double minRating = request.minRating();
+        boolean openNowOnly = request.openNowOnly();
+
+        double[] scores = new double[n];
+        int[] heap = new int[k];
+        int size = 0;
+
+        for (int i = 0; i < n; i++) {
+            ServiceSearchResponse candidate = candidates.get(i);
+            Double rating = candidate.getRating();
+            Boolean openNow = candidate.getOpenNow();
+            if (minRating != null && (rating == null || rating < minRating)) {
+                continue;
+            }
+            if (openNowOnly && !Boolean.TRUE.equals(openNow)) {
+                continue;
+            }
+
+            double score = wDistance * distanceFeature(candidate.getDistanceMiles(), radius)
+                    + wRating * ratingFeature(rating)
+                    + wReviews * reviewsFeature(candidate.getTotalReviews())
+                    + wOpenNow * openNowFeature(openNow)
+                    + wPrice * priceFeature(candidate.getPriceLevel());
+            scores[i] = score;
+
+            if (size < k) {
+                heap[size] = i;
+                siftUp(heap, size, scores);
+                size++;
+            } else if (better(i, heap[0], scores)) {
+                heap[0] = i;
+                siftDown(heap, size, scores);
+            }
+        }
+
+        // Pop worst first into the back of the array to get best first
+        ServiceSearchResponse[] ranked = new ServiceSearchResponse[size];
+        for (int last = size - 1; last >= 0; last--) {
+            ranked[last] = candidates.get(heap[0]);
+            heap[0] = heap[last];
+            siftDown(heap, last, scores);
+        }
+        return new ArrayList<>(Arrays.asList(ranked));
+    }
+
+    private RankingConfig.Weights weights(RankingProfile profile) {
+        RankingConfig.Weights weights = config.getProfiles().get(profile != null ? profile : config.getDefaultProfile());
+        return weights != null ? weights : config.getProfiles().get(RankingProfile.DISTANCE);
+    }
+
+    static double distanceFeature(Double distanceMiles, double radiusMiles) {
+        if (distanceMiles == null) {
+            return 0;
+        }
+        if (radiusMiles <= 0) {
+            return 1 / (1 + distanceMiles);
+        }
+        return clamp(1 - distanceMiles / radiusMiles);
+    }
+
+    static double ratingFeature(Double rating) {
+        return rating == null ? 0 : clamp((rating - 1) / 4);
+    }
+
+    static double reviewsFeature(Integer totalReviews) {
+        return totalReviews == null || totalReviews <= 0 ? 0 : Math.min(Math.log1p(totalReviews) / LOG_REVIEWS_SATURATION, 1);
+    }
+
+    static double openNowFeature(Boolean openNow) {
+        return openNow == null ? 0.5 : openNow ? 1 : 0;
+    }
+
+    static double priceFeature(Integer priceLevel) {
+        return priceLevel == null ? 0.5 : clamp((MAX_PRICE_LEVEL - priceLevel) / MAX_PRICE_LEVEL);
+    }
+
+    private static double clamp(double value) {
+        return value < 0 ? 0 : Math.min(value, 1);
+    }
+
+    // Higher score wins; on a tie the earlier candidate wins
+    private static boolean better(int a, int b, double[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    // Min-heap on "better": the root is the worst candidate kept so far
+    private static void siftUp(int[] heap, int index, double[] scores) {
+        int item = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], item, scores)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = item;
+    }
+
+    private static void siftDown(int[] heap, int size, double[] scores) {
+        if (size == 0) {
+            return;
+        }
+        int item = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && better(heap[child], heap[child + 1], scores)) {
+                child++;
+            }
+            if (!better(item, heap[child], scores)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = item;
+    }
+}
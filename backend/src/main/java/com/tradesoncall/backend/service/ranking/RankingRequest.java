@@ -0,0 +1,15 @@
+package com.tradesoncall.backend.service.ranking;
+
+import com.tradesoncall.backend.model.enums.RankingProfile;
+
+/**
+ * What to rank by and which candidates to keep
+ * @param profile weights to score with; null for the configured default
+ * @param radiusMiles search radius, used to normalize distance
+ * @param minRating drop candidates rated below this (or unrated); null to keep all
+ * @param openNowOnly drop candidates not known to be open
+ * @param limit number of candidates to return
+ */
+public record RankingRequest(RankingProfile profile, double radiusMiles, Double minRating,
+                             boolean openNowOnly, int limit) {
+}
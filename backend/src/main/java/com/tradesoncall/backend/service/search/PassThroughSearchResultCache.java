@@ -0,0 +1,23 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Used when result caching is disabled: every search goes to the provider
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.search-cache", name = "enabled", havingValue = "false")
+public class PassThroughSearchResultCache implements SearchResultCache {
+
+    @Override
+    public Mono<List<ServiceSearchResponse>> get(SearchResultKey key,
+                                                 Supplier<Mono<List<ServiceSearchResponse>>> loader) {
+        return loader.get();
+    }
+}
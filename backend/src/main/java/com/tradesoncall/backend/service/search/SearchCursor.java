@@ -0,0 +1,70 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.model.dto.request.ServiceSearchRequest;
+import com.tradesoncall.backend.model.enums.RankingProfile;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Position in a streamed search, carried by the client as an opaque token (see {@link SearchCursorCodec}).
+ * Holds the original search so a page can be fetched from the cursor alone.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class SearchCursor {
+
+    public enum Source {
+        // Offset into local provider store results
+        LOCAL,
+        // Google Text Search page token
+        GOOGLE_TEXT
+    }
+
+    ServiceType serviceType;
+    String location;
+    double latitude;
+    double longitude;
+    int radiusMiles;
+    int pageSize;
+    Double minRating;
+    Boolean openNow;
+    RankingProfile rankingProfile;
+
+    Source source;
+    int offset;
+    String pageToken;
+    long issuedAtEpochSecond;
+
+    GeoPoint center() {
+        return new GeoPoint(latitude, longitude);
+    }
+
+    ServiceSearchRequest toRequest() {
+        ServiceSearchRequest request = new ServiceSearchRequest();
+        request.setServiceType(serviceType);
+        request.setLocation(location);
+        request.setRadiusMiles(radiusMiles);
+        request.setMaxResults(pageSize);
+        request.setMinRating(minRating);
+        request.setOpenNow(openNow);
+        request.setRankingProfile(rankingProfile);
+        return request;
+    }
+
+    static SearchCursor.SearchCursorBuilder forRequest(ServiceSearchRequest request, GeoPoint center) {
+        return SearchCursor.builder()
+                .serviceType(request.getServiceType())
+                .location(request.getLocation())
+                .latitude(center.getLatitude())
+                .longitude(center.getLongitude())
+                .radiusMiles(request.getRadiusMiles())
+                .pageSize(request.getMaxResults())
+                .minRating(request.getMinRating())
+                .openNow(request.getOpenNow())
+                .rankingProfile(request.getRankingProfile());
+    }
+}
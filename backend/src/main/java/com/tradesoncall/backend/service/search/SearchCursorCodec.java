@@ -0,0 +1,87 @@
+package com.tradesoncall.backend.service.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradesoncall.backend.config.SearchExecutionConfig;
+import com.tradesoncall.backend.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encodes {@link SearchCursor}s as opaque, tamper-proof tokens: base64url(JSON) + "." + base64url(HMAC-SHA256)
+ */
+@Component
+public class SearchCursorCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final ObjectMapper objectMapper;
+    private final SearchExecutionConfig config;
+    private final SecretKeySpec key;
+
+    public SearchCursorCodec(ObjectMapper objectMapper, SearchExecutionConfig config) {
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.key = new SecretKeySpec(config.getCursorSecret().getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public String encode(SearchCursor cursor) {
+        try {
+            SearchCursor stamped = cursor.toBuilder()
+                    .issuedAtEpochSecond(Instant.now().getEpochSecond())
+                    .build();
+            String payload = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(stamped));
+            return payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode search cursor", e);
+        }
+    }
+
+    /**
+     * @throws BadRequestException if the token is malformed, was not issued by us or has expired
+     */
+    public SearchCursor decode(String token) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot < 0) {
+            throw new BadRequestException("Invalid cursor");
+        }
+
+        String payload = token.substring(0, dot);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                throw new BadRequestException("Invalid cursor");
+            }
+
+            SearchCursor cursor = objectMapper.readValue(Base64.getUrlDecoder().decode(payload), SearchCursor.class);
+            Instant expiresAt = Instant.ofEpochSecond(cursor.getIssuedAtEpochSecond()).plus(config.getCursorTtl());
+            if (Instant.now().isAfter(expiresAt)) {
+                throw new BadRequestException("Cursor has expired, please search again");
+            }
+            return cursor;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return Arrays.copyOf(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)), SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC unavailable", e);
+        }
+    }
+}
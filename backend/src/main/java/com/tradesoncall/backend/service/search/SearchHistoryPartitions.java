@@ -0,0 +1,243 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.config.SearchHistoryPartitionConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of search_history on PostgreSQL.
+ * <p>
+ * At startup and every check interval, creates the partitions for the current month and the
+ * configured months ahead, and drops partitions that only hold searches older than the retention
+ * period. Dropping a partition removes a month of history at once, with no row deletes to vacuum;
+ * it is detached concurrently first, so inserts into the current month never wait for it.
+ * <p>
+ * One instance does the work at a time, under an advisory lock. Does nothing on other databases,
+ * or while search_history is not partitioned yet (see search-history-partitioning.sql).
+ */
+@Component
+@Slf4j
+public class SearchHistoryPartitions implements SmartLifecycle {
+
+    private static final String TABLE = "search_history";
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    // Arbitrary application-wide key of the maintenance advisory lock
+    private static final long LOCK_KEY = 0x5348_5041_5254L;
+
+    private static final String PARTITIONED_SQL = """
+            SELECT c.relkind = 'p' FROM pg_class c
+            WHERE c.oid = to_regclass('search_history')
+            """;
+    private static final String PARTITIONS_SQL = """
+            SELECT child.relname, i.inhdetachpending
+            FROM pg_inherits i
+            JOIN pg_class child ON child.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass('search_history')
+            """;
+
+    private final SearchHistoryPartitionConfig config;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger partitions = new AtomicInteger();
+
+    private volatile boolean running;
+    private volatile Thread maintenanceThread;
+
+    public SearchHistoryPartitions(SearchHistoryPartitionConfig config,
+                                   JdbcTemplate jdbcTemplate,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+
+        Gauge.builder("search.history.partitions", partitions, AtomicInteger::get)
+                .description("Monthly search history partitions")
+                .register(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Oldest search time still within the retention period. History queries bound searched_at
+     * by it, so they never read partitions waiting to be dropped.
+     */
+    public LocalDateTime oldestRetained() {
+        if (config.getRetentionMonths() <= 0) {
+            return LocalDateTime.of(1970, 1, 1, 0, 0);
+        }
+        return YearMonth.now().minusMonths(config.getRetentionMonths()).atDay(1).atStartOfDay();
+    }
+
+    @Override
+    public void start() {
+        if (!config.isEnabled() || !isPostgres()) {
+            return;
+        }
+
+        // The partitions of the current month must exist before the first search is written
+        maintain();
+        running = true;
+        maintenanceThread = Thread.ofPlatform()
+                .name("search-history-partitions")
+                .daemon(true)
+                .start(this::runMaintenance);
+    }
+
+    @Override
+    public void stop() {
+        Thread maintenance = maintenanceThread;
+        running = false;
+        if (maintenance != null) {
+            LockSupport.unpark(maintenance);
+            maintenanceThread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Start before the search history writer and the rollups
+        return SmartLifecycle.DEFAULT_PHASE - 16384;
+    }
+
+    private void runMaintenance() {
+        long intervalNanos = config.getCheckInterval().toNanos();
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            if (running) {
+                maintain();
+            }
+        }
+    }
+
+    /**
+     * Create missing partitions and drop expired ones; never throws
+     */
+    void maintain() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                // DETACH PARTITION CONCURRENTLY cannot run inside a transaction
+                if (!connection.getAutoCommit()) {
+                    connection.setAutoCommit(true);
+                }
+                try (Statement statement = connection.createStatement()) {
+                    if (!isPartitioned(statement)) {
+                        log.warn("{} is not partitioned; run search-history-partitioning.sql to partition it", TABLE);
+                        return null;
+                    }
+                    if (!tryLock(statement)) {
+                        return null;
+                    }
+                    try {
+                        createPartitions(statement);
+                        dropExpiredPartitions(statement);
+                    } finally {
+                        statement.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Could not maintain {} partitions", TABLE, e);
+        }
+    }
+
+    private void createPartitions(Statement statement) throws SQLException {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= config.getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            statement.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')"
+                    .formatted(partitionName(month), TABLE, month.atDay(1), month.plusMonths(1).atDay(1)));
+        }
+    }
+
+    private void dropExpiredPartitions(Statement statement) throws SQLException {
+        List<String> expired = new ArrayList<>();
+        List<String> pendingDetach = new ArrayList<>();
+        int count = 0;
+        try (ResultSet rows = statement.executeQuery(PARTITIONS_SQL)) {
+            LocalDate oldestRetained = oldestRetained().toLocalDate();
+            while (rows.next()) {
+                count++;
+                Matcher name = PARTITION_NAME.matcher(rows.getString(1));
+                if (!name.matches() || config.getRetentionMonths() <= 0) {
+                    continue;
+                }
+                // A partition ends where the next month starts
+                LocalDate end = YearMonth.parse(name.group(1), PARTITION_MONTH).plusMonths(1).atDay(1);
+                if (!end.isAfter(oldestRetained)) {
+                    (rows.getBoolean(2) ? pendingDetach : expired).add(name.group());
+                }
+            }
+        }
+
+        // A concurrent detach interrupted earlier has to be finalized instead
+        for (String partition : pendingDetach) {
+            statement.execute("ALTER TABLE %s DETACH PARTITION %s FINALIZE".formatted(TABLE, partition));
+        }
+        for (String partition : expired) {
+            statement.execute("ALTER TABLE %s DETACH PARTITION %s CONCURRENTLY".formatted(TABLE, partition));
+        }
+        for (String partition : pendingDetach) {
+            dropPartition(statement, partition);
+        }
+        for (String partition : expired) {
+            dropPartition(statement, partition);
+        }
+        partitions.set(count - expired.size() - pendingDetach.size());
+    }
+
+    private static void dropPartition(Statement statement, String partition) throws SQLException {
+        statement.execute("DROP TABLE IF EXISTS " + partition);
+        log.info("Dropped expired search history partition {}", partition);
+    }
+
+    private static boolean isPartitioned(Statement statement) throws SQLException {
+        try (ResultSet rows = statement.executeQuery(PARTITIONED_SQL)) {
+            return rows.next() && rows.getBoolean(1);
+        }
+    }
+
+    private static boolean tryLock(Statement statement) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")")) {
+            return rows.next() && rows.getBoolean(1);
+        }
+    }
+
+    private boolean isPostgres() {
+        try {
+            return "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+        } catch (Exception e) {
+            log.warn("Could not determine the database; {} partitions are not maintained", TABLE, e);
+            return false;
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return TABLE + "_p" + month.format(PARTITION_MONTH);
+    }
+}
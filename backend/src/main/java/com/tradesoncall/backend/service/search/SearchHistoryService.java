@@ -0,0 +1,96 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.exception.BadRequestException;
+import com.tradesoncall.backend.model.dto.response.SearchHistoryPageResponse;
+import com.tradesoncall.backend.model.dto.response.SearchHistoryResponse;
+import com.tradesoncall.backend.repository.SearchHistoryRepository;
+import com.tradesoncall.backend.service.user.UserQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A user's search history, a page at a time.
+ * <p>
+ * Pages are keyset paginated on (searched_at, search_id): the cursor names the last search of the
+ * previous page and the next page starts right after it, so every page costs the same however far
+ * back it is, and searches recorded meanwhile do not shift the pages. The cursor only selects
+ * among the caller's own searches, so it is encoded but not signed. Searches older than the
+ * history retention are left out even before their partition is dropped.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchHistoryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final SearchHistoryRepository searchHistoryRepository;
+    private final UserQueryService userQueryService;
+    private final SearchHistoryPartitions searchHistoryPartitions;
+
+    /**
+     * @param cursor nextCursor of the previous page, or null for the most recent searches
+     * @param limit page size, or null for the default
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public SearchHistoryPageResponse getHistory(String phone, String cursor, Integer limit) {
+        UUID userId = userQueryService.getUserByPhone(phone).getUserId();
+        int pageSize = limit != null ? Math.clamp(limit, 1, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+
+        LocalDateTime notBefore = searchHistoryPartitions.oldestRetained();
+
+        // One more than the page tells whether there is a next page
+        List<SearchHistoryResponse> searches;
+        if (cursor == null || cursor.isEmpty()) {
+            searches = searchHistoryRepository.findHistoryPage(userId, notBefore, pageSize + 1);
+        } else {
+            Position after = decode(cursor);
+            searches = searchHistoryRepository.findHistoryPageAfter(
+                    userId, notBefore, after.searchedAt(), after.searchId(), pageSize + 1);
+        }
+
+        if (searches.size() <= pageSize) {
+            return SearchHistoryPageResponse.builder()
+                    .searches(searches)
+                    .build();
+        }
+        List<SearchHistoryResponse> page = searches.subList(0, pageSize);
+        SearchHistoryResponse last = page.get(pageSize - 1);
+        return SearchHistoryPageResponse.builder()
+                .searches(page)
+                .nextCursor(encode(new Position(last.getSearchedAt(), last.getSearchId())))
+                .build();
+    }
+
+    static String encode(Position position) {
+        String value = position.searchedAt() + "|" + position.searchId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new Position(LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Last search of a page
+     */
+    record Position(LocalDateTime searchedAt, UUID searchId) {
+    }
+}
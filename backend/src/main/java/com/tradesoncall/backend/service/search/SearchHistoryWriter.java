@@ -0,0 +1,341 @@
+package com.tradesoncall.backend.service.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradesoncall.backend.config.SearchHistoryWriterConfig;
+import com.tradesoncall.backend.model.entity.SearchHistory;
+import com.tradesoncall.backend.model.enums.QueueOverflowPolicy;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.service.geo.LocationNormalizer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind persistence for search history.
+ * Searches are queued on a bounded lock-free queue and a single background writer
+ * inserts them in JDBC batches, when a batch fills up or the flush interval elapses.
+ * Repeats of the same search by the same user within the collapse window are recorded once.
+ * Every recorded search is also counted in {@link SearchRollups}, whether or not its row is written.
+ * Whatever is still queued is flushed on shutdown.
+ */
+@Component
+@Slf4j
+public class SearchHistoryWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO search_history
+                (search_id, user_id, service_type, location, latitude, longitude, results_count, searched_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final SearchHistoryWriterConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchRollups searchRollups;
+
+    private final Queue<SearchHistory> queue = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() is O(n), so the bound is tracked separately
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Cache<CollapseKey, Boolean> recentSearches;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Timer batchWrites;
+
+    public SearchHistoryWriter(SearchHistoryWriterConfig config,
+                               JdbcTemplate jdbcTemplate,
+                               SearchRollups searchRollups,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchRollups = searchRollups;
+        this.recentSearches = Caffeine.newBuilder()
+                .maximumSize(Math.max(config.getQueueCapacity(), 10_000))
+                .expireAfterWrite(config.getCollapseWindow())
+                .build();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.batchWrites = Timer.builder("search.history.batch")
+                .description("Search history batch inserts")
+                .register(registry);
+        registerMeters(registry);
+    }
+
+    /**
+     * Record a search. Never throws and never fails the search; with the DROP policy it never blocks.
+     */
+    public void submit(SearchHistory history) {
+        submitted.increment();
+        if (isRepeat(history)) {
+            collapsed.increment();
+            return;
+        }
+
+        if (history.getSearchId() == null) {
+            history.setSearchId(UuidV7.generate());
+        }
+        if (history.getSearchedAt() == null) {
+            history.setSearchedAt(LocalDateTime.now());
+        }
+        searchRollups.record(history);
+
+        if (!config.isWriteBehind() || !running) {
+            writeNow(history);
+            return;
+        }
+
+        if (!reserve()) {
+            dropped.increment();
+            log.warn("Search history queue full, dropping search by user {}", history.getUserId());
+            return;
+        }
+
+        queue.offer(history);
+        if (!running) {
+            // The writer may have made its final drain before the offer; nobody else will
+            drainOutsideEventLoop();
+            return;
+        }
+        // Wake the writer once per batch rather than on every search
+        if (queued.get() == config.getBatchSize()) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Snapshot of writer counters
+     */
+    public Stats stats() {
+        return Stats.builder()
+                .queued(queued.get())
+                .submitted(submitted.sum())
+                .collapsed(collapsed.sum())
+                .dropped(dropped.sum())
+                .written(written.sum())
+                .failed(failed.sum())
+                .build();
+    }
+
+    @Override
+    public void start() {
+        if (!config.isWriteBehind()) {
+            return;
+        }
+
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("search-history-writer")
+                .daemon(true)
+                .start(this::runWriter);
+    }
+
+    @Override
+    public void stop() {
+        Thread writer = writerThread;
+        running = false;
+        if (writer == null) {
+            return;
+        }
+
+        LockSupport.unpark(writer);
+        try {
+            if (!writer.join(config.getShutdownTimeout())) {
+                log.warn("Search history writer did not finish within {}, {} searches not saved",
+                        config.getShutdownTimeout(), queued.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the web server, so searches still in progress during shutdown are flushed
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private boolean isRepeat(SearchHistory history) {
+        if (config.getCollapseWindow().isZero()) {
+            return false;
+        }
+
+        CollapseKey key = new CollapseKey(history.getUserId(), history.getServiceType(),
+                LocationNormalizer.normalize(history.getLocation()));
+        return recentSearches.asMap().putIfAbsent(key, Boolean.TRUE) != null;
+    }
+
+    /**
+     * Claim a queue slot, waiting for one under the BLOCK policy
+     */
+    private boolean reserve() {
+        if (tryReserve()) {
+            return true;
+        }
+        // Event loop threads must never park
+        if (config.getOverflowPolicy() != QueueOverflowPolicy.BLOCK || Schedulers.isInNonBlockingThread()) {
+            return false;
+        }
+
+        long deadline = System.nanoTime() + config.getBlockTimeout().toNanos();
+        LockSupport.unpark(writerThread);
+        // Once stopped, the writer no longer makes room
+        while (running && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            if (tryReserve()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = queued.get();
+            if (current >= config.getQueueCapacity()) {
+                return false;
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void runWriter() {
+        long intervalNanos = config.getFlushInterval().toNanos();
+        long nextFlush = System.nanoTime() + intervalNanos;
+
+        while (true) {
+            boolean stopping = !running;
+            long now = System.nanoTime();
+            if (stopping || queued.get() >= config.getBatchSize() || now - nextFlush >= 0) {
+                drain();
+                nextFlush = System.nanoTime() + intervalNanos;
+                if (stopping) {
+                    return;
+                }
+            } else {
+                LockSupport.parkNanos(this, nextFlush - now);
+            }
+        }
+    }
+
+    private void drain() {
+        List<SearchHistory> batch = new ArrayList<>(config.getBatchSize());
+        SearchHistory history;
+        while ((history = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(history);
+            if (batch.size() == config.getBatchSize()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void drainOutsideEventLoop() {
+        if (Schedulers.isInNonBlockingThread()) {
+            Schedulers.boundedElastic().schedule(this::drain);
+        } else {
+            drain();
+        }
+    }
+
+    private void writeNow(SearchHistory history) {
+        // Event loop threads must never wait on the database
+        if (Schedulers.isInNonBlockingThread()) {
+            Schedulers.boundedElastic().schedule(() -> writeBatch(List.of(history)));
+        } else {
+            writeBatch(List.of(history));
+        }
+    }
+
+    private void writeBatch(List<SearchHistory> batch) {
+        long started = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, row) -> {
+                ps.setObject(1, row.getSearchId());
+                ps.setObject(2, row.getUserId());
+                ps.setString(3, row.getServiceType().name());
+                ps.setString(4, row.getLocation());
+                ps.setBigDecimal(5, row.getLatitude());
+                ps.setBigDecimal(6, row.getLongitude());
+                ps.setInt(7, row.getResultsCount() != null ? row.getResultsCount() : 0);
+                ps.setTimestamp(8, Timestamp.valueOf(row.getSearchedAt()));
+            });
+            written.add(batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.error("Could not write batch of {} search history rows", batch.size(), e);
+        } finally {
+            batchWrites.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        Gauge.builder("search.history.queued", queued, AtomicInteger::get)
+                .description("Searches waiting to be written")
+                .register(registry);
+        Gauge.builder("search.history.queue.capacity", config, SearchHistoryWriterConfig::getQueueCapacity)
+                .register(registry);
+        registerRows(registry, "written", written);
+        registerRows(registry, "collapsed", collapsed);
+        registerRows(registry, "dropped", dropped);
+        registerRows(registry, "failed", failed);
+    }
+
+    private static void registerRows(MeterRegistry registry, String outcome, LongAdder counter) {
+        FunctionCounter.builder("search.history.rows", counter, LongAdder::sum)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private record CollapseKey(UUID userId, ServiceType serviceType, String location) {
+    }
+
+    @Value
+    @Builder
+    public static class Stats {
+        int queued;
+        long submitted;
+        long collapsed;
+        long dropped;
+        long written;
+        long failed;
+    }
+}
@@ -0,0 +1,69 @@
+package com.tradesoncall.backend.service.search;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Timings for the stages of a search, recorded as search.stage observations tagged with the stage.
+ * With metrics each stage becomes a timer tagged with its error (none on success); with tracing,
+ * a span.
+ * <p>
+ * Reactive stages are observed from subscription until they complete, fail or are cancelled, and
+ * are the parent of observations started within them.
+ */
+@Component
+public class SearchObservations {
+
+    public static final String NAME = "search.stage";
+
+    public enum Stage {
+        USER_LOOKUP,
+        GEOCODE,
+        PROVIDERS,
+        RANKING,
+        HISTORY;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private final ObservationRegistry registry;
+
+    public SearchObservations(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.registry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+    }
+
+    public <T> T observe(Stage stage, Supplier<T> work) {
+        return observation(stage).observe(work);
+    }
+
+    public void observe(Stage stage, Runnable work) {
+        observation(stage).observe(work);
+    }
+
+    public <T> Mono<T> observe(Stage stage, Mono<T> source) {
+        if (registry.isNoop()) {
+            return source;
+        }
+        return Mono.deferContextual(context -> {
+            Observation observation = observation(stage)
+                    .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                    .start();
+            return source
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    private Observation observation(Stage stage) {
+        return Observation.createNotStarted(NAME, registry)
+                .contextualName("search " + stage.tag)
+                .lowCardinalityKeyValue("stage", stage.tag);
+    }
+}
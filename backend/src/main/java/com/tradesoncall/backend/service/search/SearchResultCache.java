@@ -0,0 +1,22 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache of raw provider results, stored before the minRating/openNow filters are applied.
+ * Implementations must never hand out lists that callers are expected to mutate.
+ */
+public interface SearchResultCache {
+
+    /**
+     * Get the cached results for a key, calling the loader when they are missing or too old
+     * @param key search key
+     * @param loader upstream lookup
+     * @return provider results; distances are relative to the centre they were fetched for
+     */
+    Mono<List<ServiceSearchResponse>> get(SearchResultKey key, Supplier<Mono<List<ServiceSearchResponse>>> loader);
+}
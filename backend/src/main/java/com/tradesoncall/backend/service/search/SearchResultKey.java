@@ -0,0 +1,16 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.model.enums.ServiceType;
+import lombok.Value;
+
+/**
+ * Cache key for provider results: searches of the same type, from the same geohash cell,
+ * in the same radius bucket and with the same result limit share an entry
+ */
+@Value
+public class SearchResultKey {
+    ServiceType serviceType;
+    String geohash;
+    int radiusBucketMiles;
+    int maxResults;
+}
@@ -0,0 +1,321 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.config.SearchRollupConfig;
+import com.tradesoncall.backend.model.dto.response.PopularServiceResponse;
+import com.tradesoncall.backend.model.entity.SearchHistory;
+import com.tradesoncall.backend.model.enums.RollupGranularity;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.repository.SearchRollupRepository;
+import com.tradesoncall.backend.service.geo.Geohash;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hourly and daily search counts per service type and region, kept in the search_rollup table so
+ * popular services are read from a few rollup rows instead of grouping search history.
+ * <p>
+ * Searches are counted in memory, one {@link LongAdder} per hour, service type and region (plus
+ * the all-regions row "*"). A background thread adds the counts to the hourly and daily rows with
+ * MERGE every flush interval, and once an hour deletes rows past their retention. Counts are
+ * flushed on shutdown; counts whose flush fails are kept for the next one.
+ */
+@Component
+@Slf4j
+public class SearchRollups implements SmartLifecycle {
+
+    public static final String ALL_REGIONS = "*";
+
+    // Adds to the row written by earlier flushes. On PostgreSQL MERGE is no upsert: two instances
+    // inserting the same new row would have one fail on the primary key, so ON CONFLICT is used there
+    private static final String UPSERT_SQL = """
+            INSERT INTO search_rollup (granularity, region, bucket_start, service_type, searches)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (granularity, region, bucket_start, service_type)
+            DO UPDATE SET searches = search_rollup.searches + EXCLUDED.searches
+            """;
+    // Standard MERGE for other databases (H2 in tests)
+    private static final String MERGE_SQL = """
+            MERGE INTO search_rollup AS r
+            USING (VALUES (CAST(? AS VARCHAR(8)), CAST(? AS VARCHAR(12)), CAST(? AS TIMESTAMP),
+                           CAST(? AS VARCHAR(100)), CAST(? AS BIGINT)))
+                AS s (granularity, region, bucket_start, service_type, searches)
+            ON r.granularity = s.granularity AND r.region = s.region
+                AND r.bucket_start = s.bucket_start AND r.service_type = s.service_type
+            WHEN MATCHED THEN UPDATE SET searches = r.searches + s.searches
+            WHEN NOT MATCHED THEN INSERT (granularity, region, bucket_start, service_type, searches)
+                VALUES (s.granularity, s.region, s.bucket_start, s.service_type, s.searches)
+            """;
+    private static final String DELETE_SQL = """
+            DELETE FROM search_rollup WHERE granularity = ? AND bucket_start < ?
+            """;
+
+    private final SearchRollupConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchRollupRepository searchRollupRepository;
+    private final Clock clock;
+
+    private final Map<Key, LongAdder> counters = new ConcurrentHashMap<>();
+
+    // Resolved on the first flush, once the database is known
+    private volatile String upsertSql;
+
+    private volatile boolean running;
+    private volatile Thread flushThread;
+    private LocalDateTime lastPurge;
+
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder failedRows = new LongAdder();
+    private final Timer flushes;
+
+    @Autowired
+    public SearchRollups(SearchRollupConfig config,
+                         JdbcTemplate jdbcTemplate,
+                         SearchRollupRepository searchRollupRepository,
+                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this(config, jdbcTemplate, searchRollupRepository, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    SearchRollups(SearchRollupConfig config,
+                  JdbcTemplate jdbcTemplate,
+                  SearchRollupRepository searchRollupRepository,
+                  ObjectProvider<MeterRegistry> meterRegistry,
+                  Clock clock) {
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchRollupRepository = searchRollupRepository;
+        this.clock = clock;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.flushes = Timer.builder("search.rollup.flush")
+                .description("Search rollup flushes")
+                .register(registry);
+        registerMeters(registry);
+    }
+
+    /**
+     * Count a search. Never touches the database.
+     */
+    public void record(SearchHistory history) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime hour = RollupGranularity.HOUR.bucketStart(
+                history.getSearchedAt() != null ? history.getSearchedAt() : LocalDateTime.now(clock));
+        increment(new Key(hour, history.getServiceType(), ALL_REGIONS));
+        if (history.getLatitude() != null && history.getLongitude() != null) {
+            increment(new Key(hour, history.getServiceType(), region(
+                    history.getLatitude().doubleValue(), history.getLongitude().doubleValue())));
+        }
+    }
+
+    /**
+     * Most searched service types, as of the last flush
+     * @param days whole days back, today included; ignored when hours is given
+     * @param hours whole hours back, the current hour included; or null
+     * @param latitude with longitude, restricts the counts to the region around the point
+     * @param limit maximum number of service types, or null for the default
+     */
+    public List<PopularServiceResponse> popularServices(Integer days, Integer hours, Double latitude,
+                                                        Double longitude, Integer limit) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        RollupGranularity granularity;
+        LocalDateTime since;
+        if (hours != null) {
+            granularity = RollupGranularity.HOUR;
+            since = granularity.bucketStart(now).minusHours(
+                    Math.clamp(hours, 1, config.getHourlyRetention().toHours()) - 1);
+        } else {
+            granularity = RollupGranularity.DAY;
+            since = granularity.bucketStart(now).minusDays(
+                    Math.clamp(days != null ? days : config.getDefaultDays(), 1, config.getDailyRetention().toDays()) - 1);
+        }
+        String region = latitude != null && longitude != null ? region(latitude, longitude) : ALL_REGIONS;
+        int count = limit != null ? Math.clamp(limit, 1, ServiceType.values().length) : config.getDefaultLimit();
+
+        return searchRollupRepository.sumSearchesByServiceType(granularity, region, since).stream()
+                .limit(count)
+                .map(row -> {
+                    ServiceType serviceType = (ServiceType) row[0];
+                    return PopularServiceResponse.builder()
+                            .serviceType(serviceType)
+                            .displayName(serviceType.getDisplayName())
+                            .searches(((Number) row[1]).longValue())
+                            .build();
+                })
+                .toList();
+    }
+
+    @Override
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        running = true;
+        flushThread = Thread.ofPlatform()
+                .name("search-rollup-flusher")
+                .daemon(true)
+                .start(this::runFlusher);
+    }
+
+    @Override
+    public void stop() {
+        Thread flusher = flushThread;
+        running = false;
+        if (flusher == null) {
+            return;
+        }
+
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the web server and the search history writer, so the last searches are flushed
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    private void runFlusher() {
+        long intervalNanos = config.getFlushInterval().toNanos();
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            flush();
+            purgeHourly();
+        }
+        flush();
+    }
+
+    /**
+     * Add the counts since the last flush to the rollup rows
+     */
+    void flush() {
+        LocalDateTime currentHour = RollupGranularity.HOUR.bucketStart(LocalDateTime.now(clock));
+        List<Key> keys = new ArrayList<>();
+        List<Long> searches = new ArrayList<>();
+        for (Map.Entry<Key, LongAdder> counter : counters.entrySet()) {
+            // Counters of earlier hours are flushed one last time and dropped. A late search for an
+            // earlier hour starts a new counter; one racing with the final sum may be lost
+            if (counter.getKey().hour().isBefore(currentHour)) {
+                counters.remove(counter.getKey());
+            }
+            long count = counter.getValue().sumThenReset();
+            if (count > 0) {
+                keys.add(counter.getKey());
+                searches.add(count);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        List<Object[]> rows = new ArrayList<>(keys.size() * 2);
+        for (int i = 0; i < keys.size(); i++) {
+            Key key = keys.get(i);
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                rows.add(new Object[]{granularity.name(), key.region(),
+                        Timestamp.valueOf(granularity.bucketStart(key.hour())), key.serviceType().name(),
+                        searches.get(i)});
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(upsertSql(), rows);
+            flushedRows.add(rows.size());
+        } catch (Exception e) {
+            failedRows.add(rows.size());
+            log.error("Could not flush {} search rollup rows, keeping them for the next flush", rows.size(), e);
+            for (int i = 0; i < keys.size(); i++) {
+                counters.computeIfAbsent(keys.get(i), k -> new LongAdder()).add(searches.get(i));
+            }
+        } finally {
+            flushes.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            sql = "PostgreSQL".equals(database) ? UPSERT_SQL : MERGE_SQL;
+            upsertSql = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * Delete rows past their retention, at most once an hour
+     */
+    private void purgeHourly() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (lastPurge != null && lastPurge.isAfter(now.minusHours(1))) {
+            return;
+        }
+        lastPurge = now;
+        try {
+            jdbcTemplate.update(DELETE_SQL, RollupGranularity.HOUR.name(),
+                    Timestamp.valueOf(now.minus(config.getHourlyRetention())));
+            jdbcTemplate.update(DELETE_SQL, RollupGranularity.DAY.name(),
+                    Timestamp.valueOf(now.minus(config.getDailyRetention())));
+        } catch (Exception e) {
+            log.warn("Could not delete expired search rollup rows", e);
+        }
+    }
+
+    private void increment(Key key) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    private String region(double latitude, double longitude) {
+        return Geohash.encode(latitude, longitude, config.getRegionPrecision());
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        Gauge.builder("search.rollup.counters", counters, Map::size)
+                .description("Hour, service type and region counters in memory")
+                .register(registry);
+        FunctionCounter.builder("search.rollup.rows", flushedRows, LongAdder::sum)
+                .tag("outcome", "flushed")
+                .register(registry);
+        FunctionCounter.builder("search.rollup.rows", failedRows, LongAdder::sum)
+                .tag("outcome", "failed")
+                .register(registry);
+    }
+
+    private record Key(LocalDateTime hour, ServiceType serviceType, String region) {
+    }
+}
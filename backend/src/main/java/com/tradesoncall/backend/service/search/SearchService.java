@@ -1,19 +1,45 @@
 package com.tradesoncall.backend.service.search;
 
+import com.tradesoncall.backend.config.SearchCacheConfig;
+import com.tradesoncall.backend.config.SearchExecutionConfig;
+import com.tradesoncall.backend.exception.ExternalServiceException;
+import com.tradesoncall.backend.model.dto.request.MultiServiceSearchRequest;
 import com.tradesoncall.backend.model.dto.request.ServiceSearchRequest;
 import com.tradesoncall.backend.model.dto.response.SearchResultsResponse;
+import com.tradesoncall.backend.model.dto.response.SearchStreamEvent;
 import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
 import com.tradesoncall.backend.model.entity.SearchHistory;
-import com.tradesoncall.backend.repository.SearchHistoryRepository;
+import com.tradesoncall.backend.model.enums.SearchExecutionMode;
+import com.tradesoncall.backend.model.enums.ServiceType;
 import com.tradesoncall.backend.service.external.GooglePlacesService;
+import com.tradesoncall.backend.service.external.PlacesPage;
+import com.tradesoncall.backend.service.external.QuotaContext;
+import com.tradesoncall.backend.service.geo.DistanceKernel;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import com.tradesoncall.backend.service.geo.Geohash;
+import com.tradesoncall.backend.service.geo.LocationSuggester;
+import com.tradesoncall.backend.service.provider.ProviderStore;
+import com.tradesoncall.backend.service.ranking.RankingEngine;
+import com.tradesoncall.backend.service.ranking.RankingRequest;
+import com.tradesoncall.backend.service.search.SearchObservations.Stage;
+import com.tradesoncall.backend.service.user.UserQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,54 +48,307 @@ import java.util.stream.Collectors;
 public class SearchService {
 
     private final GooglePlacesService googlePlacesService;
-    private final SearchHistoryRepository searchHistoryRepository;
+    private final SearchHistoryWriter searchHistoryWriter;
+    private final SearchResultCache searchResultCache;
+    private final SearchCacheConfig searchCacheConfig;
+    private final UserQueryService userQueryService;
+    private final SearchExecutionConfig searchExecutionConfig;
+    private final ProviderStore providerStore;
+    private final SearchCursorCodec searchCursorCodec;
+    private final RankingEngine rankingEngine;
+    private final SearchObservations searchObservations;
+    private final LocationSuggester locationSuggester;
 
     private static final int METERS_PER_MILE = 1609;
 
-    @Transactional
-    public SearchResultsResponse searchServices(UUID userId, ServiceSearchRequest request) {
+    /**
+     * Search for providers on behalf of the user with the given phone number.
+     * In REACTIVE mode nothing in the pipeline blocks the calling thread: the user lookup
+     * runs on the bounded elastic scheduler and the Google calls are non-blocking.
+     * In VIRTUAL_THREADS mode the search runs on the subscribing (request) thread with the
+     * independent steps fanned out to virtual threads.
+     * Either way the history row is handed to {@link SearchHistoryWriter} and written behind.
+     */
+    public Mono<SearchResultsResponse> searchServices(String phone, ServiceSearchRequest request) {
         log.info("Searching for {} near {} for user {}",
-                request.getServiceType(), request.getLocation(), userId);
+                request.getServiceType(), request.getLocation(), phone);
 
-        // Convert miles to meters for Google API
-        int radiusMeters = request.getRadiusMiles() * METERS_PER_MILE;
+        if (searchExecutionConfig.getExecutionMode() == SearchExecutionMode.VIRTUAL_THREADS) {
+            return Mono.fromCallable(() -> searchOnVirtualThreads(phone, request));
+        }
 
-        // Build search query
-        String query = request.getServiceType().getSearchQuery();
+        // The user lookup and geocoding are independent, so run them concurrently
+        Mono<UUID> userId = Mono.fromCallable(() -> resolveUserId(phone))
+                .subscribeOn(Schedulers.boundedElastic());
+        Mono<GeoPoint> center = geocode(request.getLocation());
 
-        // Search using Google Places
-        List<ServiceSearchResponse> results = googlePlacesService.searchNearby(
-                query,
-                request.getLocation(),
-                radiusMeters,
-                request.getMaxResults()
-        );
+        return Mono.zip(userId, center)
+                .flatMap(tuple -> findProviders(request, tuple.getT2())
+                        .map(results -> {
+                            List<ServiceSearchResponse> ranked = rank(request, results);
+                            recordHistory(tuple.getT1(), request, tuple.getT2(), ranked);
+                            return buildResponse(request.getLocation(),
+                                    request.getServiceType().getDisplayName(), ranked);
+                        }))
+                .contextWrite(QuotaContext.of(phone, request.getServiceType()));
+    }
+
+    /**
+     * Search several service types around one location.
+     * The location is geocoded once, the per-type searches run in parallel (at most
+     * multi-service-concurrency at a time), and the results are merged into one list,
+     * de-duplicated by place ID and sorted by distance.
+     * Always runs on the reactive pipeline, whatever the execution mode.
+     */
+    public Mono<SearchResultsResponse> searchMultipleServices(String phone, MultiServiceSearchRequest request) {
+        log.info("Searching for {} near {} for user {}",
+                request.getServiceTypes(), request.getLocation(), phone);
+
+        Mono<UUID> userId = Mono.fromCallable(() -> resolveUserId(phone))
+                .subscribeOn(Schedulers.boundedElastic());
+        Mono<GeoPoint> center = geocode(request.getLocation());
+
+        return Mono.zip(userId, center)
+                .flatMap(tuple -> Flux.fromIterable(request.getServiceTypes())
+                        .flatMap(serviceType -> {
+                            ServiceSearchRequest typeRequest = request.forServiceType(serviceType);
+                            return findProviders(typeRequest, tuple.getT2())
+                                    .contextWrite(QuotaContext.forServiceType(serviceType))
+                                    .map(results -> {
+                                        List<ServiceSearchResponse> ranked = rank(typeRequest, results);
+                                        recordHistory(tuple.getT1(), typeRequest, tuple.getT2(), ranked);
+                                        return ranked;
+                                    });
+                        }, searchExecutionConfig.getMultiServiceConcurrency())
+                        .collectList()
+                        .map(perType -> buildResponse(request.getLocation(),
+                                serviceTypeLabel(request),
+                                merge(request, perType))))
+                .contextWrite(QuotaContext.forUser(phone));
+    }
+
+    /**
+     * Blocking orchestration: user lookup and geocoding run as sibling subtasks.
+     * A failing subtask cancels the others. The subtasks and the provider search after them share
+     * one subtask-timeout deadline.
+     */
+    private SearchResultsResponse searchOnVirtualThreads(String phone, ServiceSearchRequest request) {
+        Duration timeout = searchExecutionConfig.getSubtaskTimeout();
+        // One deadline for the whole search, not one per phase
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Function<Context, Context> quota = QuotaContext.of(phone, request.getServiceType());
+
+        UUID userId;
+        GeoPoint center;
+        try (SearchTaskScope scope = new SearchTaskScope(timeout)) {
+            Future<UUID> user = scope.fork(() -> resolveUserId(phone));
+            Future<GeoPoint> geocode = scope.fork(() -> geocode(request.getLocation())
+                    .contextWrite(quota)
+                    .block());
+            scope.join();
+            userId = SearchTaskScope.resultOf(user);
+            center = SearchTaskScope.resultOf(geocode);
+        }
+
+        Duration remaining = Duration.ofNanos(Math.max(deadline - System.nanoTime(), 0));
+        List<ServiceSearchResponse> results = rank(request, findProviders(request, center)
+                .timeout(remaining, Mono.error(() -> new ExternalServiceException("Search timed out")))
+                .contextWrite(quota)
+                .block());
+
+        recordHistory(userId, request, center, results);
+        return buildResponse(request.getLocation(), request.getServiceType().getDisplayName(), results);
+    }
+
+    /**
+     * Streamed search: one result event per provider of the first page, then an end event carrying
+     * an opaque cursor for the next page (absent on the last page). Failures are sent as an error
+     * event, since the response has already started.
+     * <p>
+     * Pages are streamed whole: a page is fetched, decoded and ranked before its first event, since
+     * ranking needs every candidate and upstream pages go through the result cache and call
+     * coalescing as whole lists. The first event is therefore no earlier than the /services
+     * response; what streaming saves is holding later pages until all are fetched.
+     */
+    public Flux<SearchStreamEvent> streamSearch(String phone, ServiceSearchRequest request) {
+        log.info("Streaming search for {} near {} for user {}",
+                request.getServiceType(), request.getLocation(), phone);
+
+        Mono<UUID> userId = Mono.fromCallable(() -> resolveUserId(phone))
+                .subscribeOn(Schedulers.boundedElastic());
+        Mono<GeoPoint> center = geocode(request.getLocation());
+
+        return Mono.zip(userId, center)
+                .flatMap(tuple -> searchObservations.observe(Stage.PROVIDERS, firstPage(request, tuple.getT2()))
+                        .doOnNext(page -> recordHistory(tuple.getT1(), request, tuple.getT2(), page.results())))
+                .flatMapMany(this::toEvents)
+                .onErrorResume(e -> Flux.just(SearchStreamEvent.error(e.getMessage())))
+                .contextWrite(QuotaContext.of(phone, request.getServiceType()));
+    }
 
-        // Filter by rating if specified
-        if (request.getMinRating() != null) {
-            results = results.stream()
-                    .filter(r -> r.getRating() != null && r.getRating() >= request.getMinRating())
-                    .collect(Collectors.toList());
+    /**
+     * Continue a streamed search from the cursor of its previous page
+     */
+    public Flux<SearchStreamEvent> streamNextPage(String phone, String cursor) {
+        return Mono.fromCallable(() -> searchCursorCodec.decode(cursor))
+                .flatMap(decoded -> nextPage(decoded)
+                        .contextWrite(QuotaContext.of(phone, decoded.toRequest().getServiceType())))
+                .flatMapMany(this::toEvents)
+                .onErrorResume(e -> Flux.just(SearchStreamEvent.error(e.getMessage())));
+    }
+
+    /**
+     * First page of a streamed search: the local store when it covers the area, otherwise Google.
+     * Only Text Search can be paged upstream; Nearby Search results are a single page.
+     */
+    private Mono<StreamPage> firstPage(ServiceSearchRequest request, GeoPoint center) {
+        int pageSize = request.getMaxResults();
+        SearchCursor.SearchCursorBuilder cursor = SearchCursor.forRequest(request, center);
+
+        Mono<StreamPage> upstream = Mono.defer(() -> {
+            String query = request.getServiceType().getSearchQuery();
+            if (googlePlacesService.supportsNearbySearch(query)) {
+                return findUpstreamProviders(request, center)
+                        .map(results -> new StreamPage(rank(request, results), null));
+            }
+            return textSearchPage(request, center, cursor, null);
+        });
+        if (Boolean.TRUE.equals(request.getOpenNow())) {
+            return upstream;
         }
 
-        // Filter by open now if specified
-        if (request.getOpenNow() != null && request.getOpenNow()) {
-            results = results.stream()
-                    .filter(r -> Boolean.TRUE.equals(r.getOpenNow()))
-                    .collect(Collectors.toList());
+        // One extra result tells us whether there is a next page
+        return providerStore.findLocal(request.getServiceType(), center, request.getRadiusMiles(), pageSize + 1)
+                .map(results -> localPage(request, results, cursor, 0))
+                .switchIfEmpty(upstream.onErrorResume(ExternalServiceException.class,
+                        e -> localFallback(request, center, pageSize + 1, e)
+                                .map(results -> localPage(request, results, cursor, 0))));
+    }
+
+    private Mono<StreamPage> nextPage(SearchCursor cursor) {
+        ServiceSearchRequest request = cursor.toRequest();
+        GeoPoint center = cursor.center();
+
+        return switch (cursor.getSource()) {
+            case LOCAL -> Mono.fromSupplier(() -> localPage(request,
+                    providerStore.page(request.getServiceType(), center, request.getRadiusMiles(),
+                            cursor.getOffset(), cursor.getPageSize()),
+                    cursor.toBuilder(), cursor.getOffset()));
+            case GOOGLE_TEXT -> textSearchPage(request, center, cursor.toBuilder(), cursor.getPageToken());
+        };
+    }
+
+    private StreamPage localPage(ServiceSearchRequest request, List<ServiceSearchResponse> results,
+                                 SearchCursor.SearchCursorBuilder cursor, int offset) {
+        int pageSize = request.getMaxResults();
+        if (results.size() <= pageSize) {
+            return new StreamPage(rank(request, results), null);
         }
 
-        // Save search history
-        if (!results.isEmpty()) {
-            ServiceSearchResponse firstResult = results.get(0);
-            saveSearchHistory(userId, request, results.size(),
-                    firstResult.getLatitude(), firstResult.getLongitude());
+        SearchCursor next = cursor.source(SearchCursor.Source.LOCAL)
+                .offset(offset + pageSize)
+                .pageToken(null)
+                .build();
+        return new StreamPage(rank(request, results.subList(0, pageSize)), next);
+    }
+
+    private Mono<StreamPage> textSearchPage(ServiceSearchRequest request, GeoPoint center,
+                                            SearchCursor.SearchCursorBuilder cursor, String pageToken) {
+        int radiusMeters = request.getRadiusMiles() * METERS_PER_MILE;
+        return googlePlacesService.searchTextPage(request.getServiceType().getSearchQuery(), center,
+                        radiusMeters, request.getMaxResults(), pageToken)
+                .map(page -> {
+                    providerStore.ingest(request.getServiceType(), page.getResults());
+                    return new StreamPage(rank(request, withinRadius(request, page)), nextTextCursor(cursor, page));
+                });
+    }
+
+    private static List<ServiceSearchResponse> withinRadius(ServiceSearchRequest request, PlacesPage page) {
+        // Text Search only biases towards the circle, so results can lie outside it
+        return page.getResults().stream()
+                .filter(r -> r.getDistanceMiles() == null || r.getDistanceMiles() <= request.getRadiusMiles())
+                .collect(Collectors.toList());
+    }
+
+    private static SearchCursor nextTextCursor(SearchCursor.SearchCursorBuilder cursor, PlacesPage page) {
+        if (page.getNextPageToken() == null || page.getNextPageToken().isEmpty()) {
+            return null;
         }
+        return cursor.source(SearchCursor.Source.GOOGLE_TEXT)
+                .offset(0)
+                .pageToken(page.getNextPageToken())
+                .build();
+    }
 
-        // Build response
+    private Flux<SearchStreamEvent> toEvents(StreamPage page) {
+        String nextCursor = page.next() != null ? searchCursorCodec.encode(page.next()) : null;
+        return Flux.fromIterable(page.results())
+                .map(SearchStreamEvent::result)
+                .concatWith(Mono.fromSupplier(() -> SearchStreamEvent.end(page.results().size(), nextCursor)));
+    }
+
+    private UUID resolveUserId(String phone) {
+        return searchObservations.observe(Stage.USER_LOOKUP, () -> userQueryService.getUserByPhone(phone).getUserId());
+    }
+
+    private Mono<GeoPoint> geocode(String location) {
+        return searchObservations.observe(Stage.GEOCODE, googlePlacesService.geocode(location));
+    }
+
+    /**
+     * Apply the minRating/openNow filters and order the results by the request's ranking profile,
+     * keeping at most maxResults
+     */
+    private List<ServiceSearchResponse> rank(ServiceSearchRequest request, List<ServiceSearchResponse> results) {
+        return searchObservations.observe(Stage.RANKING, () -> rankingEngine.rank(results, new RankingRequest(
+                request.getRankingProfile(),
+                request.getRadiusMiles(),
+                request.getMinRating(),
+                Boolean.TRUE.equals(request.getOpenNow()),
+                request.getMaxResults()
+        )));
+    }
+
+    /**
+     * Merge per-type results (already filtered): one entry per place, the nearest if distances differ,
+     * re-ranked across types
+     */
+    private List<ServiceSearchResponse> merge(MultiServiceSearchRequest request,
+                                              List<List<ServiceSearchResponse>> perType) {
+        Map<String, ServiceSearchResponse> byPlace = new LinkedHashMap<>();
+        List<ServiceSearchResponse> withoutPlaceId = new ArrayList<>();
+        for (List<ServiceSearchResponse> results : perType) {
+            for (ServiceSearchResponse result : results) {
+                if (result.getPlaceId() == null) {
+                    withoutPlaceId.add(result);
+                } else {
+                    byPlace.merge(result.getPlaceId(), result,
+                            (current, other) -> distanceOf(other) < distanceOf(current) ? other : current);
+                }
+            }
+        }
+
+        List<ServiceSearchResponse> merged = new ArrayList<>(byPlace.values());
+        merged.addAll(withoutPlaceId);
+        return rankingEngine.rank(merged, new RankingRequest(
+                request.getRankingProfile(), request.getRadiusMiles(), null, false, request.getMaxResults()));
+    }
+
+    private static double distanceOf(ServiceSearchResponse result) {
+        return result.getDistanceMiles() != null ? result.getDistanceMiles() : Double.MAX_VALUE;
+    }
+
+    private static String serviceTypeLabel(MultiServiceSearchRequest request) {
+        return request.getServiceTypes().stream()
+                .map(ServiceType::getDisplayName)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private SearchResultsResponse buildResponse(String location, String serviceType, List<ServiceSearchResponse> results) {
         return SearchResultsResponse.builder()
-                .location(request.getLocation())
-                .serviceType(request.getServiceType().getDisplayName())
+                .location(location)
+                .serviceType(serviceType)
                 .totalResults(results.size())
                 .results(results)
                 .searchCenter(results.isEmpty() ? null :
@@ -80,22 +359,158 @@ public class SearchService {
                 .build();
     }
 
-    private void saveSearchHistory(
-            UUID userId,
-            ServiceSearchRequest request,
-            int resultsCount,
-            Double latitude,
-            Double longitude
-    ) {
-        SearchHistory history = SearchHistory.builder()
+    /**
+     * Get raw provider results for the request.
+     * Served from the local provider store when it covers the area, otherwise from Google
+     * through the result cache; Google results are fed back into the store.
+     * openNow searches always go upstream since the store does not keep opening hours.
+     * If Google fails, the store answers with whatever it has (see {@link #localFallback}).
+     */
+    private Mono<List<ServiceSearchResponse>> findProviders(ServiceSearchRequest request, GeoPoint center) {
+        Mono<List<ServiceSearchResponse>> upstream = Mono.defer(() -> findUpstreamProviders(request, center));
+        if (Boolean.TRUE.equals(request.getOpenNow())) {
+            return searchObservations.observe(Stage.PROVIDERS, upstream);
+        }
+
+        int fetchSize = rankingEngine.fetchSize(request.getMaxResults());
+        return searchObservations.observe(Stage.PROVIDERS,
+                providerStore.findLocal(request.getServiceType(), center, request.getRadiusMiles(), fetchSize)
+                        .switchIfEmpty(upstream.onErrorResume(ExternalServiceException.class,
+                                e -> localFallback(request, center, fetchSize, e))));
+    }
+
+    /**
+     * Degraded mode: while Google fails (circuit open, timeouts, errors the result cache could not
+     * cover), serve the local store's providers for the area regardless of their age
+     * @return local providers, or the original error if there are none
+     */
+    private Mono<List<ServiceSearchResponse>> localFallback(ServiceSearchRequest request, GeoPoint center,
+                                                            int maxResults, ExternalServiceException error) {
+        return providerStore.findDegraded(request.getServiceType(), center, request.getRadiusMiles(), maxResults)
+                .doOnNext(results -> log.warn("Serving {} local {} results while Google is unavailable: {}",
+                        results.size(), request.getServiceType(), error.getMessage()))
+                .switchIfEmpty(Mono.error(error));
+    }
+
+    /**
+     * Nearby Search returns the nearest providers in the circle, so the store can treat the circle
+     * (or as much of it as the results reach) as covered. Text Search only biases towards it.
+     */
+    private void ingest(ServiceSearchRequest request, GeoPoint center, int radiusMiles, int fetchSize,
+                        List<ServiceSearchResponse> results) {
+        if (googlePlacesService.supportsNearbySearch(request.getServiceType().getSearchQuery())) {
+            providerStore.ingest(request.getServiceType(), center, radiusMiles,
+                    Math.min(fetchSize, GooglePlacesService.MAX_RESULT_COUNT), results);
+        } else {
+            providerStore.ingest(request.getServiceType(), results);
+        }
+    }
+
+    /**
+     * Results are fetched for the whole radius bucket and then narrowed to the requested radius.
+     * More than maxResults are fetched so ranking has candidates to choose from.
+     */
+    private Mono<List<ServiceSearchResponse>> findUpstreamProviders(ServiceSearchRequest request, GeoPoint center) {
+        int radiusBucketMiles = radiusBucket(request.getRadiusMiles());
+        int fetchSize = rankingEngine.fetchSize(request.getMaxResults());
+        SearchResultKey key = new SearchResultKey(
+                request.getServiceType(),
+                Geohash.encode(center, searchCacheConfig.getGeohashPrecision()),
+                radiusBucketMiles,
+                fetchSize
+        );
+
+        // Convert miles to meters for Google API
+        int radiusMeters = radiusBucketMiles * METERS_PER_MILE;
+
+        // Build search query
+        String query = request.getServiceType().getSearchQuery();
+
+        return searchResultCache.get(key, () ->
+                        googlePlacesService.searchNearby(query, center, radiusMeters, fetchSize)
+                                .doOnNext(results -> ingest(request, center, radiusBucketMiles, fetchSize, results)))
+                // Cached entries may have been fetched around another point in the same cell
+                .map(cached -> withinRadius(center, request.getRadiusMiles(), cached));
+    }
+
+    /**
+     * Results within the radius of the given centre, copied with their distances recomputed from it.
+     * Results without coordinates are kept as they are.
+     */
+    private List<ServiceSearchResponse> withinRadius(GeoPoint center, int radiusMiles,
+                                                     List<ServiceSearchResponse> cached) {
+        int n = cached.size();
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            ServiceSearchResponse result = cached.get(i);
+            boolean located = result.getLatitude() != null && result.getLongitude() != null;
+            latitudes[i] = located ? result.getLatitude() : center.getLatitude();
+            longitudes[i] = located ? result.getLongitude() : center.getLongitude();
+        }
+        double[] distances = new double[n];
+        DistanceKernel.distancesMiles(DistanceKernel.origin(center.getLatitude(), center.getLongitude()),
+                radiusMiles, latitudes, longitudes, n, distances);
+
+        List<ServiceSearchResponse> results = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ServiceSearchResponse result = cached.get(i);
+            if (result.getLatitude() == null || result.getLongitude() == null) {
+                results.add(result);
+            } else if (distances[i] <= radiusMiles) {
+                results.add(result.toBuilder()
+                        .distanceMiles(distances[i])
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Smallest configured radius bucket that covers the requested radius
+     */
+    private int radiusBucket(int radiusMiles) {
+        for (int bucket : searchCacheConfig.getRadiusBucketsMiles()) {
+            if (bucket >= radiusMiles) {
+                return bucket;
+            }
+        }
+        return radiusMiles;
+    }
+
+    /**
+     * Hand the search to the history writer and the location suggestions, unless it returned nothing
+     */
+    private void recordHistory(UUID userId, ServiceSearchRequest request, GeoPoint center,
+                               List<ServiceSearchResponse> results) {
+        SearchHistory history = toSearchHistory(userId, request, results);
+        if (history != null) {
+            searchObservations.observe(Stage.HISTORY, () -> {
+                searchHistoryWriter.submit(history);
+                locationSuggester.record(userId, request.getLocation(), center);
+            });
+        }
+    }
+
+    /**
+     * Build the history row for a search, or null if it returned nothing
+     */
+    private SearchHistory toSearchHistory(UUID userId, ServiceSearchRequest request, List<ServiceSearchResponse> results) {
+        if (results.isEmpty()) {
+            return null;
+        }
+
+        ServiceSearchResponse firstResult = results.get(0);
+        return SearchHistory.builder()
                 .userId(userId)
                 .serviceType(request.getServiceType())
                 .location(request.getLocation())
-                .latitude(latitude != null ? BigDecimal.valueOf(latitude) : null)
-                .longitude(longitude != null ? BigDecimal.valueOf(longitude) : null)
-                .resultsCount(resultsCount)
+                .latitude(firstResult.getLatitude() != null ? BigDecimal.valueOf(firstResult.getLatitude()) : null)
+                .longitude(firstResult.getLongitude() != null ? BigDecimal.valueOf(firstResult.getLongitude()) : null)
+                .resultsCount(results.size())
                 .build();
+    }
 
-        searchHistoryRepository.save(history);
+    private record StreamPage(List<ServiceSearchResponse> results, SearchCursor next) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.exception.ExternalServiceException;
+import io.micrometer.context.ContextSnapshotFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Structured fan-out for one search request, with shutdown-on-failure semantics:
+ * subtasks run on their own virtual threads, the first failure cancels the siblings,
+ * and no subtask outlives the try-with-resources block that opened the scope.
+ * Subtasks see the forking thread's context (current trace, logging MDC).
+ * <p>
+ * Mirrors {@code StructuredTaskScope.ShutdownOnFailure}, which is still a preview API on Java 21.
+ */
+final class SearchTaskScope implements AutoCloseable {
+
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("search-subtask-", 0).factory());
+    private final List<Future<?>> subtasks = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final long deadlineNanos;
+
+    SearchTaskScope(Duration timeout) {
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Start a subtask in this scope
+     */
+    <T> Future<T> fork(Callable<T> task) {
+        Callable<T> withContext = CONTEXT_SNAPSHOTS.captureAll().wrap(task);
+        Future<T> future = executor.submit(() -> {
+            try {
+                return withContext.call();
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+                throw e;
+            }
+        });
+        subtasks.add(future);
+        if (failure.get() != null) {
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * Wait for every subtask, rethrowing the first failure
+     */
+    void join() {
+        try {
+            for (Future<?> subtask : subtasks) {
+                long remaining = deadlineNanos - System.nanoTime();
+                subtask.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll();
+            throw new IllegalStateException("Search was interrupted", e);
+        } catch (TimeoutException e) {
+            cancelAll();
+            throw new ExternalServiceException("Search timed out");
+        } catch (ExecutionException | CancellationException e) {
+            // Fall through and report the root failure rather than a sibling's cancellation
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * Result of a subtask after a successful {@link #join()}
+     */
+    static <T> T resultOf(Future<T> subtask) {
+        return subtask.resultNow();
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        // Waits for cancelled subtasks to finish, so nothing escapes the scope
+        executor.close();
+    }
+
+    private void cancelAll() {
+        for (Future<?> subtask : subtasks) {
+            subtask.cancel(true);
+        }
+    }
+
+    private void throwIfFailed() {
+        Throwable e = failure.get();
+        if (e == null) {
+            return;
+        }
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        throw new IllegalStateException(e);
+    }
+}
@@ -0,0 +1,134 @@
+package com.tradesoncall.backend.service.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradesoncall.backend.config.SearchCacheConfig;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Result cache with RFC 5861 style freshness:
+ * <ul>
+ *     <li>younger than fresh-ttl: served as is</li>
+ *     <li>within stale-while-revalidate after that: served, and refreshed in the background</li>
+ *     <li>within stale-if-error after that: reloaded, but served if the reload fails</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.search-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class StaleWhileRevalidateSearchResultCache implements SearchResultCache {
+
+    private final long freshNanos;
+    private final long staleWhileRevalidateNanos;
+    private final LongSupplier nanoTime;
+    private final Cache<SearchResultKey, CachedResults> cache;
+    private final Set<SearchResultKey> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder staleIfErrorHits = new LongAdder();
+
+    @Autowired
+    public StaleWhileRevalidateSearchResultCache(SearchCacheConfig config, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(config, meterRegistry, System::nanoTime);
+    }
+
+    StaleWhileRevalidateSearchResultCache(SearchCacheConfig config, ObjectProvider<MeterRegistry> meterRegistry,
+                                          LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.freshNanos = config.getFreshTtl().toNanos();
+        this.staleWhileRevalidateNanos = freshNanos + config.getStaleWhileRevalidate().toNanos();
+        long retainNanos = freshNanos
+                + Math.max(config.getStaleWhileRevalidate().toNanos(), config.getStaleIfError().toNanos());
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(retainNanos, TimeUnit.NANOSECONDS)
+                .ticker(nanoTime::getAsLong)
+                .recordStats()
+                .build();
+
+        registerMeters(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Override
+    public Mono<List<ServiceSearchResponse>> get(SearchResultKey key,
+                                                 Supplier<Mono<List<ServiceSearchResponse>>> loader) {
+        return Mono.defer(() -> {
+            CachedResults cached = cache.getIfPresent(key);
+            if (cached == null) {
+                return load(key, loader);
+            }
+
+            long age = nanoTime.getAsLong() - cached.fetchedAtNanos();
+            if (age < freshNanos) {
+                return Mono.just(cached.results());
+            }
+
+            if (age < staleWhileRevalidateNanos) {
+                staleHits.increment();
+                refreshInBackground(key, loader);
+                return Mono.just(cached.results());
+            }
+
+            return load(key, loader)
+                    .onErrorResume(e -> {
+                        staleIfErrorHits.increment();
+                        log.warn("Serving stale results for {} after provider failure: {}", key, e.getMessage());
+                        return Mono.just(cached.results());
+                    });
+        });
+    }
+
+    private Mono<List<ServiceSearchResponse>> load(SearchResultKey key,
+                                                   Supplier<Mono<List<ServiceSearchResponse>>> loader) {
+        return loader.get()
+                .map(List::copyOf)
+                .doOnNext(results -> cache.put(key, new CachedResults(results, nanoTime.getAsLong())));
+    }
+
+    private void refreshInBackground(SearchResultKey key, Supplier<Mono<List<ServiceSearchResponse>>> loader) {
+        // Only one refresh per key at a time
+        if (!refreshing.add(key)) {
+            return;
+        }
+
+        load(key, loader)
+                .doFinally(signal -> refreshing.remove(key))
+                .subscribe(null, e ->
+                        log.warn("Background refresh failed for {}, keeping stale results: {}", key, e.getMessage()));
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        // Hits here include stale entries; search.cache.stale tells them apart
+        CaffeineCacheMetrics.monitor(registry, cache, "search-results");
+        FunctionCounter.builder("search.cache.stale", staleHits, LongAdder::sum)
+                .description("Stale results served")
+                .tag("reason", "revalidate")
+                .register(registry);
+        FunctionCounter.builder("search.cache.stale", staleIfErrorHits, LongAdder::sum)
+                .description("Stale results served")
+                .tag("reason", "error")
+                .register(registry);
+    }
+
+    private record CachedResults(List<ServiceSearchResponse> results, long fetchedAtNanos) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.tradesoncall.backend.service.search;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time ordered UUIDs (RFC 9562 version 7).
+ * New keys land at the right edge of the primary key index instead of random pages,
+ * which keeps batch inserts into search_history cheap.
+ */
+final class UuidV7 {
+
+    private UuidV7() {
+    }
+
+    static UUID generate() {
+        return generate(System.currentTimeMillis());
+    }
+
+    static UUID generate(long epochMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // 48 bit timestamp | version 7 | 12 random bits
+        long msb = (epochMillis << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        // variant 10 | 62 random bits
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
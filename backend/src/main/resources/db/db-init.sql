@@ -19,26 +19,88 @@ CREATE TABLE IF NOT EXISTS refresh_tokens (
     expires_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
--- Search history table
+-- Search history table, partitioned by month of searched_at (PostgreSQL 14+). Monthly partitions
+-- (search_history_pYYYYMM) are created ahead and dropped after the retention period by
+-- SearchHistoryPartitions; search-history-partitioning.sql converts an unpartitioned table
 CREATE TABLE IF NOT EXISTS search_history (
-    search_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    search_id UUID NOT NULL DEFAULT gen_random_uuid(),
     user_id UUID NOT NULL,
     service_type VARCHAR(100) NOT NULL,
     location VARCHAR(255) NOT NULL,
     latitude DECIMAL(10, 8),
     longitude DECIMAL(11, 8),
     results_count INTEGER DEFAULT 0,
-    searched_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    searched_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (search_id, searched_at),
     CONSTRAINT fk_search_user
         FOREIGN KEY(user_id)
         REFERENCES users(user_id)
         ON DELETE CASCADE
+) PARTITION BY RANGE (searched_at);
+
+-- Geocode cache table (durable tier of GeocodeCache)
+CREATE TABLE IF NOT EXISTS geocode_cache (
+    normalized_location VARCHAR(255) PRIMARY KEY,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    resolved_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Providers seen in Places results (local provider store)
+CREATE TABLE IF NOT EXISTS provider (
+    place_id VARCHAR(255) NOT NULL,
+    service_type VARCHAR(100) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    address VARCHAR(255),
+    phone_number VARCHAR(50),
+    rating DOUBLE PRECISION,
+    total_reviews INTEGER,
+    price_level INTEGER,
+    website VARCHAR(1000),
+    google_maps_url VARCHAR(500),
+    types VARCHAR(1000),
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (place_id, service_type)
+);
+
+-- Last upstream refresh per service type and geohash cell, with the circle it covered
+CREATE TABLE IF NOT EXISTS provider_cell (
+    service_type VARCHAR(100) NOT NULL,
+    geohash VARCHAR(12) NOT NULL,
+    provider_count INTEGER NOT NULL DEFAULT 0,
+    latitude DOUBLE PRECISION NOT NULL DEFAULT 0,
+    longitude DOUBLE PRECISION NOT NULL DEFAULT 0,
+    radius_miles INTEGER NOT NULL DEFAULT 0,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (service_type, geohash)
+);
+-- Cells refreshed before the covered circle was recorded cover nothing until refreshed again
+ALTER TABLE provider_cell ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION NOT NULL DEFAULT 0;
+ALTER TABLE provider_cell ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION NOT NULL DEFAULT 0;
+ALTER TABLE provider_cell ADD COLUMN IF NOT EXISTS radius_miles INTEGER NOT NULL DEFAULT 0;
+
+-- Searches per service type, region (geohash, "*" for all) and hour or day; maintained by SearchRollups
+CREATE TABLE IF NOT EXISTS search_rollup (
+    granularity VARCHAR(8) NOT NULL,
+    region VARCHAR(12) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    service_type VARCHAR(100) NOT NULL,
+    searches BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, region, bucket_start, service_type)
 );
 
 -- Indexes
-CREATE INDEX IF NOT EXISTS idx_search_user_id ON search_history(user_id);
-CREATE INDEX IF NOT EXISTS idx_search_service ON search_history(service_type);
-CREATE INDEX IF NOT EXISTS idx_search_location ON search_history(location);
-CREATE INDEX IF NOT EXISTS idx_search_date ON search_history(searched_at);
+-- A user's history, most recent first, in keyset order; the included columns make history pages
+-- index-only scans. Replaces the single-column user, service type and location indexes; time
+-- windows are served by partition pruning, which replaces the searched_at index
+CREATE INDEX IF NOT EXISTS idx_search_user_time
+    ON search_history(user_id, searched_at DESC, search_id DESC)
+    INCLUDE (service_type, location, latitude, longitude, results_count);
+DROP INDEX IF EXISTS idx_search_user_id;
+DROP INDEX IF EXISTS idx_search_service;
+DROP INDEX IF EXISTS idx_search_location;
+DROP INDEX IF EXISTS idx_search_date;
 
 CREATE INDEX IF NOT EXISTS idx_users_phone ON users(phone);
\ No newline at end of file
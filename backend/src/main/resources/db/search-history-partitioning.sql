@@ -0,0 +1,57 @@
+-- Converts an unpartitioned search_history into monthly partitions (PostgreSQL 14+).
+-- Run once with the application stopped; rows are copied, so allow for the table's size.
+-- The old table is kept as search_history_unpartitioned until dropped by hand.
+BEGIN;
+
+ALTER TABLE search_history RENAME TO search_history_unpartitioned;
+ALTER INDEX search_history_pkey RENAME TO search_history_unpartitioned_pkey;
+ALTER INDEX IF EXISTS idx_search_user_time RENAME TO idx_search_unpartitioned_user_time;
+ALTER TABLE search_history_unpartitioned RENAME CONSTRAINT fk_search_user TO fk_search_unpartitioned_user;
+
+CREATE TABLE search_history (
+    search_id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    service_type VARCHAR(100) NOT NULL,
+    location VARCHAR(255) NOT NULL,
+    latitude DECIMAL(10, 8),
+    longitude DECIMAL(11, 8),
+    results_count INTEGER DEFAULT 0,
+    searched_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (search_id, searched_at),
+    CONSTRAINT fk_search_user
+        FOREIGN KEY(user_id)
+        REFERENCES users(user_id)
+        ON DELETE CASCADE
+) PARTITION BY RANGE (searched_at);
+
+-- One partition per month from the oldest search to three months ahead, named like
+-- SearchHistoryPartitions names them
+DO $$
+DECLARE
+    month DATE;
+BEGIN
+    FOR month IN
+        SELECT g::date FROM generate_series(
+            (SELECT date_trunc('month', COALESCE(MIN(searched_at), now())) FROM search_history_unpartitioned),
+            date_trunc('month', now()) + INTERVAL '3 months',
+            INTERVAL '1 month') AS g
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF search_history FOR VALUES FROM (%L) TO (%L)',
+                'search_history_p' || to_char(month, 'YYYYMM'), month, month + INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+INSERT INTO search_history
+    (search_id, user_id, service_type, location, latitude, longitude, results_count, searched_at)
+SELECT search_id, user_id, service_type, location, latitude, longitude, results_count,
+       COALESCE(searched_at, CURRENT_TIMESTAMP)
+FROM search_history_unpartitioned;
+
+CREATE INDEX idx_search_user_time
+    ON search_history(user_id, searched_at DESC, search_id DESC)
+    INCLUDE (service_type, location, latitude, longitude, results_count);
+
+COMMIT;
+
+-- Once the application runs on the partitioned table:
+-- DROP TABLE search_history_unpartitioned;
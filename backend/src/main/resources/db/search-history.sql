@@ -1,21 +1,49 @@
--- Search history table
+-- Search history table, partitioned by month of searched_at (PostgreSQL 14+). Monthly partitions
+-- (search_history_pYYYYMM) are created ahead and dropped after the retention period by
+-- SearchHistoryPartitions; search-history-partitioning.sql converts an unpartitioned table
 CREATE TABLE IF NOT EXISTS search_history (
-    search_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    search_id UUID NOT NULL DEFAULT gen_random_uuid(),
     user_id UUID NOT NULL,
     service_type VARCHAR(100) NOT NULL,
     location VARCHAR(255) NOT NULL,
     latitude DECIMAL(10, 8),
     longitude DECIMAL(11, 8),
     results_count INTEGER DEFAULT 0,
-    searched_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    searched_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (search_id, searched_at),
     CONSTRAINT fk_search_user
         FOREIGN KEY(user_id)
         REFERENCES users(user_id)
         ON DELETE CASCADE
-);
+) PARTITION BY RANGE (searched_at);
 
 -- Indexes
-CREATE INDEX IF NOT EXISTS idx_search_user_id ON search_history(user_id);
-CREATE INDEX IF NOT EXISTS idx_search_service ON search_history(service_type);
-CREATE INDEX IF NOT EXISTS idx_search_location ON search_history(location);
-CREATE INDEX IF NOT EXISTS idx_search_date ON search_history(searched_at);
\ No newline at end of file
+-- A user's history, most recent first, in keyset order; the included columns make history pages
+-- index-only scans. Replaces the single-column user, service type and location indexes; time
+-- windows are served by partition pruning, which replaces the searched_at index
+CREATE INDEX IF NOT EXISTS idx_search_user_time
+    ON search_history(user_id, searched_at DESC, search_id DESC)
+    INCLUDE (service_type, location, latitude, longitude, results_count);
+DROP INDEX IF EXISTS idx_search_user_id;
+DROP INDEX IF EXISTS idx_search_service;
+DROP INDEX IF EXISTS idx_search_location;
+DROP INDEX IF EXISTS idx_search_date;
+
+-- Searches per service type, region (geohash, "*" for all) and hour or day; maintained by SearchRollups
+CREATE TABLE IF NOT EXISTS search_rollup (
+    granularity VARCHAR(8) NOT NULL,
+    region VARCHAR(12) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    service_type VARCHAR(100) NOT NULL,
+    searches BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, region, bucket_start, service_type)
+);
+
+-- One-off backfill of the all-regions rollups from existing history, run once before deploying
+-- SearchRollups (regions can only be counted from new searches):
+-- INSERT INTO search_rollup (granularity, region, bucket_start, service_type, searches)
+-- SELECT 'HOUR', '*', date_trunc('hour', searched_at), service_type, COUNT(*)
+-- FROM search_history WHERE searched_at >= now() - INTERVAL '14 days' GROUP BY 3, 4
+-- UNION ALL
+-- SELECT 'DAY', '*', date_trunc('day', searched_at), service_type, COUNT(*)
+-- FROM search_history GROUP BY 3, 4;
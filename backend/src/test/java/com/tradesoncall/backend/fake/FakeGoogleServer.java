@@ -0,0 +1,462 @@
+package com.tradesoncall.backend.fake;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Builder;
+import lombok.Value;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the Geocoding, Nearby Search (New) and Text Search (New) APIs, for tests and
+ * load tests that must not call Google.
+ * <ul>
+ *     <li>Data is synthetic and deterministic: an address always geocodes to the same point, and
+ *     each service type has a fixed set of businesses laid out on a grid, so overlapping searches
+ *     see the same places</li>
+ *     <li>Latency follows a {@link LatencyDistribution}; a share of calls can fail with a server error
+ *     or be throttled, and calls over max-requests-per-second are always throttled, each in the
+ *     way the real API reports it</li>
+ * </ul>
+ * Point the app at it with the fake-google profile, or by setting google.places.base-url and
+ * google.geocoding.base-url to {@link #baseUrl()}.
+ * <p>
+ * Run standalone with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.tradesoncall.backend.fake.FakeGoogleServer}, configured through
+ * benchmark.jvmArgs, e.g. {@code -Dbenchmark.jvmArgs="-Dfake.latency=lognormal:80:400 -Dfake.errorRate=0.01"}
+ * (fake.port, fake.latency, fake.errorRate, fake.throttleRate, fake.maxRequestsPerSecond, fake.seed).
+ */
+public final class FakeGoogleServer implements AutoCloseable {
+
+    public enum Endpoint {
+        GEOCODE, NEARBY_SEARCH, TEXT_SEARCH
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final double CELL_DEGREES = 0.02;
+    private static final int MAX_PLACES_PER_CELL = 4;
+    private static final int MAX_PAGE_SIZE = 20;
+    private static final int MAX_TEXT_RESULTS = 60;
+    private static final double METERS_PER_DEGREE = 111_320;
+    private static final String PAGE_TOKEN_PREFIX = "fake-page-";
+    private static final String[] PRICE_LEVELS = {
+            "PRICE_LEVEL_INEXPENSIVE", "PRICE_LEVEL_MODERATE", "PRICE_LEVEL_EXPENSIVE"
+    };
+
+    private volatile Settings settings;
+    private final Random random;
+    private final DisposableServer server;
+    private final LongAdder[] requests = counters();
+    private final LongAdder[] failures = counters();
+    private final LongAdder[] throttled = counters();
+
+    // Guarded by this
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    private FakeGoogleServer(Settings settings) {
+        this.settings = settings;
+        this.random = new Random(settings.getSeed());
+        this.tokens = settings.getMaxRequestsPerSecond();
+        // Own event loops: closing an application context disposes the global Reactor Netty resources
+        this.server = HttpServer.create()
+                .runOn(LoopResources.create("fake-google", settings.getEventLoopThreads(), true))
+                .host(settings.getHost())
+                .port(settings.getPort())
+                .route(routes -> routes
+                        .get("/geocode/json", (request, response) ->
+                                handle(Endpoint.GEOCODE, response, () -> geocode(param(request.uri(), "address"))))
+                        .post("/places:searchNearby", (request, response) -> request.receive().aggregate().asString()
+                                .defaultIfEmpty("{}")
+                                .flatMap(body -> handle(Endpoint.NEARBY_SEARCH, response, () -> searchNearby(body))))
+                        .post("/places:searchText", (request, response) -> request.receive().aggregate().asString()
+                                .defaultIfEmpty("{}")
+                                .flatMap(body -> handle(Endpoint.TEXT_SEARCH, response, () -> searchText(body)))))
+                .bindNow();
+    }
+
+    public static FakeGoogleServer start(Settings settings) {
+        return new FakeGoogleServer(settings);
+    }
+
+    public static FakeGoogleServer start() {
+        return start(Settings.builder().build());
+    }
+
+    public String baseUrl() {
+        return "http://" + settings.getHost() + ":" + server.port();
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    /**
+     * Change latency, fault and throttling settings of the running server, e.g. to start a brownout
+     * mid-test. Host, port, seed and event loop threads keep their original values.
+     */
+    public synchronized void reconfigure(Settings settings) {
+        this.settings = settings.toBuilder()
+                .host(this.settings.getHost())
+                .port(this.settings.getPort())
+                .seed(this.settings.getSeed())
+                .eventLoopThreads(this.settings.getEventLoopThreads())
+                .build();
+        this.tokens = Math.min(tokens, settings.getMaxRequestsPerSecond());
+    }
+
+    public long requests(Endpoint endpoint) {
+        return requests[endpoint.ordinal()].sum();
+    }
+
+    public long failures(Endpoint endpoint) {
+        return failures[endpoint.ordinal()].sum();
+    }
+
+    public long throttled(Endpoint endpoint) {
+        return throttled[endpoint.ordinal()].sum();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    public static void main(String[] args) {
+        Settings settings = Settings.builder()
+                .port(Integer.getInteger("fake.port", 18089))
+                .latency(LatencyDistribution.parse(System.getProperty("fake.latency", "lognormal:80:400")))
+                .errorRate(Double.parseDouble(System.getProperty("fake.errorRate", "0")))
+                .throttleRate(Double.parseDouble(System.getProperty("fake.throttleRate", "0")))
+                .maxRequestsPerSecond(Double.parseDouble(System.getProperty("fake.maxRequestsPerSecond", "0")))
+                .seed(Long.getLong("fake.seed", 42))
+                .eventLoopThreads(Math.max(2, Runtime.getRuntime().availableProcessors()))
+                .build();
+        FakeGoogleServer fake = start(settings);
+        System.out.printf("Fake Google APIs at %s (%s)%n", fake.baseUrl(), settings);
+        System.out.println("Run the app with --spring.profiles.active=fake-google, or FAKE_GOOGLE_PORT set for another port");
+        fake.server.onDispose().block();
+    }
+
+    // ===== Request handling =====
+
+    private Mono<Void> handle(Endpoint endpoint, HttpServerResponse response, ResponseBody body) {
+        requests[endpoint.ordinal()].increment();
+
+        Settings settings = this.settings;
+        Outcome outcome = outcome(settings);
+        Duration latency = settings.getLatency().sample(random);
+        return Mono.delay(latency)
+                .then(Mono.defer(() -> {
+                    switch (outcome) {
+                        case THROTTLED -> {
+                            throttled[endpoint.ordinal()].increment();
+                            return endpoint == Endpoint.GEOCODE
+                                    ? send(response, 200, geocodeStatus("OVER_QUERY_LIMIT", "You have exceeded your rate-limit for this API."))
+                                    : send(response, 429, placesError(429, "RESOURCE_EXHAUSTED", "Quota exceeded for quota metric 'Requests'."));
+                        }
+                        case FAILED -> {
+                            failures[endpoint.ordinal()].increment();
+                            return endpoint == Endpoint.GEOCODE
+                                    ? send(response, 200, geocodeStatus("UNKNOWN_ERROR", "Internal server error."))
+                                    : send(response, 500, placesError(500, "INTERNAL", "Internal error encountered."));
+                        }
+                        default -> {
+                            try {
+                                return send(response, 200, body.write());
+                            } catch (IllegalArgumentException e) {
+                                return send(response, 400, placesError(400, "INVALID_ARGUMENT", e.getMessage()));
+                            }
+                        }
+                    }
+                }));
+    }
+
+    private enum Outcome {
+        OK, FAILED, THROTTLED
+    }
+
+    private Outcome outcome(Settings settings) {
+        if (settings.getMaxRequestsPerSecond() > 0 && !takeToken(settings.getMaxRequestsPerSecond())) {
+            return Outcome.THROTTLED;
+        }
+        double roll = random.nextDouble();
+        if (roll < settings.getThrottleRate()) {
+            return Outcome.THROTTLED;
+        }
+        return roll < settings.getThrottleRate() + settings.getErrorRate() ? Outcome.FAILED : Outcome.OK;
+    }
+
+    private synchronized boolean takeToken(double rate) {
+        long now = System.nanoTime();
+        tokens = Math.min(rate, tokens + (now - refilledAt) / 1e9 * rate);
+        refilledAt = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private static Mono<Void> send(HttpServerResponse response, int status, JsonNode body) {
+        byte[] bytes;
+        try {
+            bytes = MAPPER.writeValueAsBytes(body);
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+        return response.status(status)
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Content-Length", String.valueOf(bytes.length))
+                .sendByteArray(Mono.just(bytes))
+                .then();
+    }
+
+    @FunctionalInterface
+    private interface ResponseBody {
+        JsonNode write();
+    }
+
+    // ===== Geocoding =====
+
+    private JsonNode geocode(String address) {
+        if (address == null || address.isBlank()) {
+            return geocodeStatus("ZERO_RESULTS", null);
+        }
+        // Somewhere in the contiguous US, the same place for the same address
+        SplittableRandom place = new SplittableRandom(settings.getSeed() ^ address.trim().toLowerCase().hashCode());
+        double lat = 25 + place.nextDouble() * 24;
+        double lng = -124 + place.nextDouble() * 57;
+
+        ObjectNode body = MAPPER.createObjectNode();
+        ObjectNode result = body.putArray("results").addObject();
+        result.put("formatted_address", address.trim() + ", USA");
+        result.putObject("geometry").putObject("location").put("lat", lat).put("lng", lng);
+        result.put("place_id", "fake-" + Integer.toHexString(address.hashCode()));
+        body.put("status", "OK");
+        return body;
+    }
+
+    private static JsonNode geocodeStatus(String status, String message) {
+        ObjectNode body = MAPPER.createObjectNode();
+        body.putArray("results");
+        body.put("status", status);
+        if (message != null) {
+            body.put("error_message", message);
+        }
+        return body;
+    }
+
+    private static JsonNode placesError(int code, String status, String message) {
+        ObjectNode body = MAPPER.createObjectNode();
+        body.putObject("error").put("code", code).put("message", message).put("status", status);
+        return body;
+    }
+
+    private static String param(String uri, String name) {
+        int query = uri.indexOf('?');
+        if (query < 0) {
+            return null;
+        }
+        for (String pair : uri.substring(query + 1).split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    // ===== Places =====
+
+    private JsonNode searchNearby(String json) {
+        JsonNode request = readTree(json);
+        JsonNode types = request.path("includedTypes");
+        String type = types.isArray() && !types.isEmpty() ? types.get(0).asText() : "establishment";
+        JsonNode circle = request.path("locationRestriction").path("circle");
+        int maxResults = Math.min(MAX_PAGE_SIZE, request.path("maxResultCount").asInt(MAX_PAGE_SIZE));
+
+        List<Place> places = placesWithin(type, circle);
+        return placesBody(places.subList(0, Math.min(maxResults, places.size())), null);
+    }
+
+    private JsonNode searchText(String json) {
+        JsonNode request = readTree(json);
+        String query = request.path("textQuery").asText("").toLowerCase().replace(" service", "").trim();
+        if (query.isEmpty()) {
+            throw new IllegalArgumentException("textQuery is required");
+        }
+        JsonNode circle = request.path("locationBias").path("circle");
+        int pageSize = Math.min(MAX_PAGE_SIZE,
+                request.path("pageSize").asInt(request.path("maxResultCount").asInt(MAX_PAGE_SIZE)));
+        int offset = 0;
+        String pageToken = request.path("pageToken").asText(null);
+        if (pageToken != null) {
+            if (!pageToken.startsWith(PAGE_TOKEN_PREFIX)) {
+                throw new IllegalArgumentException("Invalid pageToken");
+            }
+            offset = Integer.parseInt(pageToken.substring(PAGE_TOKEN_PREFIX.length()));
+        }
+
+        List<Place> places = placesWithin(query, circle);
+        int total = Math.min(MAX_TEXT_RESULTS, places.size());
+        int end = Math.min(total, offset + pageSize);
+        List<Place> page = offset < end ? places.subList(offset, end) : List.of();
+        return placesBody(page, end < total ? PAGE_TOKEN_PREFIX + end : null);
+    }
+
+    /**
+     * The type's businesses within the circle, nearest first
+     */
+    private List<Place> placesWithin(String type, JsonNode circle) {
+        JsonNode center = circle.path("center");
+        if (!center.has("latitude") || !center.has("longitude")) {
+            throw new IllegalArgumentException("A circle center is required");
+        }
+        double lat = center.path("latitude").asDouble();
+        double lng = center.path("longitude").asDouble();
+        double radiusMeters = Math.min(50_000, circle.path("radius").asDouble(8_000));
+
+        double latSpan = radiusMeters / METERS_PER_DEGREE;
+        double lngSpan = latSpan / Math.max(0.01, Math.cos(Math.toRadians(lat)));
+        long minRow = (long) Math.floor((lat - latSpan) / CELL_DEGREES);
+        long maxRow = (long) Math.floor((lat + latSpan) / CELL_DEGREES);
+        long minCol = (long) Math.floor((lng - lngSpan) / CELL_DEGREES);
+        long maxCol = (long) Math.floor((lng + lngSpan) / CELL_DEGREES);
+
+        long typeSeed = settings.getSeed() * 31 + type.hashCode();
+        List<Place> places = new ArrayList<>();
+        for (long row = minRow; row <= maxRow; row++) {
+            for (long col = minCol; col <= maxCol; col++) {
+                SplittableRandom cell = new SplittableRandom(typeSeed ^ (row * 0x9E3779B97F4A7C15L) ^ (col * 0xC2B2AE3D27D4EB4FL));
+                int count = cell.nextInt(MAX_PLACES_PER_CELL + 1);
+                for (int i = 0; i < count; i++) {
+                    double placeLat = (row + cell.nextDouble()) * CELL_DEGREES;
+                    double placeLng = (col + cell.nextDouble()) * CELL_DEGREES;
+                    double distance = distanceMeters(lat, lng, placeLat, placeLng);
+                    long placeSeed = cell.nextLong();
+                    if (distance <= radiusMeters) {
+                        places.add(new Place(type, row, col, i, placeLat, placeLng, distance, placeSeed));
+                    }
+                }
+            }
+        }
+        places.sort(Comparator.comparingDouble(Place::distanceMeters));
+        return places;
+    }
+
+    private static JsonNode placesBody(List<Place> places, String nextPageToken) {
+        ObjectNode body = MAPPER.createObjectNode();
+        ArrayNode array = body.putArray("places");
+        for (Place place : places) {
+            place.write(array.addObject());
+        }
+        if (nextPageToken != null) {
+            body.put("nextPageToken", nextPageToken);
+        }
+        return body;
+    }
+
+    private static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * 6_371_000 * Math.asin(Math.sqrt(a));
+    }
+
+    private static JsonNode readTree(String json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid JSON payload");
+        }
+    }
+
+    private static LongAdder[] counters() {
+        LongAdder[] counters = new LongAdder[Endpoint.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private record Place(String type, long row, long col, int index,
+                         double latitude, double longitude, double distanceMeters, long seed) {
+
+        void write(ObjectNode node) {
+            SplittableRandom random = new SplittableRandom(seed);
+            String id = "fake-" + type.replace(' ', '_') + "-" + row + "-" + col + "-" + index;
+            String name = capitalize(type) + " Pro " + Long.toHexString(seed & 0xFFFF).toUpperCase();
+
+            node.put("id", "places/" + id);
+            node.putObject("displayName").put("text", name).put("languageCode", "en");
+            node.put("formattedAddress", (100 + random.nextInt(9_900)) + " Fake Street, Testville, USA");
+            node.putObject("location").put("latitude", latitude).put("longitude", longitude);
+            node.put("rating", Math.round((3 + random.nextDouble() * 2) * 10) / 10.0);
+            node.put("userRatingCount", random.nextInt(1, 800));
+            node.put("nationalPhoneNumber", String.format("(555) %03d-%04d", random.nextInt(1_000), random.nextInt(10_000)));
+            node.put("websiteUri", "https://" + id + ".example.com/");
+            node.putObject("currentOpeningHours").put("openNow", random.nextInt(4) > 0);
+            node.put("businessStatus", "OPERATIONAL");
+            node.putArray("types").add(type.replace(' ', '_')).add("point_of_interest").add("establishment");
+            node.put("priceLevel", PRICE_LEVELS[random.nextInt(PRICE_LEVELS.length)]);
+            node.putArray("photos").addObject()
+                    .put("name", "places/" + id + "/photos/fake-photo")
+                    .put("widthPx", 800)
+                    .put("heightPx", 600);
+        }
+
+        private static String capitalize(String text) {
+            return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1).replace('_', ' ');
+        }
+    }
+
+    /**
+     * Behaviour of the fake; the defaults answer at once and never fail
+     */
+    @Value
+    @Builder(toBuilder = true)
+    public static class Settings {
+        @Builder.Default
+        String host = "localhost";
+        // 0 picks a free port
+        @Builder.Default
+        int port = 0;
+        @Builder.Default
+        LatencyDistribution latency = LatencyDistribution.none();
+        // Share of calls answered with a server error
+        @Builder.Default
+        double errorRate = 0;
+        // Share of calls answered as throttled
+        @Builder.Default
+        double throttleRate = 0;
+        // Calls over this rate are throttled; 0 for no limit
+        @Builder.Default
+        double maxRequestsPerSecond = 0;
+        @Builder.Default
+        long seed = 42;
+        @Builder.Default
+        int eventLoopThreads = 2;
+    }
+}
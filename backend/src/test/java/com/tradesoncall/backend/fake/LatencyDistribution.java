@@ -0,0 +1,80 @@
+package com.tradesoncall.backend.fake;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Response latency of the fake Google server.
+ * Real upstream latency is long-tailed, so {@link #logNormal} is the one to use for load tests;
+ * {@link #fixed} is for isolating the app's own overhead.
+ */
+public sealed interface LatencyDistribution {
+
+    Duration sample(RandomGenerator random);
+
+    static LatencyDistribution none() {
+        return fixed(Duration.ZERO);
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        return new Fixed(latency);
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        return new Uniform(min, max);
+    }
+
+    /**
+     * Log-normal latency with the given median and 99th percentile
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        double mu = Math.log(median.toNanos());
+        // z(0.99) = 2.326
+        double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / 2.326;
+        return new LogNormal(mu, sigma);
+    }
+
+    /**
+     * Parse "none", "fixed:100", "uniform:50:150" or "lognormal:80:400", in milliseconds
+     */
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        return switch (parts[0]) {
+            case "none" -> none();
+            case "fixed" -> fixed(millis(parts, 1));
+            case "uniform" -> uniform(millis(parts, 1), millis(parts, 2));
+            case "lognormal" -> logNormal(millis(parts, 1), millis(parts, 2));
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        };
+    }
+
+    private static Duration millis(String[] parts, int index) {
+        if (parts.length <= index) {
+            throw new IllegalArgumentException("Missing value in latency distribution: " + String.join(":", parts));
+        }
+        return Duration.ofMillis(Long.parseLong(parts[index]));
+    }
+
+    record Fixed(Duration latency) implements LatencyDistribution {
+        @Override
+        public Duration sample(RandomGenerator random) {
+            return latency;
+        }
+    }
+
+    record Uniform(Duration min, Duration max) implements LatencyDistribution {
+        @Override
+        public Duration sample(RandomGenerator random) {
+            long span = max.toNanos() - min.toNanos();
+            return span <= 0 ? min : min.plusNanos(random.nextLong(span + 1));
+        }
+    }
+
+    record LogNormal(double mu, double sigma) implements LatencyDistribution {
+        @Override
+        public Duration sample(RandomGenerator random) {
+            return Duration.ofNanos((long) Math.exp(mu + sigma * random.nextGaussian()));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.tradesoncall.backend.observability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.tradesoncall.backend.config.TracingConfig;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalSpanExporterTest {
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void keepsRecentSpansAndAppendsThemToTheFile() throws Exception {
+		Path file = dir.resolve("traces/spans.jsonl");
+		LocalSpanExporter exporter = exporter(3, file.toString());
+		try (SdkTracerProvider provider = SdkTracerProvider.builder()
+				.addSpanProcessor(SimpleSpanProcessor.create(exporter))
+				.build()) {
+			Tracer tracer = provider.get("test");
+
+			Span search = tracer.spanBuilder("search").startSpan();
+			try (Scope ignored = search.makeCurrent()) {
+				tracer.spanBuilder("search geocode").startSpan().end();
+			}
+			search.end();
+			String traceId = search.getSpanContext().getTraceId();
+			tracer.spanBuilder("other").startSpan().end();
+			tracer.spanBuilder("another").startSpan().end();
+
+			// Capacity 3: the first span has been dropped from memory
+			List<LocalSpanExporter.ExportedSpan> recent = exporter.recent(null);
+			assertEquals(List.of("search", "other", "another"), recent.stream().map(LocalSpanExporter.ExportedSpan::name).toList());
+			LocalSpanExporter.ExportedSpan root = exporter.recent(traceId).get(0);
+			assertNull(root.parentSpanId());
+
+			List<String> lines = Files.readAllLines(file);
+			assertEquals(4, lines.size());
+			LocalSpanExporter.ExportedSpan geocode = objectMapper.readValue(lines.get(0), LocalSpanExporter.ExportedSpan.class);
+			assertEquals("search geocode", geocode.name());
+			assertEquals(root.spanId(), geocode.parentSpanId());
+		}
+	}
+
+	private LocalSpanExporter exporter(int recentSpans, String file) throws Exception {
+		TracingConfig config = new TracingConfig();
+		config.getLocalExport().setRecentSpans(recentSpans);
+		config.getLocalExport().setFile(file);
+		return new LocalSpanExporter(config, objectMapper);
+	}
+}
@@ -0,0 +1,47 @@
+package com.tradesoncall.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowCounterTest {
+
+	private static final long WINDOW = 60_000;
+
+	private final SlidingWindowCounter counter = new SlidingWindowCounter();
+
+	@Test
+	void rejectsOverTheLimitUntilTheNextWindow() {
+		long start = 10 * WINDOW;
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, counter.tryAcquire(start + i, WINDOW, 3));
+		}
+
+		long retryAfter = counter.tryAcquire(start + 10_000, WINDOW, 3);
+		// The window ends in 50s, and a third of the next one has to pass before the old count weighs under 2
+		assertEquals(70_000, retryAfter);
+		assertTrue(counter.tryAcquire(start + 10_000 + retryAfter - 1_000, WINDOW, 3) > 0);
+		assertEquals(0, counter.tryAcquire(start + 10_000 + retryAfter, WINDOW, 3));
+	}
+
+	@Test
+	void weighsThePreviousWindowByItsOverlap() {
+		long start = 10 * WINDOW;
+		for (int i = 0; i < 10; i++) {
+			counter.tryAcquire(start + i, WINDOW, 10);
+		}
+
+		// Halfway through the next window, half of the previous ten still count
+		long halfway = start + WINDOW + WINDOW / 2;
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, counter.tryAcquire(halfway, WINDOW, 10));
+		}
+		assertTrue(counter.tryAcquire(halfway, WINDOW, 10) > 0);
+
+		// Two windows later nothing is left
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0, counter.tryAcquire(start + 3 * WINDOW, WINDOW, 10));
+		}
+	}
+}
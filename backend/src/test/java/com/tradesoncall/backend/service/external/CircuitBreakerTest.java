@@ -0,0 +1,68 @@
+package com.tradesoncall.backend.service.external;
+
+import com.tradesoncall.backend.exception.CircuitOpenException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CircuitBreakerTest {
+
+	private final CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 0.5, Duration.ofMillis(50), 2);
+
+	@Test
+	void opensOnceFailureRateReachesThresholdAndRejectsWithoutCalling() {
+		breaker.execute(() -> Mono.just("ok")).block();
+		breaker.execute(() -> Mono.just("ok")).block();
+		fail();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+		fail();
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+		AtomicInteger calls = new AtomicInteger();
+		assertThrows(CircuitOpenException.class, () -> breaker.execute(() -> {
+			calls.incrementAndGet();
+			return Mono.just("ok");
+		}).block());
+		assertEquals(0, calls.get());
+		assertEquals(1, breaker.stats().getRejected());
+	}
+
+	@Test
+	void closesAfterSuccessfulTrialCallsAndReopensOnAFailedOne() throws InterruptedException {
+		for (int i = 0; i < 4; i++) {
+			fail();
+		}
+		Thread.sleep(60);
+
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+		fail();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+		Thread.sleep(60);
+		breaker.execute(() -> Mono.just("ok")).block();
+		breaker.execute(() -> Mono.empty()).block();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+	}
+
+	@Test
+	void clientErrorsDoNotCountAsFailures() {
+		for (int i = 0; i < 6; i++) {
+			assertThrows(WebClientResponseException.class, () -> breaker.execute(() -> Mono.error(
+					WebClientResponseException.create(HttpStatus.BAD_REQUEST.value(), "Bad Request", null, null, null))).block());
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+	}
+
+	private void fail() {
+		assertThrows(IllegalStateException.class,
+				() -> breaker.execute(() -> Mono.error(new IllegalStateException("upstream down"))).block());
+	}
+}
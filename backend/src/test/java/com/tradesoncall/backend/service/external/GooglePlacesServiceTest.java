@@ -0,0 +1,108 @@
+package com.tradesoncall.backend.service.external;
+
+import com.tradesoncall.backend.exception.ExternalServiceException;
+import com.tradesoncall.backend.fake.FakeGoogleServer;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GooglePlacesServiceTest {
+
+	private static final FakeGoogleServer fake = FakeGoogleServer.start();
+	private static final FakeGoogleServer.Settings healthy = fake.settings();
+
+	@Autowired
+	private GooglePlacesService googlePlacesService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@DynamicPropertySource
+	static void googleBaseUrls(DynamicPropertyRegistry registry) {
+		registry.add("google.places.base-url", fake::baseUrl);
+		registry.add("google.geocoding.base-url", fake::baseUrl);
+	}
+
+	@AfterEach
+	void restoreFake() {
+		fake.reconfigure(healthy);
+	}
+
+	@AfterAll
+	static void stopFake() {
+		fake.close();
+	}
+
+	@Test
+	void searchesNearbyAroundTheGeocodedLocation() {
+		GeoPoint center = googlePlacesService.geocode("Springfield, IL").block();
+		assertNotNull(center);
+		assertEquals(center, googlePlacesService.geocode("Springfield, IL").block());
+		// Client metrics carry the URI template, never the address or API key
+		assertNotNull(meterRegistry.find("http.client.requests")
+				.tags("uri", "/geocode/json?address={address}&key={key}", "status", "200")
+				.timer());
+
+		List<ServiceSearchResponse> results = googlePlacesService.searchNearby("plumber", center, 8_000, 20).block();
+		assertNotNull(results);
+		assertEquals(20, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			assertTrue(results.get(i).getDistanceMiles() <= 5);
+			if (i > 0) {
+				assertTrue(results.get(i).getDistanceMiles() >= results.get(i - 1).getDistanceMiles());
+			}
+		}
+	}
+
+	@Test
+	void pagesThroughTextSearchResults() {
+		GeoPoint center = new GeoPoint(41.88, -87.63);
+		Set<String> placeIds = new HashSet<>();
+		String pageToken = null;
+		int pages = 0;
+		do {
+			PlacesPage page = googlePlacesService.searchTextPage("hvac contractor", center, 20_000, 20, pageToken).block();
+			assertNotNull(page);
+			page.getResults().forEach(place -> placeIds.add(place.getPlaceId()));
+			pageToken = page.getNextPageToken();
+			pages++;
+		} while (pageToken != null);
+
+		// Text Search stops at 60 results
+		assertEquals(3, pages);
+		assertEquals(60, placeIds.size());
+		assertNull(pageToken);
+	}
+
+	@Test
+	void reportsThrottledAndFailedCallsAsExternalServiceErrors() {
+		fake.reconfigure(healthy.toBuilder().throttleRate(1).build());
+		assertThrows(ExternalServiceException.class, () -> googlePlacesService.geocode("Throttled Town, KS").block());
+		assertEquals(1, fake.throttled(FakeGoogleServer.Endpoint.GEOCODE));
+
+		fake.reconfigure(healthy.toBuilder().errorRate(1).build());
+		assertThrows(ExternalServiceException.class, () -> googlePlacesService
+				.searchTextPage("hvac contractor", new GeoPoint(30.27, -97.74), 8_000, 20, null).block());
+		assertEquals(1, fake.failures(FakeGoogleServer.Endpoint.TEXT_SEARCH));
+	}
+}
@@ -0,0 +1,113 @@
+package com.tradesoncall.backend.service.external;
+
+import com.tradesoncall.backend.config.GoogleApiConfig;
+import com.tradesoncall.backend.exception.QuotaExceededException;
+import com.tradesoncall.backend.model.enums.GoogleSku;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GoogleQuotaManagerTest {
+
+	private static final GoogleSku SKU = GoogleSku.NEARBY_SEARCH;
+
+	private final MutableClock clock = new MutableClock();
+	private long nanos = 1_000_000_000L;
+
+	@Test
+	void queuesCallsOverTheRateUntilTheWaitWouldPassMaxWait() {
+		GoogleQuotaManager quota = manager(quota(10, 2, 1_000, Duration.ofMillis(250)));
+
+		assertEquals(0, quota.reserve(SKU, "a", ServiceType.PLUMBER));
+		assertEquals(0, quota.reserve(SKU, "a", ServiceType.PLUMBER));
+		assertEquals(100_000_000L, quota.reserve(SKU, "a", ServiceType.PLUMBER));
+		assertEquals(200_000_000L, quota.reserve(SKU, "a", ServiceType.PLUMBER));
+		QuotaExceededException rejected = assertThrows(QuotaExceededException.class,
+				() -> quota.reserve(SKU, "a", ServiceType.PLUMBER));
+		assertEquals(Duration.ofMillis(50), rejected.getRetryAfter());
+
+		assertEquals(4, quota.spend(SKU, ServiceType.PLUMBER));
+		assertEquals(0, quota.spend(SKU, ServiceType.ELECTRICIAN));
+		assertEquals(1, quota.stats(SKU).getRejected());
+	}
+
+	@Test
+	void activeUsersSplitTheRateByWeight() {
+		GoogleApiConfig.Quota config = quota(10, 2, 1_000, Duration.ZERO);
+		config.setUserWeights(Map.of("heavy", 3.0));
+		GoogleQuotaManager quota = manager(config);
+
+		quota.reserve(SKU, "a", null);
+		quota.reserve(SKU, "heavy", null);
+		nanos += 2_000_000_000L;
+
+		// "a" alone could burst twice; sharing with a user of weight 3 it gets a quarter of the rate
+		quota.reserve(SKU, "a", null);
+		assertThrows(QuotaExceededException.class, () -> quota.reserve(SKU, "a", null));
+		nanos += 400_000_000L;
+		quota.reserve(SKU, "heavy", null);
+		quota.reserve(SKU, "heavy", null);
+		assertEquals(4.0, quota.stats(SKU).getActiveWeight());
+	}
+
+	@Test
+	void dailyBudgetsResetTheNextDay() {
+		GoogleApiConfig.Quota config = quota(1_000, 100, 3, Duration.ZERO);
+		config.setUserDailyShare(0.5);
+		GoogleQuotaManager quota = manager(config);
+
+		quota.reserve(SKU, "a", null);
+		assertThrows(QuotaExceededException.class, () -> quota.reserve(SKU, "a", null));
+		quota.reserve(SKU, "b", null);
+		quota.reserve(SKU, QuotaContext.SYSTEM_USER, null);
+		assertThrows(QuotaExceededException.class, () -> quota.reserve(SKU, "c", null));
+		assertEquals(3, quota.stats(SKU).getUsedToday());
+
+		clock.advance(Duration.ofDays(1));
+		quota.reserve(SKU, "a", null);
+		assertEquals(1, quota.stats(SKU).getUsedToday());
+	}
+
+	private GoogleQuotaManager manager(GoogleApiConfig.Quota config) {
+		return new GoogleQuotaManager(config, () -> nanos, clock);
+	}
+
+	private static GoogleApiConfig.Quota quota(double rps, int burst, long dailyBudget, Duration maxWait) {
+		GoogleApiConfig.Quota config = new GoogleApiConfig.Quota();
+		config.setMaxWait(maxWait);
+		config.setSkus(Map.of(SKU, new GoogleApiConfig.SkuQuota(rps, burst, dailyBudget)));
+		return config;
+	}
+
+	private static final class MutableClock extends Clock {
+		private Instant now = Instant.parse("2026-03-02T12:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
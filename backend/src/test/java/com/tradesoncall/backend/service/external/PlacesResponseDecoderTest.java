@@ -0,0 +1,114 @@
+package com.tradesoncall.backend.service.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.service.geo.GeoDistance;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PlacesResponseDecoderTest {
+
+	private final PlacesResponseDecoder decoder = new PlacesResponseDecoder(new ObjectMapper(), "test-key");
+
+	@Test
+	void decodesPlacesIntoResponses() throws IOException {
+		String json = """
+				{
+				  "places": [
+				    {
+				      "id": "places/abc",
+				      "displayName": {"text": "Joe's Plumbing", "languageCode": "en"},
+				      "formattedAddress": "1 Main St",
+				      "location": {"latitude": 40.75, "longitude": -74.0},
+				      "rating": 4.5,
+				      "userRatingCount": 127,
+				      "priceLevel": "PRICE_LEVEL_MODERATE",
+				      "types": ["plumber", "point_of_interest"],
+				      "regularOpeningHours": {"periods": [{"open": {"day": 1}}], "weekdayDescriptions": ["Mon"]},
+				      "currentOpeningHours": {"openNow": true, "periods": []},
+				      "photos": [{"name": "places/abc/photos/1", "widthPx": 400}, {"name": "places/abc/photos/2"}]
+				    },
+				    {
+				      "id": "places/def",
+				      "rating": null
+				    }
+				  ],
+				  "nextPageToken": "next"
+				}
+				""";
+
+		PlacesPage page = decoder.decodePlaces(body(json), 40.70, -74.0);
+
+		assertEquals("next", page.getNextPageToken());
+		assertEquals(2, page.getResults().size());
+
+		ServiceSearchResponse first = page.getResults().get(0);
+		assertEquals("abc", first.getPlaceId());
+		assertEquals("Joe's Plumbing", first.getName());
+		assertEquals("1 Main St", first.getAddress());
+		assertEquals(4.5, first.getRating());
+		assertEquals(127, first.getTotalReviews());
+		assertEquals(2, first.getPriceLevel());
+		assertEquals(true, first.getOpenNow());
+		assertEquals(List.of("plumber", "point_of_interest"), first.getServiceTypes());
+		assertEquals("https://www.google.com/maps/place/?q=place_id:abc", first.getGoogleMapsUrl());
+		assertEquals(List.of("https://places.googleapis.com/v1/places/abc/photos/1/media?maxHeightPx=400&maxWidthPx=400&key=test-key"),
+				first.getPhotoUrls());
+		assertEquals(GeoDistance.haversineMiles(40.70, -74.0, 40.75, -74.0), first.getDistanceMiles(), 1e-9);
+
+		ServiceSearchResponse second = page.getResults().get(1);
+		assertEquals("Unknown", second.getName());
+		assertNull(second.getRating());
+		assertNull(second.getLatitude());
+		assertEquals(0.0, second.getDistanceMiles());
+		assertEquals(List.of(), second.getPhotoUrls());
+	}
+
+	@Test
+	void decodesEmptyPlacesResponse() throws IOException {
+		PlacesPage page = decoder.decodePlaces(body("{}"), 40.70, -74.0);
+
+		assertEquals(List.of(), page.getResults());
+		assertNull(page.getNextPageToken());
+	}
+
+	@Test
+	void decodesFirstGeocodeResult() throws IOException {
+		String json = """
+				{
+				  "results": [
+				    {
+				      "address_components": [{"long_name": "New York"}],
+				      "geometry": {"bounds": {"northeast": {"lat": 41, "lng": -73}}, "location": {"lat": 40.7128, "lng": -74.006}}
+				    },
+				    {"geometry": {"location": {"lat": 1, "lng": 2}}}
+				  ],
+				  "status": "OK"
+				}
+				""";
+
+		assertEquals(new GeoPoint(40.7128, -74.006), decoder.decodeGeocode(body(json)));
+		assertNull(decoder.decodeGeocode(body("{\"results\": [], \"status\": \"ZERO_RESULTS\"}")));
+		assertThrows(IOException.class,
+				() -> decoder.decodeGeocode(body("{\"results\": [], \"status\": \"OVER_QUERY_LIMIT\"}")));
+	}
+
+	@Test
+	void rejectsTruncatedResponses() {
+		assertThrows(IOException.class, () -> decoder.decodePlaces(body("{\"places\": [{\"id\": \"places/abc\""), 0, 0));
+	}
+
+	private static InputStream body(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
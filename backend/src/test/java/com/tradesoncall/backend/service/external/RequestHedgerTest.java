@@ -0,0 +1,78 @@
+package com.tradesoncall.backend.service.external;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestHedgerTest {
+
+	@Test
+	void slowCallIsHedgedAndFasterAnswerWins() {
+		RequestHedger hedger = new RequestHedger(0.95, Duration.ofMillis(20), Duration.ofMillis(20), 1.0);
+		AtomicInteger calls = new AtomicInteger();
+
+		String answer = hedger.execute(() -> calls.incrementAndGet() == 1
+				? Mono.delay(Duration.ofSeconds(5)).thenReturn("slow")
+				: Mono.just("hedge")).block(Duration.ofSeconds(2));
+
+		assertEquals("hedge", answer);
+		assertEquals(2, calls.get());
+		assertEquals(1, hedger.stats().getHedgeWins());
+	}
+
+	@Test
+	void fastCallsAndEmptyAnswersAreNotHedged() {
+		RequestHedger hedger = new RequestHedger(0.95, Duration.ofMillis(200), Duration.ofMillis(200), 1.0);
+		AtomicInteger calls = new AtomicInteger();
+
+		assertEquals("fast", hedger.execute(() -> {
+			calls.incrementAndGet();
+			return Mono.just("fast");
+		}).block());
+		assertNull(hedger.execute(() -> {
+			calls.incrementAndGet();
+			return Mono.<String>empty();
+		}).block());
+
+		assertEquals(2, calls.get());
+		assertEquals(0, hedger.stats().getHedged());
+	}
+
+	@Test
+	void hedgesAreLimitedByBudget() {
+		RequestHedger hedger = new RequestHedger(0.95, Duration.ofMillis(10), Duration.ofMillis(10), 0.5);
+		AtomicInteger calls = new AtomicInteger();
+
+		// One token is earned every second call
+		for (int i = 0; i < 4; i++) {
+			hedger.execute(() -> {
+				calls.incrementAndGet();
+				return Mono.delay(Duration.ofMillis(50)).thenReturn("slow");
+			}).block();
+		}
+
+		assertEquals(2, hedger.stats().getHedged());
+		assertEquals(6, calls.get());
+	}
+
+	@Test
+	void errorIsReportedOnlyWhenEveryStartedCallFailed() {
+		RequestHedger hedger = new RequestHedger(0.95, Duration.ofMillis(20), Duration.ofMillis(20), 1.0);
+		AtomicInteger calls = new AtomicInteger();
+
+		String answer = hedger.execute(() -> calls.incrementAndGet() == 1
+				? Mono.delay(Duration.ofMillis(50)).then(Mono.error(new IllegalStateException("primary failed")))
+				: Mono.delay(Duration.ofMillis(100)).thenReturn("hedge")).block(Duration.ofSeconds(2));
+		assertEquals("hedge", answer);
+
+		assertThrows(IllegalStateException.class, () -> hedger.execute(
+				() -> Mono.delay(Duration.ofMillis(50)).then(Mono.<String>error(new IllegalStateException("down"))))
+				.block(Duration.ofSeconds(2)));
+	}
+}
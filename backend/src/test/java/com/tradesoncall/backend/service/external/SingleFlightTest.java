@@ -0,0 +1,73 @@
+package com.tradesoncall.backend.service.external;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+	private final SingleFlight<String, String> flights = new SingleFlight<>("test", Duration.ofSeconds(5));
+
+	@Test
+	void concurrentCallersShareOneUpstreamCall() {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		Sinks.One<String> upstream = Sinks.one();
+
+		Mono<String> first = flights.execute("chicago", () -> {
+			upstreamCalls.incrementAndGet();
+			return upstream.asMono();
+		}).cache();
+		Mono<String> second = flights.execute("chicago", () -> {
+			upstreamCalls.incrementAndGet();
+			return upstream.asMono();
+		}).cache();
+		first.subscribe();
+		second.subscribe();
+
+		upstream.tryEmitValue("41.88,-87.63");
+
+		assertEquals("41.88,-87.63", first.block());
+		assertEquals("41.88,-87.63", second.block());
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(1, flights.stats().getCoalesced());
+		assertEquals(0, flights.stats().getInFlight());
+	}
+
+	@Test
+	void errorsReachEveryWaiterAndReleaseTheKey() {
+		Sinks.One<String> upstream = Sinks.one();
+		Mono<String> first = flights.execute("boom", upstream::asMono).cache();
+		Mono<String> second = flights.execute("boom", upstream::asMono).cache();
+		first.subscribe(v -> { }, e -> { });
+		second.subscribe(v -> { }, e -> { });
+
+		upstream.tryEmitError(new IllegalStateException("quota exceeded"));
+
+		assertThrows(IllegalStateException.class, first::block);
+		assertThrows(IllegalStateException.class, second::block);
+		assertEquals("ok", flights.execute("boom", () -> Mono.just("ok")).block());
+	}
+
+	@Test
+	void emptyResultsAreShared() {
+		assertNull(flights.execute("nowhere", Mono::empty).block());
+	}
+
+	@Test
+	void sharedCallIsBoundedByTimeout() {
+		SingleFlight<String, String> shortFlights = new SingleFlight<>("test", Duration.ofMillis(50));
+
+		Exception e = assertThrows(Exception.class, () -> shortFlights.execute("slow", Mono::never).block());
+		assertInstanceOf(TimeoutException.class, e.getCause());
+		assertEquals(0, shortFlights.stats().getInFlight());
+	}
+}
@@ -0,0 +1,77 @@
+package com.tradesoncall.backend.service.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DistanceKernelTest {
+
+	private static final int POINTS = 10_003;
+
+	@Test
+	void haversineMatchesScalarHaversine() {
+		SplittableRandom random = new SplittableRandom(7);
+		for (int query = 0; query < 50; query++) {
+			double lat0 = -80 + random.nextDouble() * 160;
+			double lng0 = -180 + random.nextDouble() * 360;
+			double[] lats = new double[POINTS];
+			double[] lngs = new double[POINTS];
+			for (int i = 0; i < POINTS; i++) {
+				lats[i] = -90 + random.nextDouble() * 180;
+				lngs[i] = -180 + random.nextDouble() * 360;
+			}
+
+			double[] distances = new double[POINTS];
+			DistanceKernel.haversineMiles(DistanceKernel.origin(lat0, lng0), lats, lngs, POINTS, distances);
+
+			for (int i = 0; i < POINTS; i++) {
+				assertEquals(GeoDistance.haversineMiles(lat0, lng0, lats[i], lngs[i]), distances[i], 1e-6);
+			}
+		}
+	}
+
+	@Test
+	void equirectangularStaysWithinErrorBound() {
+		SplittableRandom random = new SplittableRandom(11);
+		double maxLatitude = DistanceKernel.FAST_PATH_MAX_LATITUDE;
+		double maxMiles = DistanceKernel.FAST_PATH_MAX_MILES;
+		for (int query = 0; query < 50; query++) {
+			double lat0 = -maxLatitude + random.nextDouble() * 2 * maxLatitude;
+			double lng0 = -170 + random.nextDouble() * 340;
+			double[] lats = new double[POINTS];
+			double[] lngs = new double[POINTS];
+			for (int i = 0; i < POINTS; i++) {
+				double miles = random.nextDouble() * maxMiles;
+				double bearing = random.nextDouble() * 2 * Math.PI;
+				lats[i] = lat0 + miles * Math.cos(bearing) / 69.0;
+				lngs[i] = lng0 + miles * Math.sin(bearing) / (69.0 * Math.cos(Math.toRadians(lat0)));
+			}
+
+			double[] distances = new double[POINTS];
+			DistanceKernel.equirectangularMiles(DistanceKernel.origin(lat0, lng0), lats, lngs, POINTS, distances);
+
+			for (int i = 0; i < POINTS; i++) {
+				double expected = GeoDistance.haversineMiles(lat0, lng0, lats[i], lngs[i]);
+				if (expected <= maxMiles) {
+					double error = Math.abs(distances[i] - expected);
+					assertTrue(error <= expected * DistanceKernel.FAST_PATH_MAX_RELATIVE_ERROR + 1e-9,
+							() -> "error " + error + " at " + expected + " miles");
+				}
+			}
+		}
+	}
+
+	@Test
+	void fallsBackToHaversineForLongRadii() {
+		double[] lats = {34.05};
+		double[] lngs = {-118.24};
+		double[] distances = new double[1];
+
+		DistanceKernel.distancesMiles(DistanceKernel.origin(40.71, -74.00), 3000, lats, lngs, 1, distances);
+
+		assertEquals(GeoDistance.haversineMiles(40.71, -74.00, 34.05, -118.24), distances[0], 1e-6);
+	}
+}
@@ -0,0 +1,77 @@
+package com.tradesoncall.backend.service.geo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GazetteerTest {
+
+	// GeoNames postal code format
+	private static final String GEONAMES = """
+			US\t62701\tSpringfield\tIllinois\tIL\tSangamon\t167\t\t\t39.8000\t-89.6500\t4
+			US\t62703\tSpringfield\tIllinois\tIL\tSangamon\t167\t\t\t39.7600\t-89.6300\t4
+			US\t10001\tNew York\tNew York\tNY\tNew York\t061\t\t\t40.7484\t-73.9967\t4
+			US\t99999\tNowhere\tNevada\tNV\t\t\t\t\t\t\t
+			""";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void resolvesPostalCodesAndPlaces() throws Exception {
+		Gazetteer gazetteer = build();
+
+		assertEquals(new GeoPoint(39.8, -89.65), gazetteer.find("62701"));
+		assertEquals(new GeoPoint(39.8, -89.65), gazetteer.find("62701-1234"));
+		assertEquals(new GeoPoint(39.76, -89.63), gazetteer.find("Springfield, IL 62703"));
+		assertEquals(new GeoPoint(40.7484, -73.9967), gazetteer.find("New York, NY, USA"));
+
+		// A place sits at the mean of its postal codes
+		assertEquals(new GeoPoint(39.78, -89.64), gazetteer.find("Springfield, IL"));
+		assertEquals(new GeoPoint(39.78, -89.64), gazetteer.find("springfield illinois"));
+	}
+
+	@Test
+	void visitsEntriesWithKindAndWeight() throws Exception {
+		Map<String, String> visited = new HashMap<>();
+		build().forEach((key, kind, weight, point) -> visited.put(key, kind + " " + weight));
+
+		assertEquals("POSTAL_CODE 1", visited.get("62701"));
+		assertEquals("PLACE 2", visited.get("springfield il"));
+		assertEquals("PLACE_STATE_NAME 2", visited.get("springfield illinois"));
+		assertEquals("PLACE_POSTAL_CODE 1", visited.get("springfield il 62703"));
+	}
+
+	@Test
+	void leavesUnknownLocationsToTheGeocoder() throws Exception {
+		Gazetteer gazetteer = build();
+
+		assertNull(gazetteer.find("Springfield, MO"));
+		assertNull(gazetteer.find("1 Main St, Springfield, IL"));
+		assertNull(gazetteer.find("99999"));
+		assertNull(gazetteer.find(""));
+
+		Gazetteer missing = new Gazetteer(dir.resolve("missing.bin"), false);
+		assertEquals(0, missing.size());
+		assertNull(missing.find("62701"));
+	}
+
+	private Gazetteer build() throws Exception {
+		Path file = dir.resolve("gazetteer.bin");
+		GazetteerBuilder builder = new GazetteerBuilder()
+				.addGeoNames(new BufferedReader(new StringReader(GEONAMES)));
+		builder.write(file);
+
+		Gazetteer gazetteer = new Gazetteer(file, true);
+		assertEquals(builder.size(), gazetteer.size());
+		return gazetteer;
+	}
+}
@@ -0,0 +1,54 @@
+package com.tradesoncall.backend.service.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class LocationNormalizerTest {
+
+	@Test
+	void collapsesCaseWhitespaceAndPunctuation() {
+		assertEquals("new york ny", LocationNormalizer.normalize("New York, NY"));
+		assertEquals("new york ny", LocationNormalizer.normalize("  NEW YORK,  ny. "));
+	}
+
+	@Test
+	void keepsCountryInOneSpelling() {
+		assertEquals("new york ny usa", LocationNormalizer.normalize("New York, NY, USA"));
+		assertEquals("new york ny usa", LocationNormalizer.normalize("New York, NY, United States"));
+		assertEquals("new york ny usa", LocationNormalizer.normalize("new york ny us"));
+		assertEquals("london canada", LocationNormalizer.normalize("London, Canada"));
+	}
+
+	@Test
+	void distinguishesSameNamedPlacesInDifferentCountries() {
+		String canada = LocationNormalizer.normalize("Vancouver, Canada");
+		String usa = LocationNormalizer.normalize("Vancouver, USA");
+
+		assertNotEquals(canada, usa);
+		assertNotEquals(LocationNormalizer.normalize("London"), LocationNormalizer.normalize("London, Canada"));
+	}
+
+	@Test
+	void canonicalizesPostalCodes() {
+		assertEquals("10001", LocationNormalizer.normalize("10001-1234"));
+		assertEquals("10001", LocationNormalizer.normalize(" 10001 "));
+		assertEquals("10001", LocationNormalizer.normalize("10001, USA"));
+		assertEquals("m5v3l9", LocationNormalizer.normalize("M5V 3L9"));
+		assertEquals("m5v3l9", LocationNormalizer.normalize("M5V 3L9, Canada"));
+		// A ZIP code does not name a Canadian place
+		assertEquals("10001 canada", LocationNormalizer.normalize("10001, Canada"));
+	}
+
+	@Test
+	void keepsStateAbbreviations() {
+		assertEquals("sacramento ca", LocationNormalizer.normalize("Sacramento, CA"));
+	}
+
+	@Test
+	void handlesEmptyInput() {
+		assertEquals("", LocationNormalizer.normalize(null));
+		assertEquals("", LocationNormalizer.normalize(" ,. "));
+	}
+}
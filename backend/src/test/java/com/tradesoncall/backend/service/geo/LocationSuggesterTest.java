@@ -0,0 +1,87 @@
+package com.tradesoncall.backend.service.geo;
+
+import com.tradesoncall.backend.config.GazetteerConfig;
+import com.tradesoncall.backend.config.LocationSuggestConfig;
+import com.tradesoncall.backend.model.dto.response.LocationSuggestionResponse;
+import com.tradesoncall.backend.model.entity.GeocodeCacheEntry;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.repository.GeocodeCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "app.gazetteer.enabled=false")
+@ActiveProfiles("test")
+@Import({LocationSuggester.class, LocationSuggestConfig.class, Gazetteer.class, GazetteerConfig.class})
+class LocationSuggesterTest {
+
+	@Autowired
+	LocationSuggester locationSuggester;
+
+	@Autowired
+	GeocodeCacheRepository geocodeCacheRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		for (String location : List.of("12 elm st springfield il", "40 oak ave springfield il")) {
+			geocodeCacheRepository.save(GeocodeCacheEntry.builder()
+					.normalizedLocation(location)
+					.latitude(39.8)
+					.longitude(-89.65)
+					.resolvedAt(LocalDateTime.now())
+					.build());
+		}
+	}
+
+	@Test
+	void countsUsersOncePerLocationHoweverSpelled() {
+		UUID user = UUID.randomUUID();
+		insert(user, "12 Elm St, Springfield, IL");
+		insert(user, "12 elm st springfield il");
+		insert(user, "12 Elm St., Springfield IL");
+
+		locationSuggester.load();
+
+		assertEquals(List.of(), suggest("12 elm"));
+	}
+
+	@Test
+	void suggestsLocationsSearchedByEnoughUsers() {
+		insert(UUID.randomUUID(), "40 Oak Ave, Springfield, IL");
+		insert(UUID.randomUUID(), "40 Oak Ave, Springfield, IL");
+		insert(UUID.randomUUID(), "40 oak ave springfield il");
+		insert(UUID.randomUUID(), "40 Oak Ave Springfield IL");
+
+		locationSuggester.load();
+
+		assertEquals(List.of("40 Oak Ave, Springfield, IL"), suggest("40 oak"));
+	}
+
+	private List<String> suggest(String query) {
+		return locationSuggester.suggest(query, null).stream()
+				.map(LocationSuggestionResponse::getLocation)
+				.toList();
+	}
+
+	private void insert(UUID userId, String location) {
+		jdbcTemplate.update("""
+				INSERT INTO search_history (search_id, user_id, service_type, location, results_count, searched_at)
+				VALUES (?, ?, ?, ?, ?, ?)
+				""", UUID.randomUUID(), userId, ServiceType.PLUMBER.name(), location, 5,
+				Timestamp.valueOf(LocalDateTime.now()));
+	}
+}
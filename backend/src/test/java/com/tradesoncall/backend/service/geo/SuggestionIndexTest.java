@@ -0,0 +1,93 @@
+package com.tradesoncall.backend.service.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionIndexTest {
+
+	private static final GeoPoint POINT = new GeoPoint(0, 0);
+
+	@Test
+	void returnsHeaviestCompletionsOfThePrefix() {
+		SuggestionIndex index = SuggestionIndex.of(List.of(
+				entry("springfield il", 12),
+				entry("springfield mo", 20),
+				entry("springdale ar", 5),
+				entry("spokane wa", 30),
+				entry("san diego ca", 90)));
+
+		assertEquals(List.of("springfield mo", "springfield il", "springdale ar"), keys(index.top("spring", 10)));
+		assertEquals(List.of("springfield mo"), keys(index.top("spring", 1)));
+		assertEquals(List.of("san diego ca", "spokane wa", "springfield mo", "springfield il", "springdale ar"),
+				keys(index.top("s", 10)));
+		assertEquals(List.of(), keys(index.top("springfield ma", 10)));
+		assertEquals(List.of(), keys(index.top("t", 10)));
+	}
+
+	@Test
+	void mergesWeightsIntoANewIndex() {
+		SuggestionIndex index = SuggestionIndex.of(List.of(entry("springfield il", 12), entry("springfield mo", 20)));
+
+		SuggestionIndex merged = index.merge(List.of(
+				entry("springfield il", 5),
+				entry("springfield il", 5),
+				new SuggestionIndex.Entry("springfield ma", "Springfield, MA", 1, POINT)));
+
+		assertEquals(List.of("springfield il", "springfield mo", "springfield ma"), keys(merged.top("spring", 10)));
+		assertEquals(22, merged.top("springfield il", 1).get(0).weight());
+		assertEquals("Springfield, MA", merged.top("springfield ma", 1).get(0).display());
+		assertTrue(merged.contains("springfield ma"));
+
+		// The original is unchanged
+		assertFalse(index.contains("springfield ma"));
+		assertEquals(List.of("springfield mo", "springfield il"), keys(index.top("spring", 10)));
+	}
+
+	@Test
+	void matchesASortedScan() {
+		Random random = new Random(7);
+		List<SuggestionIndex.Entry> entries = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			entries.add(entry(Integer.toString(random.nextInt(50_000), 36), random.nextInt(50)));
+		}
+		SuggestionIndex index = SuggestionIndex.of(entries);
+		// Repeated keys combined
+		List<SuggestionIndex.Entry> combined = index.top("", Integer.MAX_VALUE);
+
+		for (String prefix : List.of("1", "2a", "3b", "f", "10", "z")) {
+			List<String> expected = combined.stream()
+					.filter(entry -> entry.key().startsWith(prefix))
+					.sorted(Comparator.comparingLong(SuggestionIndex.Entry::weight).reversed()
+							.thenComparing(SuggestionIndex.Entry::key))
+					.limit(8)
+					.map(SuggestionIndex.Entry::key)
+					.toList();
+			assertEquals(expected, keys(index.top(prefix, 8)), prefix);
+		}
+	}
+
+	@Test
+	void spellsGazetteerKeys() {
+		assertEquals("Springfield, IL", LocationSuggester.displayName("springfield il"));
+		assertEquals("St Louis, MO", LocationSuggester.displayName("st louis mo"));
+		assertEquals("Springfield Illinois", LocationSuggester.displayName("springfield illinois"));
+		assertEquals("62701", LocationSuggester.displayName("62701"));
+		assertEquals("M5V 3L9", LocationSuggester.displayName("m5v3l9"));
+	}
+
+	private static SuggestionIndex.Entry entry(String key, long weight) {
+		return new SuggestionIndex.Entry(key, null, weight, POINT);
+	}
+
+	private static List<String> keys(List<SuggestionIndex.Entry> entries) {
+		return entries.stream().map(SuggestionIndex.Entry::key).toList();
+	}
+}
@@ -0,0 +1,57 @@
+package com.tradesoncall.backend.service.provider;
+
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProviderSpatialIndexTest {
+
+	private final ProviderSpatialIndex index = new ProviderSpatialIndex(0.05);
+
+	@Test
+	void returnsProvidersWithinRadiusNearestFirst() {
+		index.upsert(ServiceType.PLUMBER, provider("far", 40.90, -74.00));
+		index.upsert(ServiceType.PLUMBER, provider("near", 40.71, -74.00));
+		index.upsert(ServiceType.PLUMBER, provider("mid", 40.75, -74.02));
+		index.upsert(ServiceType.PLUMBER, provider("out-of-range", 41.50, -74.00));
+		index.upsert(ServiceType.ELECTRICIAN, provider("other-type", 40.70, -74.00));
+
+		List<ServiceSearchResponse> results = index.query(ServiceType.PLUMBER, 40.70, -74.00, 15, 10);
+
+		assertEquals(List.of("near", "mid", "far"), results.stream().map(ServiceSearchResponse::getPlaceId).toList());
+		assertTrue(results.get(0).getDistanceMiles() < 1);
+	}
+
+	@Test
+	void limitsResults() {
+		for (int i = 0; i < 20; i++) {
+			index.upsert(ServiceType.PLUMBER, provider("p" + i, 40.70 + i * 0.001, -74.00));
+		}
+
+		assertEquals(5, index.query(ServiceType.PLUMBER, 40.70, -74.00, 5, 5).size());
+	}
+
+	@Test
+	void upsertReplacesAndMovesProviders() {
+		index.upsert(ServiceType.PLUMBER, provider("moved", 40.70, -74.00));
+		index.upsert(ServiceType.PLUMBER, provider("moved", 34.05, -118.24));
+
+		assertEquals(1, index.size(ServiceType.PLUMBER));
+		assertTrue(index.query(ServiceType.PLUMBER, 40.70, -74.00, 10, 10).isEmpty());
+		assertEquals(1, index.query(ServiceType.PLUMBER, 34.05, -118.24, 10, 10).size());
+	}
+
+	private static ServiceSearchResponse provider(String placeId, double latitude, double longitude) {
+		return ServiceSearchResponse.builder()
+				.placeId(placeId)
+				.name(placeId)
+				.latitude(latitude)
+				.longitude(longitude)
+				.build();
+	}
+}
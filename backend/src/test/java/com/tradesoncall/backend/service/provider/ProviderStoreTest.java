@@ -0,0 +1,99 @@
+package com.tradesoncall.backend.service.provider;
+
+import com.tradesoncall.backend.config.ProviderStoreConfig;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.service.geo.GeoPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProviderStore.class, ProviderStoreConfig.class})
+class ProviderStoreTest {
+
+	private static final GeoPoint CENTER = new GeoPoint(40.70, -74.00);
+
+	@Autowired
+	ProviderStore providerStore;
+
+	private final List<ServiceSearchResponse> nearby = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		providerStore.load();
+		for (int i = 0; i < 6; i++) {
+			nearby.add(ServiceSearchResponse.builder()
+					.placeId("p" + i)
+					.name("Provider " + i)
+					.latitude(40.70 + i * 0.001)
+					.longitude(-74.00)
+					.build());
+		}
+	}
+
+	@Test
+	void servesSearchesWithinTheCoveredCircle() {
+		providerStore.ingest(ServiceType.PLUMBER, CENTER, 2, 20, nearby);
+
+		assertEquals(5, local(CENTER, 2).orElseThrow().size());
+		assertEquals(5, local(new GeoPoint(40.701, -74.00), 1).orElseThrow().size());
+	}
+
+	@Test
+	void sendsWiderSearchesUpstream() {
+		providerStore.ingest(ServiceType.PLUMBER, CENTER, 2, 20, nearby);
+
+		// The providers found within 2 miles would pass the count check, but 2 to 25 miles out was never searched
+		assertTrue(local(CENTER, 25).isEmpty());
+	}
+
+	@Test
+	void fullPageOnlyCoversTheCircleItReaches() {
+		// About 0.7 miles apart, so the farthest of a full page of 6 is 3.5 miles out
+		List<ServiceSearchResponse> fullPage = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			fullPage.add(ServiceSearchResponse.builder()
+					.placeId("spread" + i)
+					.name("Provider " + i)
+					.latitude(40.70 + i * 0.01)
+					.longitude(-74.00)
+					.build());
+		}
+		providerStore.ingest(ServiceType.PLUMBER, CENTER, 25, 6, fullPage);
+
+		assertEquals(5, local(CENTER, 3).orElseThrow().size());
+		assertTrue(local(CENTER, 25).isEmpty());
+		assertTrue(local(new GeoPoint(40.71, -74.00), 3).isEmpty());
+	}
+
+	@Test
+	void textSearchResultsCoverNothing() {
+		providerStore.ingest(ServiceType.PLUMBER, nearby);
+
+		assertTrue(local(CENTER, 1).isEmpty());
+	}
+
+	@Test
+	void narrowerRefreshKeepsWiderCoverage() {
+		providerStore.ingest(ServiceType.PLUMBER, CENTER, 25, 20, nearby);
+		providerStore.ingest(ServiceType.PLUMBER, CENTER, 2, 20, nearby);
+
+		assertEquals(5, local(CENTER, 25).orElseThrow().size());
+	}
+
+	private Optional<List<ServiceSearchResponse>> local(GeoPoint center, int radiusMiles) {
+		return providerStore.findLocal(ServiceType.PLUMBER, center, radiusMiles, 5).blockOptional();
+	}
+}
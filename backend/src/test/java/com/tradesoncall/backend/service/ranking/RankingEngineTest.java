@@ -0,0 +1,89 @@
+package com.tradesoncall.backend.service.ranking;
+
+import com.tradesoncall.backend.config.RankingConfig;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.model.enums.RankingProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankingEngineTest {
+
+	private final RankingEngine engine = new RankingEngine(new RankingConfig());
+
+	@Test
+	void distanceProfileOrdersNearestFirstAndKeepsTopK() {
+		List<ServiceSearchResponse> candidates = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			candidates.add(candidate("p" + i, i * 0.1, 4.0, 10));
+		}
+		Collections.shuffle(candidates, new Random(7));
+
+		List<ServiceSearchResponse> ranked = engine.rank(candidates,
+				new RankingRequest(RankingProfile.DISTANCE, 10, null, false, 5));
+
+		assertEquals(List.of("p0", "p1", "p2", "p3", "p4"), placeIds(ranked));
+	}
+
+	@Test
+	void topRatedPrefersWellReviewedRatings() {
+		List<ServiceSearchResponse> candidates = List.of(
+				candidate("near-unrated", 0.5, null, null),
+				candidate("few-reviews", 2, 5.0, 1),
+				candidate("many-reviews", 3, 4.8, 400)
+		);
+
+		List<ServiceSearchResponse> ranked = engine.rank(candidates,
+				new RankingRequest(RankingProfile.TOP_RATED, 10, null, false, 3));
+
+		assertEquals("many-reviews", ranked.get(0).getPlaceId());
+		assertEquals("near-unrated", ranked.get(2).getPlaceId());
+	}
+
+	@Test
+	void appliesFiltersInTheSamePass() {
+		ServiceSearchResponse open = candidate("open", 1, 4.5, 10).toBuilder().openNow(true).build();
+		ServiceSearchResponse closed = candidate("closed", 1, 4.5, 10).toBuilder().openNow(false).build();
+		ServiceSearchResponse lowRated = candidate("low", 1, 2.0, 10).toBuilder().openNow(true).build();
+
+		List<ServiceSearchResponse> ranked = engine.rank(List.of(open, closed, lowRated),
+				new RankingRequest(null, 10, 3.0, true, 10));
+
+		assertEquals(List.of("open"), placeIds(ranked));
+	}
+
+	@Test
+	void tiesKeepIncomingOrder() {
+		List<ServiceSearchResponse> candidates = List.of(
+				candidate("a", 1, 4.0, 10), candidate("b", 1, 4.0, 10), candidate("c", 1, 4.0, 10));
+
+		assertEquals(List.of("a", "b"), placeIds(engine.rank(candidates,
+				new RankingRequest(RankingProfile.BALANCED, 10, null, false, 2))));
+	}
+
+	@Test
+	void overFetchesWithinTheCap() {
+		assertEquals(20, engine.fetchSize(10));
+		assertEquals(20, engine.fetchSize(15));
+		assertTrue(engine.fetchSize(1) >= 1);
+	}
+
+	private static ServiceSearchResponse candidate(String placeId, double distanceMiles, Double rating, Integer reviews) {
+		return ServiceSearchResponse.builder()
+				.placeId(placeId)
+				.distanceMiles(distanceMiles)
+				.rating(rating)
+				.totalReviews(reviews)
+				.build();
+	}
+
+	private static List<String> placeIds(List<ServiceSearchResponse> results) {
+		return results.stream().map(ServiceSearchResponse::getPlaceId).toList();
+	}
+}
@@ -0,0 +1,62 @@
+package com.tradesoncall.backend.service.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradesoncall.backend.config.SearchExecutionConfig;
+import com.tradesoncall.backend.exception.BadRequestException;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorCodecTest {
+
+	private final SearchCursor cursor = SearchCursor.builder()
+			.serviceType(ServiceType.HANDYMAN)
+			.location("New York, NY")
+			.latitude(40.7)
+			.longitude(-74.0)
+			.radiusMiles(10)
+			.pageSize(10)
+			.source(SearchCursor.Source.GOOGLE_TEXT)
+			.pageToken("next-page")
+			.build();
+
+	@Test
+	void roundTrips() {
+		SearchCursorCodec codec = codec(Duration.ofMinutes(30));
+
+		SearchCursor decoded = codec.decode(codec.encode(cursor));
+
+		assertEquals(cursor.getServiceType(), decoded.getServiceType());
+		assertEquals(cursor.getPageToken(), decoded.getPageToken());
+		assertEquals(cursor.getLatitude(), decoded.getLatitude());
+	}
+
+	@Test
+	void rejectsTamperedAndMalformedCursors() {
+		SearchCursorCodec codec = codec(Duration.ofMinutes(30));
+		String token = codec.encode(cursor);
+		String tampered = token.replace(token.substring(0, 4), "eyJz".equals(token.substring(0, 4)) ? "eyJa" : "eyJz");
+
+		assertThrows(BadRequestException.class, () -> codec.decode(tampered));
+		assertThrows(BadRequestException.class, () -> codec.decode("not-a-cursor"));
+		assertThrows(BadRequestException.class, () -> codec.decode(null));
+	}
+
+	@Test
+	void rejectsExpiredCursors() {
+		SearchCursorCodec codec = codec(Duration.ofSeconds(-1));
+
+		assertThrows(BadRequestException.class, () -> codec.decode(codec.encode(cursor)));
+	}
+
+	private static SearchCursorCodec codec(Duration ttl) {
+		SearchExecutionConfig config = new SearchExecutionConfig();
+		config.setCursorSecret("test-secret");
+		config.setCursorTtl(ttl);
+		return new SearchCursorCodec(new ObjectMapper(), config);
+	}
+}
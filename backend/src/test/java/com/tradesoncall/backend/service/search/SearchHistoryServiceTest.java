@@ -0,0 +1,131 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.config.SearchHistoryPartitionConfig;
+import com.tradesoncall.backend.exception.BadRequestException;
+import com.tradesoncall.backend.model.dto.response.SearchHistoryPageResponse;
+import com.tradesoncall.backend.model.dto.response.SearchHistoryResponse;
+import com.tradesoncall.backend.model.entity.SearchHistory;
+import com.tradesoncall.backend.model.entity.User;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.model.enums.UserType;
+import com.tradesoncall.backend.repository.SearchHistoryRepository;
+import com.tradesoncall.backend.repository.UserRepository;
+import com.tradesoncall.backend.service.user.UserQueryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({SearchHistoryService.class, SearchHistoryPartitions.class, SearchHistoryPartitionConfig.class,
+		UserQueryService.class, BCryptPasswordEncoder.class})
+class SearchHistoryServiceTest {
+
+	@Autowired
+	SearchHistoryService searchHistoryService;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	SearchHistoryRepository searchHistoryRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	private final List<UUID> expected = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		UUID userId = saveUser("+15550001");
+		UUID otherUserId = saveUser("+15550002");
+
+		// Pairs of searches share a timestamp, so pages have to break ties on the search ID
+		LocalDateTime start = LocalDateTime.of(2026, 1, 1, 12, 0);
+		for (int i = 0; i < 45; i++) {
+			LocalDateTime searchedAt = start.plusMinutes(i / 2);
+			expected.add(insert(userId, searchedAt));
+			insert(otherUserId, searchedAt);
+		}
+		expected.sort((a, b) -> {
+			int byTime = searchedAt(b).compareTo(searchedAt(a));
+			// The database orders UUIDs as unsigned bytes, like their hex strings; UUID.compareTo does not
+			return byTime != 0 ? byTime : b.toString().compareTo(a.toString());
+		});
+	}
+
+	@Test
+	void pagesThroughHistoryMostRecentFirst() {
+		List<UUID> seen = new ArrayList<>();
+		List<Integer> pageSizes = new ArrayList<>();
+		String cursor = null;
+		do {
+			SearchHistoryPageResponse page = searchHistoryService.getHistory("+15550001", cursor, 20);
+			page.getSearches().stream().map(SearchHistoryResponse::getSearchId).forEach(seen::add);
+			pageSizes.add(page.getSearches().size());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertEquals(List.of(20, 20, 5), pageSizes);
+		assertEquals(expected, seen);
+	}
+
+	@Test
+	void lastFullPageHasNoCursor() {
+		SearchHistoryPageResponse page = searchHistoryService.getHistory("+15550001", null, 45);
+
+		assertEquals(45, page.getSearches().size());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void leavesOutSearchesPastRetention() {
+		insert(userRepository.findByPhone("+15550001").orElseThrow().getUserId(), LocalDateTime.now().minusYears(3));
+
+		SearchHistoryPageResponse page = searchHistoryService.getHistory("+15550001", null, 50);
+
+		assertEquals(expected, page.getSearches().stream().map(SearchHistoryResponse::getSearchId).toList());
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertThrows(BadRequestException.class, () -> searchHistoryService.getHistory("+15550001", "not-a-cursor", 20));
+	}
+
+	private UUID saveUser(String phone) {
+		return userRepository.save(User.builder()
+				.phone(phone)
+				.passwordHash("x")
+				.userType(UserType.CUSTOMER)
+				.isVerified(true)
+				.build()).getUserId();
+	}
+
+	private UUID insert(UUID userId, LocalDateTime searchedAt) {
+		UUID searchId = UUID.randomUUID();
+		jdbcTemplate.update("""
+				INSERT INTO search_history (search_id, user_id, service_type, location, results_count, searched_at)
+				VALUES (?, ?, ?, ?, ?, ?)
+				""", searchId, userId, ServiceType.PLUMBER.name(), "Springfield, IL", 5, Timestamp.valueOf(searchedAt));
+		return searchId;
+	}
+
+	private LocalDateTime searchedAt(UUID searchId) {
+		return searchHistoryRepository.findById(searchId).map(SearchHistory::getSearchedAt).orElseThrow();
+	}
+}
@@ -0,0 +1,202 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.config.SearchHistoryWriterConfig;
+import com.tradesoncall.backend.config.SearchRollupConfig;
+import com.tradesoncall.backend.model.entity.SearchHistory;
+import com.tradesoncall.backend.model.enums.QueueOverflowPolicy;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.repository.SearchRollupRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+// The writer inserts on its own thread, so rows have to be committed to be seen
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SearchHistoryWriterTest {
+
+	private static final UUID USER = UUID.randomUUID();
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	SearchRollupRepository searchRollupRepository;
+
+	private SearchHistoryWriter writer;
+
+	@AfterEach
+	void tearDown() {
+		writer.stop();
+		jdbcTemplate.update("DELETE FROM search_history");
+	}
+
+	@Test
+	void writesFullBatchesBeforeTheFlushInterval() {
+		writer = start(config(100, 3, QueueOverflowPolicy.DROP));
+		for (int i = 0; i < 7; i++) {
+			writer.submit(search("Location " + i));
+		}
+
+		await(() -> writer.stats().getWritten() >= 3);
+		writer.stop();
+
+		assertEquals(7, writer.stats().getWritten());
+		assertEquals(7, rows());
+	}
+
+	@Test
+	void flushesQueuedSearchesOnStop() {
+		writer = start(config(100, 100, QueueOverflowPolicy.DROP));
+		for (int i = 0; i < 5; i++) {
+			writer.submit(search("Location " + i));
+		}
+		assertEquals(0, rows());
+
+		writer.stop();
+
+		assertEquals(5, rows());
+		assertEquals(0, writer.stats().getQueued());
+	}
+
+	@Test
+	void writesSearchesSubmittedAfterStop() {
+		writer = start(config(100, 100, QueueOverflowPolicy.DROP));
+		writer.stop();
+
+		writer.submit(search("Springfield, IL"));
+
+		assertEquals(1, rows());
+	}
+
+	@Test
+	void losesNoSearchesSubmittedWhileStopping() throws InterruptedException {
+		writer = start(config(100_000, 50, QueueOverflowPolicy.DROP));
+		Thread[] submitters = new Thread[4];
+		for (int t = 0; t < submitters.length; t++) {
+			int thread = t;
+			submitters[t] = Thread.ofPlatform().start(() -> {
+				for (int i = 0; i < 500; i++) {
+					writer.submit(search("Location " + thread + " " + i));
+				}
+			});
+		}
+		writer.stop();
+		for (Thread submitter : submitters) {
+			submitter.join();
+		}
+
+		assertEquals(2000, rows());
+	}
+
+	@Test
+	void collapsesRepeatedSearches() {
+		writer = start(config(100, 100, QueueOverflowPolicy.DROP));
+		writer.submit(search("Springfield, IL"));
+		writer.submit(search("springfield il"));
+		writer.submit(search("Springfield, MO"));
+		writer.stop();
+
+		assertEquals(1, writer.stats().getCollapsed());
+		assertEquals(2, rows());
+	}
+
+	@Test
+	void dropsSearchesWhenTheQueueIsFull() {
+		writer = start(config(2, 100, QueueOverflowPolicy.DROP));
+		for (int i = 0; i < 3; i++) {
+			writer.submit(search("Location " + i));
+		}
+
+		assertEquals(1, writer.stats().getDropped());
+		writer.stop();
+		assertEquals(2, rows());
+	}
+
+	@Test
+	void blocksUntilTheTimeoutWhenTheQueueStaysFull() {
+		writer = start(config(2, 100, QueueOverflowPolicy.BLOCK));
+		writer.submit(search("Location 0"));
+		writer.submit(search("Location 1"));
+
+		long started = System.nanoTime();
+		writer.submit(search("Location 2"));
+
+		assertTrue(System.nanoTime() - started >= Duration.ofMillis(50).toNanos());
+		assertEquals(1, writer.stats().getDropped());
+	}
+
+	@Test
+	void blocksUntilTheWriterMakesRoom() {
+		// A full queue is also a full batch, so the writer drains it while the third search waits
+		writer = start(config(2, 2, QueueOverflowPolicy.BLOCK));
+		for (int i = 0; i < 3; i++) {
+			writer.submit(search("Location " + i));
+		}
+		writer.stop();
+
+		assertEquals(0, writer.stats().getDropped());
+		assertEquals(3, rows());
+	}
+
+	private SearchHistoryWriter start(SearchHistoryWriterConfig config) {
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("meterRegistry", new SimpleMeterRegistry());
+		ObjectProvider<MeterRegistry> meterRegistry = beans.getBeanProvider(MeterRegistry.class);
+		// Never started, so its counts are never flushed
+		SearchRollups searchRollups = new SearchRollups(new SearchRollupConfig(), jdbcTemplate,
+				searchRollupRepository, meterRegistry);
+		SearchHistoryWriter started = new SearchHistoryWriter(config, jdbcTemplate, searchRollups, meterRegistry);
+		started.start();
+		return started;
+	}
+
+	private static SearchHistoryWriterConfig config(int queueCapacity, int batchSize, QueueOverflowPolicy policy) {
+		SearchHistoryWriterConfig config = new SearchHistoryWriterConfig();
+		config.setQueueCapacity(queueCapacity);
+		config.setBatchSize(batchSize);
+		config.setFlushInterval(Duration.ofHours(1));
+		config.setOverflowPolicy(policy);
+		config.setBlockTimeout(Duration.ofMillis(50));
+		return config;
+	}
+
+	private static SearchHistory search(String location) {
+		return SearchHistory.builder()
+				.userId(USER)
+				.serviceType(ServiceType.PLUMBER)
+				.location(location)
+				.resultsCount(5)
+				.build();
+	}
+
+	private int rows() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM search_history", Integer.class);
+	}
+
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			LockSupport.parkNanos(Duration.ofMillis(1).toNanos());
+		}
+	}
+}
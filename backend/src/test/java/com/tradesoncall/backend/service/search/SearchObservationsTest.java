@@ -0,0 +1,56 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.service.search.SearchObservations.Stage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchObservationsTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SearchObservations observations = observations(meterRegistry);
+
+	@Test
+	void timesReactiveStagesFromSubscription() {
+		Mono<String> geocode = observations.observe(Stage.GEOCODE, Mono.just("point"));
+		assertEquals(0, meterRegistry.find(SearchObservations.NAME).timers().size());
+
+		geocode.block();
+		assertThrows(IllegalStateException.class, () -> observations
+				.observe(Stage.GEOCODE, Mono.error(new IllegalStateException("down"))).block());
+
+		assertEquals(1, timer("geocode", "none").count());
+		assertEquals(1, timer("geocode", "IllegalStateException").count());
+	}
+
+	@Test
+	void timesBlockingStagesWithTheSameTags() {
+		assertEquals(3, observations.observe(Stage.RANKING, () -> 3));
+		observations.observe(Stage.HISTORY, () -> { });
+
+		assertEquals(1, timer("ranking", "none").count());
+		assertEquals(1, timer("history", "none").count());
+	}
+
+	private Timer timer(String stage, String error) {
+		Timer timer = meterRegistry.find(SearchObservations.NAME).tags("stage", stage, "error", error).timer();
+		assertNotNull(timer);
+		return timer;
+	}
+
+	private static SearchObservations observations(SimpleMeterRegistry meterRegistry) {
+		ObservationRegistry registry = ObservationRegistry.create();
+		registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("observationRegistry", registry);
+		return new SearchObservations(beans.getBeanProvider(ObservationRegistry.class));
+	}
+}
@@ -0,0 +1,87 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.config.SearchRollupConfig;
+import com.tradesoncall.backend.model.dto.response.PopularServiceResponse;
+import com.tradesoncall.backend.model.entity.SearchHistory;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import com.tradesoncall.backend.repository.SearchRollupRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class SearchRollupsTest {
+
+	// Mid-hour, so every record stamped now falls in the current hour
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 14, 15, 30);
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	SearchRollupRepository searchRollupRepository;
+
+	SearchRollups searchRollups;
+
+	@BeforeEach
+	void setUp() {
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("meterRegistry", new SimpleMeterRegistry());
+		Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+		searchRollups = new SearchRollups(new SearchRollupConfig(), jdbcTemplate, searchRollupRepository,
+				beans.getBeanProvider(MeterRegistry.class), clock);
+	}
+
+	@Test
+	void countsSearchesAcrossFlushes() {
+		LocalDateTime now = NOW;
+		record(ServiceType.PLUMBER, now, 40.71, -74.0);
+		record(ServiceType.PLUMBER, now, 40.72, -74.01);
+		record(ServiceType.ELECTRICIAN, now, 34.05, -118.24);
+		searchRollups.flush();
+
+		// Added to the rows written by the first flush
+		record(ServiceType.ELECTRICIAN, now, 34.05, -118.24);
+		record(ServiceType.ELECTRICIAN, now, 34.05, -118.24);
+		record(ServiceType.ELECTRICIAN, now.minusDays(3), 34.05, -118.24);
+		searchRollups.flush();
+
+		assertEquals(List.of("ELECTRICIAN 3", "PLUMBER 2"), popular(1, null, null, null));
+		assertEquals(List.of("ELECTRICIAN 4", "PLUMBER 2"), popular(null, null, null, null));
+		assertEquals(List.of("ELECTRICIAN 3", "PLUMBER 2"), popular(null, 1, null, null));
+		assertEquals(List.of("PLUMBER 2"), popular(null, null, 40.7, -74.0));
+		assertEquals(List.of("ELECTRICIAN 4"), popular(30, null, 34.0, -118.2));
+	}
+
+	private void record(ServiceType serviceType, LocalDateTime searchedAt, double latitude, double longitude) {
+		searchRollups.record(SearchHistory.builder()
+				.serviceType(serviceType)
+				.latitude(BigDecimal.valueOf(latitude))
+				.longitude(BigDecimal.valueOf(longitude))
+				.searchedAt(searchedAt)
+				.build());
+	}
+
+	private List<String> popular(Integer days, Integer hours, Double latitude, Double longitude) {
+		return searchRollups.popularServices(days, hours, latitude, longitude, null).stream()
+				.map(PopularServiceResponse::toString)
+				.map(row -> row.replaceAll(".*serviceType=(\\w+),.*searches=(\\d+).*", "$1 $2"))
+				.toList();
+	}
+}
@@ -0,0 +1,126 @@
+package com.tradesoncall.backend.service.search;
+
+import com.tradesoncall.backend.config.SearchCacheConfig;
+import com.tradesoncall.backend.model.dto.response.ServiceSearchResponse;
+import com.tradesoncall.backend.model.enums.ServiceType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StaleWhileRevalidateSearchResultCacheTest {
+
+	private static final SearchResultKey KEY = new SearchResultKey(ServiceType.PLUMBER, "dr5reg", 5, 20);
+
+	private final AtomicLong nanoTime = new AtomicLong();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final StaleWhileRevalidateSearchResultCache cache = cache();
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void freshEntriesAreServedWithoutLoading() {
+		assertEquals(names("Acme"), get(loader("Acme")));
+
+		advance(Duration.ofMinutes(9));
+		assertEquals(names("Acme"), get(loader("Other")));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void staleEntriesAreRefreshedOncePerKey() {
+		get(loader("Acme"));
+		advance(Duration.ofMinutes(15));
+
+		Sinks.One<List<ServiceSearchResponse>> refresh = Sinks.one();
+		Supplier<Mono<List<ServiceSearchResponse>>> pending = () -> {
+			loads.incrementAndGet();
+			return refresh.asMono();
+		};
+		assertEquals(names("Acme"), get(pending));
+		assertEquals(names("Acme"), get(pending));
+		assertEquals(2, loads.get());
+
+		refresh.tryEmitValue(List.of(result("Refreshed")));
+		assertEquals(names("Refreshed"), get(loader("Other")));
+		assertEquals(2, loads.get());
+
+		// The finished refresh releases the key for the next one
+		advance(Duration.ofMinutes(15));
+		assertEquals(names("Refreshed"), get(loader("Again")));
+		assertEquals(3, loads.get());
+		assertEquals(3, staleServed("revalidate"));
+	}
+
+	@Test
+	void staleIfErrorEntriesAreServedWhenLoadingFails() {
+		get(loader("Acme"));
+		advance(Duration.ofHours(2));
+
+		assertEquals(names("Acme"), get(failing()));
+		assertEquals(1, staleServed("error"));
+		assertEquals(0, staleServed("revalidate"));
+	}
+
+	@Test
+	void expiredEntriesAreNotServedWhenLoadingFails() {
+		get(loader("Acme"));
+		advance(Duration.ofHours(25));
+
+		assertThrows(IllegalStateException.class, () -> get(failing()));
+		assertEquals(0, staleServed("error"));
+	}
+
+	private StaleWhileRevalidateSearchResultCache cache() {
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("meterRegistry", meterRegistry);
+		return new StaleWhileRevalidateSearchResultCache(new SearchCacheConfig(),
+				beans.getBeanProvider(MeterRegistry.class), nanoTime::get);
+	}
+
+	private List<String> get(Supplier<Mono<List<ServiceSearchResponse>>> loader) {
+		return cache.get(KEY, loader).block().stream()
+				.map(ServiceSearchResponse::getName)
+				.toList();
+	}
+
+	private Supplier<Mono<List<ServiceSearchResponse>>> loader(String name) {
+		return () -> {
+			loads.incrementAndGet();
+			return Mono.just(List.of(result(name)));
+		};
+	}
+
+	private Supplier<Mono<List<ServiceSearchResponse>>> failing() {
+		return () -> {
+			loads.incrementAndGet();
+			return Mono.error(new IllegalStateException("quota exceeded"));
+		};
+	}
+
+	private void advance(Duration duration) {
+		nanoTime.addAndGet(duration.toNanos());
+	}
+
+	private double staleServed(String reason) {
+		return meterRegistry.get("search.cache.stale").tag("reason", reason).functionCounter().count();
+	}
+
+	private static ServiceSearchResponse result(String name) {
+		return ServiceSearchResponse.builder().name(name).build();
+	}
+
+	private static List<String> names(String... names) {
+		return List.of(names);
+	}
+}